@@ -10,12 +10,32 @@ import classes.controllers.WindowController;
  */
 public class OjeechanQuest {
 
+    // 描画のモードを指定するシステムプロパティ
+    private static final String RENDER_PROPERTY = "ojeechanquest.render";
+
+    // 描画のモードを指定するコマンドライン引数の接頭辞
+    private static final String RENDER_OPTION = "--render=";
+
     /**
+     * <pre>
      * mainメソッド
+     * 描画のモードはシステムプロパティ ojeechanquest.render、
+     * またはコマンドライン引数 --render=<モード名> で指定する(引数を優先する)
+     * </pre>
      *
      * @param args コマンドライン引数
      */
     public static void main(String[] args) {
+        String render = System.getProperty(RENDER_PROPERTY);
+        for(String arg: args) {
+            if(arg.startsWith(RENDER_OPTION)) {
+                render = arg.substring(RENDER_OPTION.length());
+            }
+        }
+        if(render != null) {
+            GameController.setRenderMode(GameController.toRenderMode(render));
+        }
+
         WindowController window = new WindowController();
         new GameController(window);
     }
@@ -0,0 +1,139 @@
+package classes.containers;
+
+/**
+ * <pre>
+ * 掃引による衝突判定の結果を格納するクラス
+ * 毎フレーム多数のスプライトで使用するため、1つのオブジェクトを使い回す
+ * 位置はスプライト画像の矩形左端のX座標、下端のY座標で表す
+ * 法線は衝突した面の向き(X方向は[-1: 左] [1: 右]、Y方向は[-1: 上] [1: 下]、衝突していなければ0)
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class Contact {
+
+    // 各方向で衝突したかどうか
+    private boolean hitX;
+    private boolean hitY;
+
+    // 衝突を解決した後の位置
+    private double x;
+    private double y;
+
+    // 衝突した面の法線
+    private int normalX;
+    private int normalY;
+
+    // 移動量に対する最初の衝突までの割合(0 ~ 1、衝突していなければ1)
+    private double time;
+
+    /**
+     * <pre>
+     * 衝突していない状態に戻す
+     * 位置には移動後の位置を設定する
+     * </pre>
+     *
+     * @param x 移動後の画像矩形左端のX座標
+     * @param y 移動後の画像矩形下端のY座標
+     */
+    public void reset(double x, double y) {
+        this.hitX = false;
+        this.hitY = false;
+        this.x = x;
+        this.y = y;
+        this.normalX = 0;
+        this.normalY = 0;
+        this.time = 1;
+    }
+
+    /**
+     * X方向の衝突を設定する
+     *
+     * @param x      衝突を解決した後の画像矩形左端のX座標
+     * @param normal 衝突した面の法線
+     * @param time   移動量に対する衝突までの割合
+     */
+    public void hitX(double x, int normal, double time) {
+        this.hitX = true;
+        this.x = x;
+        this.normalX = normal;
+        this.time = Math.min(this.time, time);
+    }
+
+    /**
+     * Y方向の衝突を設定する
+     *
+     * @param y      衝突を解決した後の画像矩形下端のY座標
+     * @param normal 衝突した面の法線
+     * @param time   移動量に対する衝突までの割合
+     */
+    public void hitY(double y, int normal, double time) {
+        this.hitY = true;
+        this.y = y;
+        this.normalY = normal;
+        this.time = Math.min(this.time, time);
+    }
+
+    /**
+     * X方向で衝突したかどうかを返す
+     *
+     * @return 衝突したかどうか
+     */
+    public boolean isHitX() {
+        return hitX;
+    }
+
+    /**
+     * Y方向で衝突したかどうかを返す
+     *
+     * @return 衝突したかどうか
+     */
+    public boolean isHitY() {
+        return hitY;
+    }
+
+    /**
+     * 衝突を解決した後の画像矩形左端のX座標を返す
+     *
+     * @return 画像矩形左端のX座標
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * 衝突を解決した後の画像矩形下端のY座標を返す
+     *
+     * @return 画像矩形下端のY座標
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * X方向で衝突した面の法線を返す
+     *
+     * @return 法線 [-1: 左] [1: 右] [0: 衝突なし]
+     */
+    public int getNormalX() {
+        return normalX;
+    }
+
+    /**
+     * Y方向で衝突した面の法線を返す
+     *
+     * @return 法線 [-1: 上] [1: 下] [0: 衝突なし]
+     */
+    public int getNormalY() {
+        return normalY;
+    }
+
+    /**
+     * 移動量に対する最初の衝突までの割合を返す
+     *
+     * @return 衝突までの割合(0 ~ 1)
+     */
+    public double getTime() {
+        return time;
+    }
+}
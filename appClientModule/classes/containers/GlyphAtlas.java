@@ -0,0 +1,230 @@
+package classes.containers;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import classes.utils.GeneralUtil;
+
+/**
+ * <pre>
+ * フォント画像を1枚の画像にまとめたグリフアトラス
+ * 文字ごとのフォント画像を一度だけ読み込み、アトラス上の矩形として管理する
+ * 描画時のグリフのサイズごとに、全てのグリフを拡大縮小済みのアトラスを保持し、等倍で切り出して描画する
+ * 拡大縮小済みのアトラスはウィンドウサイズが変わった時点で破棄する
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class GlyphAtlas {
+
+    // 全てのグリフを格納した画像オブジェクト
+    private BufferedImage atlas;
+
+    // 文字ごとのアトラス上の矩形
+    private Map<Character, Rectangle> index;
+
+    // 文字ごとのアトラスの部分画像
+    private Map<Character, BufferedImage> glyphs;
+
+    // 未登録の文字に使用するグリフの矩形と部分画像
+    private Rectangle fallbackRect;
+    private BufferedImage fallbackGlyph;
+
+    // アトラスのセルのサイズ
+    private int cellWidth;
+    private int cellHeight;
+
+    // アトラスに書き込んだ全てのグリフの矩形
+    private Collection<Rectangle> cells;
+
+    // 描画時のグリフのサイズごとの拡大縮小済みのアトラス
+    private Map<Long, BufferedImage> scaledAtlas;
+
+    // 拡大縮小済みのアトラスを生成した時点のウィンドウサイズの変更回数
+    private long scaledGeneration;
+
+    /**
+     * フォント画像を読み込みアトラスに詰める
+     *
+     * @param fontMap      文字とフォント画像のファイルパスのマップ
+     * @param fallbackPath 未登録の文字に使用するフォント画像のファイルパス
+     */
+    public GlyphAtlas(Map<Character, String> fontMap, String fallbackPath) {
+
+        // 同じパスの画像は一度だけ読み込む
+        Map<String, BufferedImage> decoded = new LinkedHashMap<String, BufferedImage>();
+        decoded.put(fallbackPath, GeneralUtil.readImage(fallbackPath));
+        for(String path: fontMap.values()) {
+            if(!decoded.containsKey(path)) {
+                decoded.put(path, GeneralUtil.readImage(path));
+            }
+        }
+
+        // セルサイズは最大のグリフに合わせる
+        cellWidth = 1;
+        cellHeight = 1;
+        for(BufferedImage img: decoded.values()) {
+            if(img != null) {
+                cellWidth = Math.max(cellWidth, img.getWidth());
+                cellHeight = Math.max(cellHeight, img.getHeight());
+            }
+        }
+
+        int columns = (int) Math.ceil(Math.sqrt(decoded.size()));
+        int rows = (int) Math.ceil((double) decoded.size() / columns);
+        atlas = new BufferedImage(cellWidth * columns, cellHeight * rows, BufferedImage.TYPE_INT_ARGB);
+
+        // アトラスにグリフを書き込み、パスごとの矩形を記録する
+        Map<String, Rectangle> pathRect = new HashMap<String, Rectangle>();
+        Graphics2D g2 = atlas.createGraphics();
+        int i = 0;
+        for(Map.Entry<String, BufferedImage> e: decoded.entrySet()) {
+            BufferedImage img = e.getValue();
+            if(img != null) {
+                int x = (i % columns) * cellWidth;
+                int y = (i / columns) * cellHeight;
+                g2.drawImage(img, x, y, null);
+                pathRect.put(e.getKey(), new Rectangle(x, y, img.getWidth(), img.getHeight()));
+            }
+            i++;
+        }
+        g2.dispose();
+
+        index = new HashMap<Character, Rectangle>();
+        glyphs = new HashMap<Character, BufferedImage>();
+        for(Map.Entry<Character, String> e: fontMap.entrySet()) {
+            Rectangle r = pathRect.get(e.getValue());
+            if(r != null) {
+                index.put(e.getKey(), r);
+                glyphs.put(e.getKey(), atlas.getSubimage(r.x, r.y, r.width, r.height));
+            }
+        }
+
+        cells = pathRect.values();
+        scaledAtlas = new ConcurrentHashMap<Long, BufferedImage>();
+
+        fallbackRect = pathRect.get(fallbackPath);
+        if(fallbackRect != null) {
+            fallbackGlyph = atlas.getSubimage(fallbackRect.x, fallbackRect.y, fallbackRect.width, fallbackRect.height);
+        }
+    }
+
+    /**
+     * アトラス画像を返す
+     *
+     * @return 全てのグリフを格納した画像オブジェクト
+     */
+    public BufferedImage getAtlas() {
+        return atlas;
+    }
+
+    /**
+     * 文字に対応するアトラス上の矩形を返す
+     *
+     * @param c 文字
+     *
+     * @return アトラス上の矩形
+     */
+    public Rectangle getRect(char c) {
+        Rectangle r = index.get(c);
+        return r != null ? r : fallbackRect;
+    }
+
+    /**
+     * <pre>
+     * 文字に対応するグリフを返す
+     * 返す画像はアトラスの部分画像のため、ピクセルデータはアトラスと共有される
+     * </pre>
+     *
+     * @param c 文字
+     *
+     * @return グリフの画像オブジェクト
+     */
+    public BufferedImage getGlyph(char c) {
+        BufferedImage glyph = glyphs.get(c);
+        return glyph != null ? glyph : fallbackGlyph;
+    }
+
+    /**
+     * <pre>
+     * アトラスから文字の矩形を切り出して指定位置に描画する
+     * 描画サイズに拡大縮小済みのアトラスから等倍で切り出す
+     * </pre>
+     *
+     * @param c 描画する文字
+     * @param x 描画先の左上のX座標
+     * @param y 描画先の左上のY座標
+     * @param w 描画先の幅
+     * @param h 描画先の高さ
+     * @param g グラフィックスオブジェクト
+     */
+    public void drawGlyph(char c, int x, int y, int w, int h, Graphics g) {
+        Rectangle r = getRect(c);
+        if(r == null) {
+            return;
+        }
+        BufferedImage scaled = getScaledAtlas(w, h);
+        if(scaled != null) {
+            int sx = r.x / cellWidth * w;
+            int sy = r.y / cellHeight * h;
+            g.drawImage(scaled, x, y, x + w, y + h, sx, sy, sx + w, sy + h, null);
+            return;
+        }
+        g.drawImage(
+                atlas,
+                x,
+                y,
+                x + w,
+                y + h,
+                r.x,
+                r.y,
+                r.x + r.width,
+                r.y + r.height,
+                null
+                );
+    }
+
+    /**
+     * <pre>
+     * 全てのグリフを指定サイズに拡大縮小したアトラスを返す
+     * グリフはセルごとに指定サイズへ拡大縮小し、セルの並びはアトラスと同じとする
+     * ウィンドウサイズが変わっていれば、保持している全てのサイズを破棄して作り直す
+     * </pre>
+     *
+     * @param w グリフの描画サイズの幅
+     * @param h グリフの描画サイズの高さ
+     *
+     * @return 拡大縮小済みのアトラス、サイズが不正な場合はnull
+     */
+    private BufferedImage getScaledAtlas(int w, int h) {
+        if(w <= 0 || h <= 0) {
+            return null;
+        }
+        long generation = ScaledImageCache.getInstance().getGeneration();
+        if(scaledGeneration != generation) {
+            scaledAtlas.clear();
+            scaledGeneration = generation;
+        }
+        return scaledAtlas.computeIfAbsent(((long) w << 32) | h, key -> {
+            int columns = atlas.getWidth() / cellWidth;
+            int rows = atlas.getHeight() / cellHeight;
+            BufferedImage scaled = GeneralUtil.createCompatibleImage(columns * w, rows * h, Transparency.TRANSLUCENT);
+            Graphics2D g2 = scaled.createGraphics();
+            for(Rectangle r: cells) {
+                int dx = r.x / cellWidth * w;
+                int dy = r.y / cellHeight * h;
+                g2.drawImage(atlas, dx, dy, dx + w, dy + h, r.x, r.y, r.x + r.width, r.y + r.height, null);
+            }
+            g2.dispose();
+            return scaled;
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package classes.containers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ * 入力イベントを受け渡す、書き込み側と読み出し側が1スレッドずつのリングバッファ
+ * イベントはキーコード、押下/解放、発生時刻の組で保持する
+ * 書き込み側(EDT、MIDIの受信スレッド)と読み出し側(ゲームループ)はロックを取らずに動作する
+ * 容量を超えたイベントは破棄する
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class InputRingBuffer {
+
+    /**
+     * 読み出したイベントを受け取るインターフェース
+     */
+    public interface Consumer {
+
+        /**
+         * イベントを1件受け取る
+         *
+         * @param code    キーコード
+         * @param pressed 押下の場合 true、解放の場合 false
+         * @param when    イベントの発生時刻
+         */
+        void accept(int code, boolean pressed, long when);
+    }
+
+    // 添字を求めるためのマスク(容量 - 1)
+    private final int mask;
+
+    // イベントの内容
+    private final int[] codes;
+    private final boolean[] pressed;
+    private final long[] whens;
+
+    // 次に読み出す位置(読み出し側のみが更新する)
+    private final AtomicLong head;
+
+    // 次に書き込む位置(書き込み側のみが更新する)
+    private final AtomicLong tail;
+
+    /**
+     * 容量を指定してバッファを確保する
+     *
+     * @param capacity 保持できるイベントの数(2のべき乗に切り上げる)
+     */
+    public InputRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        mask = size - 1;
+        codes = new int[size];
+        pressed = new boolean[size];
+        whens = new long[size];
+        head = new AtomicLong();
+        tail = new AtomicLong();
+    }
+
+    /**
+     * <pre>
+     * イベントを1件書き込む
+     * 書き込み側のスレッドからのみ呼び出す
+     * </pre>
+     *
+     * @param code    キーコード
+     * @param down    押下の場合 true、解放の場合 false
+     * @param when    イベントの発生時刻
+     * @return 書き込めた場合 true、バッファが一杯の場合 false
+     */
+    public boolean offer(int code, boolean down, long when) {
+        long t = tail.get();
+        if(t - head.get() > mask) {
+            return false;
+        }
+        int i = (int) t & mask;
+        codes[i] = code;
+        pressed[i] = down;
+        whens[i] = when;
+        // 内容を書き終えてから位置を公開する
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * <pre>
+     * 書き込まれた順に全てのイベントを読み出す
+     * 読み出し側のスレッドからのみ呼び出す
+     * 読み出し中に書き込まれたイベントは次回に読み出す
+     * </pre>
+     *
+     * @param consumer イベントを受け取るオブジェクト
+     * @return 読み出したイベントの数
+     */
+    public int drain(Consumer consumer) {
+        long h = head.get();
+        long t = tail.get();
+        for(long n = h; n < t; n++) {
+            int i = (int) n & mask;
+            consumer.accept(codes[i], pressed[i], whens[i]);
+        }
+        // 読み終えてから領域を書き込み側に返す
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+}
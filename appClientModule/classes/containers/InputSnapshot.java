@@ -0,0 +1,129 @@
+package classes.containers;
+
+import java.util.Arrays;
+
+/**
+ * <pre>
+ * 1ティック分の入力を表す不変オブジェクト
+ * そのティックで取り込んだイベントを発生順に保持し、取り込み後に押下されているキーを保持する
+ * ティックごとの入力を記録、再生する用途にも使用できる
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public final class InputSnapshot {
+
+    // 入力の無い状態
+    public static final InputSnapshot EMPTY = new InputSnapshot(0, new int[0], new boolean[0], new long[0], new int[0]);
+
+    // 入力を取り込んだティックの番号
+    private final long tick;
+
+    // ティック中に取り込んだイベント(発生順)
+    private final int[] codes;
+    private final boolean[] pressed;
+    private final long[] whens;
+
+    // 取り込み後に押下されているキーコード(昇順)
+    private final int[] held;
+
+    /**
+     * ティックの入力を設定する
+     *
+     * @param tick    ティックの番号
+     * @param codes   イベントのキーコード
+     * @param pressed イベントが押下の場合 true、解放の場合 false
+     * @param whens   イベントの発生時刻
+     * @param held    取り込み後に押下されているキーコード
+     */
+    public InputSnapshot(long tick, int[] codes, boolean[] pressed, long[] whens, int[] held) {
+        this.tick = tick;
+        this.codes = codes.clone();
+        this.pressed = pressed.clone();
+        this.whens = whens.clone();
+        this.held = held.clone();
+        Arrays.sort(this.held);
+    }
+
+    /**
+     * 入力を取り込んだティックの番号を返す
+     *
+     * @return ティックの番号
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * ティック中に取り込んだイベントの数を返す
+     *
+     * @return イベントの数
+     */
+    public int getEventCount() {
+        return codes.length;
+    }
+
+    /**
+     * イベントのキーコードを返す
+     *
+     * @param index イベントのインデックス(発生順)
+     * @return キーコード
+     */
+    public int getCode(int index) {
+        return codes[index];
+    }
+
+    /**
+     * <pre>
+     * イベントが押下かどうかを返す
+     * 押下の場合 true、解放の場合 false
+     * </pre>
+     *
+     * @param index イベントのインデックス(発生順)
+     * @return 押下かどうか
+     */
+    public boolean isPressEvent(int index) {
+        return pressed[index];
+    }
+
+    /**
+     * イベントの発生時刻を返す
+     *
+     * @param index イベントのインデックス(発生順)
+     * @return 発生時刻
+     */
+    public long getWhen(int index) {
+        return whens[index];
+    }
+
+    /**
+     * <pre>
+     * 取り込み後にキーが押下されているかどうかを返す
+     * 押下されていれば true
+     * </pre>
+     *
+     * @param code キーコード
+     * @return 押下されているかどうか
+     */
+    public boolean isDown(int code) {
+        return Arrays.binarySearch(held, code) >= 0;
+    }
+
+    /**
+     * <pre>
+     * ティック中にキーが押されたかどうかを返す
+     * 同じティック中に離された場合も true
+     * </pre>
+     *
+     * @param code キーコード
+     * @return 押されたかどうか
+     */
+    public boolean wasPressed(int code) {
+        for(int i = 0; i < codes.length; i++) {
+            if(codes[i] == code && pressed[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,162 @@
+package classes.containers;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import classes.utils.GeneralUtil;
+
+/**
+ * <pre>
+ * ウィンドウサイズに合わせて拡大縮小済みの画像を保持するキャッシュ
+ * (画像, 描画サイズ)ごとに拡大縮小した画像をバックグラウンドで生成し、以降の描画を等倍の転送にする
+ * 生成が完了するまでは従来通り描画時に拡大縮小する
+ * ウィンドウサイズが変わった時点で全て破棄し、描画で要求されたものから順に生成し直す
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class ScaledImageCache {
+
+    // 保持する拡大縮小済み画像の画素数の上限
+    private static final long MAX_PIXELS = 64L * 1024 * 1024;
+
+    // 生成中を表す目印
+    private static final BufferedImage PENDING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    // 唯一のインスタンス
+    private static final ScaledImageCache instance = new ScaledImageCache();
+
+    // 元画像ごとの、描画サイズと拡大縮小済み画像のマップ
+    private Map<BufferedImage, Map<Long, BufferedImage>> entries;
+
+    // 拡大縮小済み画像を生成するスレッド
+    private ExecutorService worker;
+
+    // ウィンドウサイズの変更回数(生成中に変更された結果を破棄するために使用する)
+    private AtomicLong generation;
+
+    // 保持している拡大縮小済み画像の画素数の合計
+    private AtomicLong pixels;
+
+    /**
+     * キャッシュと生成用のスレッドを初期化する
+     */
+    private ScaledImageCache() {
+        entries = Collections.synchronizedMap(new WeakHashMap<BufferedImage, Map<Long, BufferedImage>>());
+        worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ImageScaler");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        generation = new AtomicLong();
+        pixels = new AtomicLong();
+    }
+
+    /**
+     * キャッシュのインスタンスを返す
+     *
+     * @return キャッシュのインスタンス
+     */
+    public static ScaledImageCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * <pre>
+     * 指定サイズに拡大縮小済みの画像を返す
+     * 未生成の場合は生成を予約してnullを返す
+     * </pre>
+     *
+     * @param image  元画像
+     * @param width  描画サイズの幅
+     * @param height 描画サイズの高さ
+     *
+     * @return 拡大縮小済みの画像、未生成の場合はnull
+     */
+    public BufferedImage get(BufferedImage image, int width, int height) {
+        if(width <= 0 || height <= 0) {
+            return null;
+        }
+
+        Map<Long, BufferedImage> sizes;
+        synchronized(entries) {
+            sizes = entries.get(image);
+            if(sizes == null) {
+                sizes = new ConcurrentHashMap<Long, BufferedImage>();
+                entries.put(image, sizes);
+            }
+        }
+
+        Long key = ((long) width << 32) | height;
+        BufferedImage scaled = sizes.get(key);
+        if(scaled == null) {
+            if(pixels.get() + (long) width * height <= MAX_PIXELS
+                    && sizes.putIfAbsent(key, PENDING) == null) {
+                request(image, sizes, key, width, height);
+            }
+            return null;
+        }
+        return scaled == PENDING ? null : scaled;
+    }
+
+    /**
+     * <pre>
+     * 全ての拡大縮小済み画像を破棄する
+     * ウィンドウサイズの変更時に呼び出す
+     * </pre>
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        entries.clear();
+        pixels.set(0);
+    }
+
+    /**
+     * <pre>
+     * ウィンドウサイズの変更回数を返す
+     * 拡大縮小済みの画像を独自に保持するクラスが、破棄が必要かどうかの判定に使用する
+     * </pre>
+     *
+     * @return ウィンドウサイズの変更回数
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * 拡大縮小済み画像の生成を予約する
+     *
+     * @param image  元画像
+     * @param sizes  生成結果を格納するマップ
+     * @param key    描画サイズを表すキー
+     * @param width  描画サイズの幅
+     * @param height 描画サイズの高さ
+     */
+    private void request(BufferedImage image, Map<Long, BufferedImage> sizes, Long key, int width, int height) {
+        long requested = generation.get();
+        worker.execute(() -> {
+            if(generation.get() != requested) {
+                return;
+            }
+
+            // 描画時と同じ補間(最近傍)で拡大縮小する
+            BufferedImage scaled = GeneralUtil.createCompatibleImage(width, height, image.getTransparency());
+            Graphics2D g2 = scaled.createGraphics();
+            g2.drawImage(image, 0, 0, width, height, null);
+            g2.dispose();
+
+            if(generation.get() == requested) {
+                sizes.put(key, scaled);
+                pixels.addAndGet((long) width * height);
+            }
+        });
+    }
+}
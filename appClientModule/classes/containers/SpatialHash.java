@@ -0,0 +1,228 @@
+package classes.containers;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import classes.scenes.old.assets.BaseSprite;
+
+/**
+ * <pre>
+ * スプライトの衝突判定の候補を絞り込むための、一様なグリッドによる空間ハッシュ
+ * スプライトの矩形が重なるセルに登録し、同じセルに登録されたスプライトのみを衝突の候補とする
+ * セルの座標はハッシュ値でバケットに振り分けるため、マップの広さに関わらず使用するメモリは一定となる
+ * 登録はティックごとに作り直すことを想定し、作り直しの際にオブジェクトを生成しない
+ * 候補は矩形の重なりを保証しないため、衝突の判定はBaseSprite.isCollisionで行う
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class SpatialHash {
+
+    /**
+     * 衝突の候補となるスプライトの組を受け取るインターフェース
+     */
+    public interface PairConsumer {
+
+        /**
+         * 候補の組を1件受け取る
+         *
+         * @param a スプライトオブジェクト
+         * @param b スプライトオブジェクト
+         */
+        void accept(BaseSprite a, BaseSprite b);
+    }
+
+    // セルの一辺のピクセル数
+    public static final int CELL_SIZE = 64;
+
+    // バケットの数(2のべき乗)
+    private static final int BUCKETS = 1024;
+
+    // 登録の初期容量
+    private static final int INITIAL_CAPACITY = 64;
+
+    // 空のバケット、リストの終端を表すインデックス
+    private static final int NONE = -1;
+
+    // バケットごとの先頭の登録のインデックス
+    private int[] heads;
+
+    // 登録したスプライトと、スプライトが重なる最初のセルの座標
+    private BaseSprite[] sprites;
+    private int[] firstCellX;
+    private int[] firstCellY;
+    private int spriteCount;
+
+    // 登録(スプライトとセルの組)ごとのスプライトのインデックス、セルの座標、同じバケットの次の登録
+    private int[] entrySprite;
+    private int[] entryCellX;
+    private int[] entryCellY;
+    private int[] next;
+    private int entryCount;
+
+    /**
+     * 空のハッシュを生成する
+     */
+    public SpatialHash() {
+        heads = new int[BUCKETS];
+        Arrays.fill(heads, NONE);
+        sprites = new BaseSprite[INITIAL_CAPACITY];
+        firstCellX = new int[INITIAL_CAPACITY];
+        firstCellY = new int[INITIAL_CAPACITY];
+        entrySprite = new int[INITIAL_CAPACITY];
+        entryCellX = new int[INITIAL_CAPACITY];
+        entryCellY = new int[INITIAL_CAPACITY];
+        next = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * 全ての登録を削除する
+     */
+    public void clear() {
+        Arrays.fill(heads, NONE);
+        Arrays.fill(sprites, 0, spriteCount, null);
+        spriteCount = 0;
+        entryCount = 0;
+    }
+
+    /**
+     * 全ての登録を削除し、スプライトを登録し直す
+     *
+     * @param list 登録するスプライトのリスト
+     */
+    public void rebuild(Collection<? extends BaseSprite> list) {
+        clear();
+        for(BaseSprite sprite: list) {
+            insert(sprite);
+        }
+    }
+
+    /**
+     * <pre>
+     * スプライトを現在の位置で登録する
+     * 登録後にスプライトが移動しても登録は更新されない
+     * </pre>
+     *
+     * @param sprite 登録するスプライトオブジェクト
+     */
+    public void insert(BaseSprite sprite) {
+        int x0 = toCell(sprite.getEntityLeftX());
+        int y0 = toCell(sprite.getEntityTopY());
+        int x1 = toCell(sprite.getEntityRightX());
+        int y1 = toCell(sprite.getEntityBaseY());
+
+        if(spriteCount == sprites.length) {
+            int capacity = spriteCount * 2;
+            sprites = Arrays.copyOf(sprites, capacity);
+            firstCellX = Arrays.copyOf(firstCellX, capacity);
+            firstCellY = Arrays.copyOf(firstCellY, capacity);
+        }
+        int index = spriteCount++;
+        sprites[index] = sprite;
+        firstCellX[index] = x0;
+        firstCellY[index] = y0;
+
+        for(int cy = y0; cy <= y1; cy++) {
+            for(int cx = x0; cx <= x1; cx++) {
+                if(entryCount == next.length) {
+                    int capacity = entryCount * 2;
+                    entrySprite = Arrays.copyOf(entrySprite, capacity);
+                    entryCellX = Arrays.copyOf(entryCellX, capacity);
+                    entryCellY = Arrays.copyOf(entryCellY, capacity);
+                    next = Arrays.copyOf(next, capacity);
+                }
+                int entry = entryCount++;
+                int bucket = bucket(cx, cy);
+                entrySprite[entry] = index;
+                entryCellX[entry] = cx;
+                entryCellY[entry] = cy;
+                next[entry] = heads[bucket];
+                heads[bucket] = entry;
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * 対象のスプライトの矩形を余白分広げた範囲と同じセルに登録されているスプライトを、衝突の候補として返す
+     * 対象のスプライト自身は含めない
+     * 結果の格納先は呼び出し前に消去する
+     * </pre>
+     *
+     * @param subject 対象のスプライトオブジェクト
+     * @param margin  矩形を上下左右に広げるピクセル数
+     * @param result  候補を格納するコレクション
+     */
+    public void query(BaseSprite subject, int margin, Collection<BaseSprite> result) {
+        result.clear();
+        int x0 = toCell(subject.getEntityLeftX() - margin);
+        int y0 = toCell(subject.getEntityTopY() - margin);
+        int x1 = toCell(subject.getEntityRightX() + margin);
+        int y1 = toCell(subject.getEntityBaseY() + margin);
+
+        for(int cy = y0; cy <= y1; cy++) {
+            for(int cx = x0; cx <= x1; cx++) {
+                for(int e = heads[bucket(cx, cy)]; e != NONE; e = next[e]) {
+                    if(entryCellX[e] != cx || entryCellY[e] != cy) {
+                        continue;
+                    }
+                    int s = entrySprite[e];
+                    // 複数のセルで重なる場合は、重なる範囲の最初のセルでのみ返す
+                    if(cx == Math.max(x0, firstCellX[s])
+                            && cy == Math.max(y0, firstCellY[s])
+                            && sprites[s] != subject) {
+                        result.add(sprites[s]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * 同じセルに登録されているスプライトの組を、衝突の候補として全て渡す
+     * 複数のセルで重なる組も1度だけ渡す
+     * </pre>
+     *
+     * @param consumer 候補の組を受け取るオブジェクト
+     */
+    public void forEachPair(PairConsumer consumer) {
+        for(int e = 0; e < entryCount; e++) {
+            int a = entrySprite[e];
+            int cx = entryCellX[e];
+            int cy = entryCellY[e];
+            for(int f = next[e]; f != NONE; f = next[f]) {
+                if(entryCellX[f] != cx || entryCellY[f] != cy) {
+                    continue;
+                }
+                int b = entrySprite[f];
+                // 複数のセルで重なる場合は、重なる範囲の最初のセルでのみ渡す
+                if(cx == Math.max(firstCellX[a], firstCellX[b])
+                        && cy == Math.max(firstCellY[a], firstCellY[b])) {
+                    consumer.accept(sprites[b], sprites[a]);
+                }
+            }
+        }
+    }
+
+    /**
+     * ピクセル座標をセルの座標に変換する
+     *
+     * @param pixel ピクセル座標
+     * @return セルの座標
+     */
+    private static int toCell(double pixel) {
+        return (int) Math.floor(pixel / CELL_SIZE);
+    }
+
+    /**
+     * セルの座標からバケットのインデックスを求める
+     *
+     * @param cx セルのX座標
+     * @param cy セルのY座標
+     * @return バケットのインデックス
+     */
+    private static int bucket(int cx, int cy) {
+        return (cx * 73856093 ^ cy * 19349663) & (BUCKETS - 1);
+    }
+}
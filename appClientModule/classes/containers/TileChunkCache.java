@@ -0,0 +1,180 @@
+package classes.containers;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import classes.controllers.MapController;
+import classes.utils.GeneralUtil;
+
+/**
+ * <pre>
+ * マップの地形をチャンク単位で画像に描画して保持するキャッシュ
+ * チャンクはMapController.REVISION_BLOCK四方のタイルとし、描画時は画面内のチャンクを転送するのみとする
+ * タイルが変更されたチャンクのみ描画し直す
+ * 保持するチャンク数には上限があり、超えた場合は最も長く描画されていないチャンクから破棄する
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class TileChunkCache {
+
+    // 1チャンクの一辺のタイル数
+    public static final int CHUNK_TILES = MapController.REVISION_BLOCK;
+
+    // 保持するチャンク数の上限
+    private static final int MAX_CHUNKS = 12;
+
+    // 1チャンクの一辺のピクセル数
+    private static final int CHUNK_SIZE = CHUNK_TILES * MapController.TILE_SIZE;
+
+    /**
+     * 描画済みのチャンク
+     */
+    private static class Chunk {
+
+        // 描画時の区画の変更回数
+        private int revision;
+
+        // 描画した画像(画像を持つタイルが無い場合はnull)
+        private BufferedImage image;
+    }
+
+    // タイル番号ごとの画像(画像を持たないタイルはnull)
+    private BufferedImage[] images;
+
+    // 描画済みのチャンク(描画順)
+    private Map<Long, Chunk> chunks;
+
+    /**
+     * <pre>
+     * 地形のタイルの画像を設定する
+     * 地形の管理オブジェクトはキャッシュのキーとして使用できるよう保持しない
+     * </pre>
+     *
+     * @param assetMap タイルを表す文字ごとの画像
+     */
+    public TileChunkCache(Map<Character, BufferedImage> assetMap) {
+        this.images = new BufferedImage[256];
+        for(Map.Entry<Character, BufferedImage> e: assetMap.entrySet()) {
+            if(e.getKey() < images.length) {
+                images[e.getKey()] = e.getValue();
+            }
+        }
+        this.chunks = new LinkedHashMap<Long, Chunk>(MAX_CHUNKS, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                return size() > MAX_CHUNKS;
+            }
+        };
+    }
+
+    /**
+     * 画面内のチャンクを描画する
+     *
+     * @param map        地形の管理オブジェクト
+     * @param offsetX    プレーヤーを画面中央に表示するためのX方向の補正値
+     * @param offsetY    プレーヤーを画面中央に表示するためのY方向の補正値
+     * @param viewWidth  画面の幅
+     * @param viewHeight 画面の高さ
+     * @param g          グラフィックスオブジェクト
+     */
+    public void draw(MapController map, int offsetX, int offsetY, int viewWidth, int viewHeight, Graphics g) {
+        int firstX = Math.max(0, Math.floorDiv(-offsetX, CHUNK_SIZE));
+        int lastX = Math.min((map.getColumn() - 1) / CHUNK_TILES, Math.floorDiv(viewWidth - offsetX, CHUNK_SIZE));
+        int firstY = Math.max(0, Math.floorDiv(-offsetY, CHUNK_SIZE));
+        int lastY = Math.min((map.getRow() - 1) / CHUNK_TILES, Math.floorDiv(viewHeight - offsetY, CHUNK_SIZE));
+
+        for(int cy = firstY; cy <= lastY; cy++) {
+            for(int cx = firstX; cx <= lastX; cx++) {
+                BufferedImage image = getChunk(map, cx, cy);
+                if(image != null) {
+                    g.drawImage(image, cx * CHUNK_SIZE + offsetX, cy * CHUNK_SIZE + offsetY, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * チャンクの画像を返す
+     * 未描画、またはタイルが変更されている場合は描画し直す
+     * </pre>
+     *
+     * @param map 地形の管理オブジェクト
+     * @param cx  チャンクのX座標
+     * @param cy  チャンクのY座標
+     * @return チャンクの画像、画像を持つタイルが無い場合はnull
+     */
+    private BufferedImage getChunk(MapController map, int cx, int cy) {
+        Long key = ((long) cy << 32) | cx;
+        int revision = map.getRevision(cx * CHUNK_TILES, cy * CHUNK_TILES);
+
+        Chunk chunk = chunks.get(key);
+        if(chunk == null) {
+            chunk = new Chunk();
+            chunk.image = bake(map, cx, cy, null);
+            chunk.revision = revision;
+            chunks.put(key, chunk);
+        } else if(chunk.revision != revision) {
+            chunk.image = bake(map, cx, cy, chunk.image);
+            chunk.revision = revision;
+        }
+        return chunk.image;
+    }
+
+    /**
+     * <pre>
+     * チャンク内の画像を持つタイルを画像に描画する
+     * 以前の画像があれば消去して再利用する
+     * </pre>
+     *
+     * @param map   地形の管理オブジェクト
+     * @param cx    チャンクのX座標
+     * @param cy    チャンクのY座標
+     * @param image 以前の画像(無い場合はnull)
+     * @return 描画した画像、画像を持つタイルが無い場合はnull
+     */
+    private BufferedImage bake(MapController map, int cx, int cy, BufferedImage image) {
+        int lastX = Math.min(map.getColumn(), (cx + 1) * CHUNK_TILES);
+        int lastY = Math.min(map.getRow(), (cy + 1) * CHUNK_TILES);
+
+        Graphics2D g2 = null;
+        for(int y = cy * CHUNK_TILES; y < lastY; y++) {
+            for(int x = cx * CHUNK_TILES; x < lastX; x++) {
+                BufferedImage tile = images[map.getTile(x, y)];
+                if(tile == null) {
+                    continue;
+                }
+                if(g2 == null) {
+                    if(image == null) {
+                        image = GeneralUtil.createCompatibleImage(CHUNK_SIZE, CHUNK_SIZE, Transparency.TRANSLUCENT);
+                    }
+                    g2 = image.createGraphics();
+                    // 以前の内容を消去する
+                    g2.setComposite(AlphaComposite.Clear);
+                    g2.fillRect(0, 0, CHUNK_SIZE, CHUNK_SIZE);
+                    g2.setComposite(AlphaComposite.SrcOver);
+                }
+                g2.drawImage(
+                        tile,
+                        GeneralUtil.tilesToPixels(x - cx * CHUNK_TILES),
+                        GeneralUtil.tilesToPixels(y - cy * CHUNK_TILES),
+                        null
+                        );
+            }
+        }
+
+        if(g2 == null) {
+            return null;
+        }
+        g2.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,174 @@
+package classes.containers;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * <pre>
+ * 背景などの大きな静的画像をVolatileImageに複製して描画するラッパークラス
+ * VolatileImageはビデオメモリ上に描画サイズで確保し、拡大縮小済みの内容を保持するため、
+ * 描画サイズが変わらない間は等倍の転送となる
+ * 描画サイズが変わった場合、または内容が失われた場合は元画像から作り直し、
+ * 確保できない環境では元画像をそのまま描画する
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class VolatileLayer {
+
+    // 1回の描画で内容の復元を試みる最大回数
+    private static final int MAX_RETRY = 3;
+
+    // 元画像
+    private BufferedImage source;
+
+    // 元画像を描画サイズに拡大縮小したVolatileImage(未確保の場合はnull)
+    private VolatileImage cache;
+
+    /**
+     * 元画像を設定する
+     *
+     * @param source 元画像
+     */
+    public VolatileLayer(BufferedImage source) {
+        this.source = source;
+    }
+
+    /**
+     * 元画像を返す
+     *
+     * @return 元画像
+     */
+    public BufferedImage getImage() {
+        return source;
+    }
+
+    /**
+     * 元画像の幅を返す
+     *
+     * @return 元画像の幅
+     */
+    public int getWidth() {
+        return source.getWidth();
+    }
+
+    /**
+     * 元画像の高さを返す
+     *
+     * @return 元画像の高さ
+     */
+    public int getHeight() {
+        return source.getHeight();
+    }
+
+    /**
+     * <pre>
+     * 画像全体を指定した矩形に拡大縮小して描画する
+     * VolatileImageを確保できない場合、または復元が間に合わない場合は元画像を描画する
+     * </pre>
+     *
+     * @param g      グラフィックスオブジェクト
+     * @param x      描画先の左上のX座標
+     * @param y      描画先の左上のY座標
+     * @param width  描画先の幅
+     * @param height 描画先の高さ
+     */
+    public synchronized void draw(Graphics g, int x, int y, int width, int height) {
+        GraphicsConfiguration gc = getConfiguration(g);
+        if(gc == null) {
+            g.drawImage(source, x, y, width, height, null);
+            return;
+        }
+
+        for(int i = 0; i < MAX_RETRY && width > 0 && height > 0; i++) {
+            if(!validate(gc, width, height)) {
+                break;
+            }
+            g.drawImage(cache, x, y, null);
+            if(!cache.contentsLost()) {
+                return;
+            }
+        }
+
+        g.drawImage(source, x, y, width, height, null);
+    }
+
+    /**
+     * <pre>
+     * VolatileImageを解放する
+     * 次の描画時に元画像から確保し直す
+     * </pre>
+     */
+    public synchronized void flush() {
+        if(cache != null) {
+            cache.flush();
+            cache = null;
+        }
+    }
+
+    /**
+     * <pre>
+     * VolatileImageを描画可能な状態にする
+     * 未確保、描画サイズが異なる、または描画先と互換性が無い場合は確保し直し、
+     * 内容が失われていれば元画像から復元する
+     * </pre>
+     *
+     * @param gc     描画先のグラフィックス構成
+     * @param width  描画サイズの幅
+     * @param height 描画サイズの高さ
+     * @return 描画可能な場合は true
+     */
+    private boolean validate(GraphicsConfiguration gc, int width, int height) {
+        int status = cache == null
+                || cache.getWidth() != width
+                || cache.getHeight() != height
+                ? VolatileImage.IMAGE_INCOMPATIBLE
+                : cache.validate(gc);
+        if(status == VolatileImage.IMAGE_INCOMPATIBLE) {
+            flush();
+            try {
+                cache = gc.createCompatibleVolatileImage(width, height, source.getTransparency());
+            } catch (IllegalArgumentException | UnsupportedOperationException e) {
+                cache = null;
+            }
+            if(cache == null) {
+                return false;
+            }
+            restore();
+        } else if(status == VolatileImage.IMAGE_RESTORED) {
+            restore();
+        }
+        return true;
+    }
+
+    /**
+     * 元画像を描画サイズに拡大縮小してVolatileImageに書き込む
+     */
+    private void restore() {
+        Graphics2D g2 = cache.createGraphics();
+        if(source.getTransparency() != BufferedImage.OPAQUE) {
+            // 透過部分を残すため、以前の内容を消去してから書き込む
+            g2.setComposite(AlphaComposite.Src);
+        }
+        g2.drawImage(source, 0, 0, cache.getWidth(), cache.getHeight(), null);
+        g2.dispose();
+    }
+
+    /**
+     * 描画先のグラフィックス構成を返す
+     *
+     * @param g グラフィックスオブジェクト
+     * @return グラフィックス構成、画面の無い環境ではnull
+     */
+    private static GraphicsConfiguration getConfiguration(Graphics g) {
+        if(GraphicsEnvironment.isHeadless() || !(g instanceof Graphics2D)) {
+            return null;
+        }
+        return ((Graphics2D) g).getDeviceConfiguration();
+    }
+}
@@ -0,0 +1,385 @@
+package classes.controllers;
+
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.awt.image.DataBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import classes.constants.ImageResource;
+import classes.constants.SoundResource;
+import classes.utils.GeneralUtil;
+
+/**
+ * <pre>
+ * 画像、SEの事前読み込みを管理するクラス
+ * ImageResource、SoundResourceに定義された全てのファイルを固定数のスレッドで並列にデコードし、
+ * デコード済みの画像をパスごとに保持する
+ * 保持する画像は共有されるため、ピクセルを書き換える場合は複製して使用すること
+ * シーン単位で使用した画像を記録し、どのシーンからも使用されなくなった画像は保持を解除する
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class AssetController {
+
+    // デコードに使用するスレッド数の上限
+    private static final int MAX_THREADS = 4;
+
+    // 読み込み対象とする画像ファイルの拡張子
+    private static final String[] IMAGE_EXTENSIONS = new String[] {".png", ".jpg", ".gif"};
+
+    // 唯一のインスタンス
+    private static AssetController instance;
+
+    // パスごとの画像のデコードタスク
+    private Map<String, FutureTask<BufferedImage>> images;
+
+    // デコード用のスレッドプール
+    private ExecutorService executor;
+
+    // 事前読み込みのタスク
+    private List<Future<?>> pending;
+
+    // 事前読み込みの対象数と完了数
+    private AtomicInteger total;
+    private AtomicInteger loaded;
+
+    // スレッドごとの、画像の使用を記録中のスコープ
+    private ThreadLocal<Deque<Set<String>>> scopes;
+
+    // 画像を使用しているシーンの数
+    private Map<String, Integer> owners;
+
+    /**
+     * レジストリ、スレッドプールを初期化する
+     */
+    private AssetController() {
+        images = new ConcurrentHashMap<String, FutureTask<BufferedImage>>();
+        int threads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "AssetLoader");
+            t.setDaemon(true);
+            return t;
+        });
+        pending = new ArrayList<Future<?>>();
+        total = new AtomicInteger();
+        loaded = new AtomicInteger();
+        scopes = ThreadLocal.withInitial(ArrayDeque::new);
+        owners = new HashMap<String, Integer>();
+    }
+
+    /**
+     * 事前読み込みの管理インスタンスを返す
+     *
+     * @return 事前読み込みの管理インスタンス
+     */
+    public static synchronized AssetController getInstance() {
+        if(instance == null) {
+            instance = new AssetController();
+        }
+        return instance;
+    }
+
+    /**
+     * <pre>
+     * ImageResource、SoundResourceに定義された全てのファイルのデコードを開始する
+     * 呼び出し元のスレッドはブロックしない
+     * </pre>
+     */
+    public synchronized void preloadAll() {
+        for(String path: findImagePaths()) {
+            FutureTask<BufferedImage> task = getTask(path);
+            total.incrementAndGet();
+            pending.add(executor.submit(() -> {
+                task.run();
+                loaded.incrementAndGet();
+            }));
+        }
+
+        SoundEffectController se = SoundEffectController.getInstance();
+        for(String path: findSoundPaths()) {
+            total.incrementAndGet();
+            pending.add(executor.submit(() -> {
+                se.preload(path);
+                loaded.incrementAndGet();
+            }));
+        }
+    }
+
+    /**
+     * 事前読み込みが全て完了するまで待機する
+     */
+    public synchronized void awaitAll() {
+        for(Future<?> f: pending) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+        pending.clear();
+    }
+
+    /**
+     * <pre>
+     * 事前読み込みの進捗を返す
+     * 読み込み開始前は0.0を返す
+     * </pre>
+     *
+     * @return 進捗(0.0 ~ 1.0)
+     */
+    public double getProgress() {
+        int t = total.get();
+        return t == 0 ? 0.0 : Math.min(1.0, (double) loaded.get() / t);
+    }
+
+    /**
+     * <pre>
+     * デコード済みの画像を返す
+     * 未デコードの場合は呼び出し元のスレッドでデコードし、デコード中の場合は完了を待つ
+     * </pre>
+     *
+     * @param path 画像のファイルパス
+     * @return 画像オブジェクト、読み込みに失敗した場合はnull
+     */
+    public BufferedImage getImage(String path) {
+        Set<String> scope = scopes.get().peek();
+        if(scope != null) {
+            scope.add(path);
+        }
+
+        FutureTask<BufferedImage> task = getTask(path);
+
+        // 実行済み、または他スレッドで実行中の場合は何もしない
+        task.run();
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * <pre>
+     * 呼び出し元のスレッドで使用した画像の記録を開始する
+     * endScope()と対で呼び出し、入れ子にした場合は内側のスコープのみに記録する
+     * </pre>
+     */
+    public void beginScope() {
+        scopes.get().push(new HashSet<String>());
+    }
+
+    /**
+     * 画像の使用の記録を終了する
+     *
+     * @return beginScope()以降に使用した画像のファイルパスの集合
+     */
+    public Set<String> endScope() {
+        return scopes.get().pop();
+    }
+
+    /**
+     * 画像を使用するシーンの数を加算する
+     *
+     * @param paths 画像のファイルパスの集合
+     */
+    public synchronized void acquire(Set<String> paths) {
+        for(String path: paths) {
+            Integer count = owners.get(path);
+            owners.put(path, count == null ? 1 : count + 1);
+        }
+    }
+
+    /**
+     * <pre>
+     * 画像を使用するシーンの数を減算する
+     * 使用するシーンが無くなった画像は保持を解除し、次回の読み込み時に再度デコードする
+     * </pre>
+     *
+     * @param paths 画像のファイルパスの集合
+     */
+    public synchronized void release(Set<String> paths) {
+        for(String path: paths) {
+            Integer count = owners.get(path);
+            if(count == null || count <= 1) {
+                owners.remove(path);
+                images.remove(path);
+            } else {
+                owners.put(path, count - 1);
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * どのシーンからも使用されていない画像の保持を解除する
+     * 事前読み込みのみで未使用の画像も対象とする
+     * </pre>
+     */
+    public synchronized void trim() {
+        images.keySet().retainAll(owners.keySet());
+    }
+
+    /**
+     * <pre>
+     * デコード済みの画像が占めるメモリ量の概算を返す
+     * 未デコードの画像は含めない
+     * </pre>
+     *
+     * @param paths 画像のファイルパスの集合
+     * @return 画素データのバイト数
+     */
+    public long getFootprint(Set<String> paths) {
+        long bytes = 0;
+        for(String path: paths) {
+            FutureTask<BufferedImage> task = images.get(path);
+            if(task == null || !task.isDone()) {
+                continue;
+            }
+            try {
+                BufferedImage img = task.get();
+                if(img != null) {
+                    DataBuffer buffer = img.getRaster().getDataBuffer();
+                    bytes += (long) buffer.getSize() * buffer.getNumBanks()
+                            * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // 読み込みに失敗した画像は数えない
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * パスに対応するデコードタスクを返す、未登録の場合は登録する
+     *
+     * @param path 画像のファイルパス
+     * @return デコードタスク
+     */
+    private FutureTask<BufferedImage> getTask(String path) {
+        FutureTask<BufferedImage> task = images.get(path);
+        if(task == null) {
+            FutureTask<BufferedImage> created = new FutureTask<BufferedImage>(() -> decode(path));
+            task = images.putIfAbsent(path, created);
+            if(task == null) {
+                task = created;
+            }
+        }
+        return task;
+    }
+
+    /**
+     * <pre>
+     * 画像ファイルをデコードし、画面と互換性のある形式に変換する
+     * 画像ファイルはGeneralUtilからの相対パスで配置されている
+     * </pre>
+     *
+     * @param path 画像のファイルパス
+     * @return 画像オブジェクト、読み込みに失敗した場合はnull
+     */
+    private static BufferedImage decode(String path) {
+        try {
+            return GeneralUtil.toCompatibleImage(ImageIO.read(GeneralUtil.class.getResource(path)));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * <pre>
+     * ImageResourceの列挙型から画像ファイルのパスを収集する
+     * アニメーションラベルなど、画像ファイル以外の値は除外する
+     * </pre>
+     *
+     * @return 画像ファイルのパスの集合
+     */
+    private static Set<String> findImagePaths() {
+        Set<String> paths = new LinkedHashSet<String>();
+        for(Class<?> c: ImageResource.class.getClasses()) {
+            if(!c.isEnum()) {
+                continue;
+            }
+            try {
+                Method getValue = c.getMethod("getValue");
+                for(Object constant: c.getEnumConstants()) {
+                    Object value = getValue.invoke(constant);
+                    if(value instanceof String && isImagePath((String) value)) {
+                        paths.add((String) value);
+                    }
+                }
+            } catch (ReflectiveOperationException e) {
+                e.printStackTrace();
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * <pre>
+     * SoundResourceからSEのファイルパスを収集する
+     * BGMは再生時にストリーミングするため対象外とする
+     * </pre>
+     *
+     * @return SEのファイルパスの集合
+     */
+    private static Set<String> findSoundPaths() {
+        Set<String> paths = new LinkedHashSet<String>();
+        for(Field f: SoundResource.class.getFields()) {
+            if(Modifier.isStatic(f.getModifiers())
+                    && f.getType() == String.class
+                    && f.getName().startsWith("SE_")) {
+                try {
+                    paths.add((String) f.get(null));
+                } catch (IllegalAccessException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * 画像ファイルのパスかどうかを拡張子で判定する
+     *
+     * @param value 判定する文字列
+     * @return 画像ファイルのパスであれば true
+     */
+    private static boolean isImagePath(String value) {
+        String lower = value.toLowerCase();
+        for(String ext: IMAGE_EXTENSIONS) {
+            if(lower.endsWith(ext)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import classes.constants.ImageResource;
+import classes.containers.GlyphAtlas;
 
 /**
  * <pre>
@@ -186,10 +187,28 @@ public class FontController {
 
         private final Map<Character, String> fontMap;
 
+        // フォント画像をまとめたアトラス(初回参照時に生成)
+        private GlyphAtlas atlas;
+
         private Fonts(Map<Character, String> fontMap) {
             this.fontMap = fontMap;
         }
 
+        /**
+         * <pre>
+         * フォント画像をまとめたグリフアトラスを返す
+         * 初回呼び出し時に全てのフォント画像を一度だけ読み込む
+         * </pre>
+         *
+         * @return グリフアトラス
+         */
+        public synchronized GlyphAtlas getAtlas() {
+            if(atlas == null) {
+                atlas = new GlyphAtlas(fontMap, ImageResource.Font.DASH.getValue());
+            }
+            return atlas;
+        }
+
         /**
          * フォント画像のパスを取得する
          *
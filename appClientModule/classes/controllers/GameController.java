@@ -4,8 +4,6 @@ import java.util.List;
 
 import classes.scenes.Introduction;
 import classes.scenes.Loading;
-import classes.scenes.action.ActionStage;
-import classes.scenes.vinyl.VinylShop;
 import classes.scenes.vinyl.assets.Vinyl;
 import interfaces.GameScene;
 
@@ -22,6 +20,23 @@ public class GameController implements Runnable {
 
     // ゲームスピード
     private static int SLEEP = 18;
+
+    // ゲームループのモード
+    // 処理時間に応じてデルタタイムが変動するループ
+    public static final int LOOP_VARIABLE = 0;
+    // 固定タイムステップで更新し、描画側に補間係数を渡すループ
+    public static final int LOOP_FIXED = 1;
+
+    // 描画のモード
+    // Swingの再描画要求により、各シーンのパネルを個別に描画する
+    public static final int RENDER_PASSIVE = 0;
+    // 全てのシーンを1枚のCanvasのバックバッファに合成して描画する
+    public static final int RENDER_COMPOSITE = 1;
+    // ゲームループのスレッドで、全てのシーンを1枚のCanvasのバックバッファに合成して描画する
+    public static final int RENDER_ACTIVE = 2;
+
+    // 固定タイムステップ(ナノ秒)
+    private static final long TICK_NANOS = SLEEP * 1000000L;
     private static int INIT_COIN = 9999;
     private static int MAX_COIN = 999999;
 
@@ -34,6 +49,21 @@ public class GameController implements Runnable {
     // デルタタイム
     private double dt;
 
+    // 現在のゲームループのモード
+    private static int loopMode = LOOP_FIXED;
+
+    // 現在の描画のモード
+    private static int renderMode = RENDER_PASSIVE;
+
+    // 1フレームあたりに行う追いつき更新の最大回数
+    private static int maxCatchUp = 5;
+
+    // 開始からの更新回数(入力を取り込んだティックの番号)
+    private static long tickCount;
+
+    // 描画時の補間係数(0.0 ~ 1.0)
+    private static volatile double alpha;
+
     // ゲーム共通の通貨
     private static int coin;
 
@@ -49,6 +79,12 @@ public class GameController implements Runnable {
 
         GameController.window = window;
 
+        if(renderMode == RENDER_COMPOSITE) {
+            window.enableCompositor();
+        } else if(renderMode == RENDER_ACTIVE) {
+            window.enableActiveRendering();
+        }
+
         window.setGameScene(new Introduction());
         window.pushScene(new Loading());
 
@@ -76,8 +112,11 @@ public class GameController implements Runnable {
 
         @Override
         public void run() {
+            // 画像、SEを並列にデコードし、全て揃ってからシーンを生成する
+            AssetController assets = AssetController.getInstance();
+            assets.preloadAll();
+            assets.awaitAll();
             scene = new SceneController();
-            scene.initEffect();
             window.callback(0);
         }
     }
@@ -147,14 +186,11 @@ public class GameController implements Runnable {
      * リセットが必要な各ステージのパラメータを初期化する
      */
     public static void resetParam() {
-        VinylShop vs = (VinylShop) GameController.getScene(SceneController.VINYL);
-        vs.restock();
-        ActionStage as = (ActionStage) GameController.getScene(SceneController.ACTION);
-        as.resetParam();
+        scene.resetParam();
     }
 
     /**
-     * 生成済みのシーンインスタンスを取得する
+     * シーンインスタンスを取得する、未生成の場合は生成する
      *
      * @param index シーンインスタンスのインデックス
      * @return シーンインスタンス
@@ -163,19 +199,169 @@ public class GameController implements Runnable {
         return scene.getScene(index);
     }
 
+    /**
+     * ゲームループのモードを設定する
+     *
+     * @param mode LOOP_VARIABLE または LOOP_FIXED
+     */
+    public static void setLoopMode(int mode) {
+        loopMode = mode;
+    }
+
+    /**
+     * <pre>
+     * 描画のモードを設定する
+     * ゲームループの開始前(GameControllerの生成前)に呼び出す
+     * </pre>
+     *
+     * @param mode RENDER_PASSIVE、RENDER_COMPOSITE または RENDER_ACTIVE
+     */
+    public static void setRenderMode(int mode) {
+        renderMode = mode;
+    }
+
+    /**
+     * <pre>
+     * 描画のモード名を描画のモードに変換する
+     * passive、composite、activeを指定できる
+     * 不明なモード名の場合はRENDER_PASSIVEとする
+     * </pre>
+     *
+     * @param name 描画のモード名
+     * @return 描画のモード
+     */
+    public static int toRenderMode(String name) {
+        switch(name.trim().toLowerCase()) {
+        case "passive":
+            return RENDER_PASSIVE;
+        case "composite":
+            return RENDER_COMPOSITE;
+        case "active":
+            return RENDER_ACTIVE;
+        default:
+            System.err.println("Unknown render mode: " + name);
+            return RENDER_PASSIVE;
+        }
+    }
+
+    /**
+     * 1フレームあたりに行う追いつき更新の最大回数を設定する
+     *
+     * @param max 追いつき更新の最大回数
+     */
+    public static void setMaxCatchUp(int max) {
+        maxCatchUp = Math.max(1, max);
+    }
+
+    /**
+     * <pre>
+     * 描画時の補間係数を返す
+     * 直前の更新から次の更新までの経過割合を表す
+     * </pre>
+     *
+     * @return 補間係数(0.0 ~ 1.0)
+     */
+    public static double getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * <pre>
+     * 最前面のシーンの入力を1ティック分取り込み、シーンを更新する
+     * 更新中に参照される入力はティックの間変化しない
+     * </pre>
+     *
+     * @param dt デルタタイム
+     */
+    private void update(double dt) {
+        GameScene front = window.getFrontPanel();
+        if(front.getKeyConfig() != null) {
+            front.getKeyConfig().poll(tickCount);
+        }
+        front.updator(dt);
+        tickCount++;
+    }
+
     /**
      * メインループ
      */
     public void run() {
+        if(loopMode == LOOP_FIXED) {
+            runFixed();
+        } else {
+            runVariable();
+        }
+    }
+
+    /**
+     * <pre>
+     * 固定タイムステップのメインループ
+     * 経過時間をSystem.nanoTime()で蓄積し、TICK_NANOSごとに更新を行う
+     * 処理落ち時はmaxCatchUp回まで追いつき更新を行い、それ以上の遅れは切り捨てる
+     * </pre>
+     */
+    private void runFixed() {
+
+        double tick = TICK_NANOS / 1000000000.0;
+        long previous = System.nanoTime();
+        long accumulator = 0;
+
+        while(true) {
+
+            long now = System.nanoTime();
+            accumulator += now - previous;
+            previous = now;
+
+            // EDTから受け渡された入力を更新前に反映する
+            window.dispatchEvents();
+
+            // 蓄積した時間分だけ固定デルタタイムで更新する
+            int updates = 0;
+            while(accumulator >= TICK_NANOS && updates < maxCatchUp) {
+                update(tick);
+                accumulator -= TICK_NANOS;
+                updates++;
+            }
+
+            // 追いつけなかった時間は破棄する
+            if(accumulator >= TICK_NANOS) {
+                accumulator %= TICK_NANOS;
+            }
+
+            alpha = (double) accumulator / TICK_NANOS;
+            window.render();
+
+            // 次の更新時刻まで待機する
+            long wait = TICK_NANOS - accumulator - (System.nanoTime() - now);
+            if(wait > 0) {
+                try {
+                    Thread.sleep(wait / 1000000L, (int) (wait % 1000000L));
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * 処理時間に応じてデルタタイムが変動するメインループ
+     */
+    private void runVariable() {
+
+        // 補間は行わず常に最新の状態を描画する
+        alpha = 1.0;
 
         while(true) {
 
             // デルタタイムの計測開始
             long startdt = System.currentTimeMillis();
 
+            // EDTから受け渡された入力を更新前に反映する
+            window.dispatchEvents();
+
             // 現在のシーンの更新メソッドに処理を委譲する
-            window.getFrontPanel().updator(dt);
-            window.repaint();
+            update(dt);
+            window.render();
 
             try {
                 Thread.sleep(SLEEP);
@@ -1,10 +1,19 @@
 package classes.controllers;
 
 import java.awt.event.KeyEvent;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
+
+import classes.containers.InputRingBuffer;
+import classes.containers.InputSnapshot;
 
 /**
+ * <pre>
  * キーボード入力の管理クラス
+ * EDTで受け取ったキーイベントはリングバッファに溜め、ゲームループがティックごとにpoll()で取り込む
+ * キーの状態はゲームループのスレッドのみが更新、参照する
+ * </pre>
  *
  * @author  Naoki Yoshikawa
  */
@@ -27,14 +36,34 @@ public class KeyController {
     // キーが離されるのを待っている
     private static final int STATE_WAITING_FOR_RELEASE = 2;
 
+    // 1ティックの間に溜めておけるキーイベントの数
+    private static final int EVENT_CAPACITY = 256;
+
     // 操作を登録されたキーの一覧
     private HashMap<Integer, KeyController.Key> registeredKeys;
 
+    // EDTから受け渡されたキーイベント
+    private InputRingBuffer events;
+
+    // 直前のティックで取り込んだ入力
+    private InputSnapshot snapshot;
+
+    // 取り込み中のイベントの一時領域
+    private int[] codes;
+    private boolean[] pressed;
+    private long[] whens;
+    private int count;
+
     /**
      * 登録キーの初期化
      */
     public KeyController() {
         registeredKeys = new HashMap<Integer, KeyController.Key>();
+        events = new InputRingBuffer(EVENT_CAPACITY);
+        snapshot = InputSnapshot.EMPTY;
+        codes = new int[EVENT_CAPACITY];
+        pressed = new boolean[EVENT_CAPACITY];
+        whens = new long[EVENT_CAPACITY];
     }
 
     /**
@@ -104,6 +133,18 @@ public class KeyController {
             return amount;
         }
 
+        /**
+         * <pre>
+         * キーが押されたままかどうかを返す
+         * isPressed()と異なり、キーの状態を変化させない
+         * </pre>
+         *
+         * @return 押されたままであれば true
+         */
+        public boolean isDown() {
+            return state != STATE_RELEASED;
+        }
+
         /**
          * <pre>
          * キーが押下状態にあるかどうかを判断する
@@ -167,7 +208,82 @@ public class KeyController {
         return defaultConfig;
     }
 
+    /**
+     * <pre>
+     * キーイベントをリングバッファに追加する
+     * キーイベントを受け取ったスレッド(EDT)から呼び出す
+     * </pre>
+     *
+     * @param e キーイベント
+     */
+    public void offer(KeyEvent e) {
+        if(e.getID() == KeyEvent.KEY_PRESSED || e.getID() == KeyEvent.KEY_RELEASED) {
+            events.offer(e.getKeyCode(), e.getID() == KeyEvent.KEY_PRESSED, e.getWhen());
+        }
+    }
+
+    /**
+     * <pre>
+     * 溜まったキーイベントを発生順に登録キーに反映し、ティックの入力として返す
+     * ゲームループのスレッドから、シーンの更新前に1ティックにつき1回呼び出す
+     * </pre>
+     *
+     * @param tick ティックの番号
+     * @return ティックの入力
+     */
+    public InputSnapshot poll(long tick) {
+        count = 0;
+        events.drain((code, down, when) -> {
+            Key key = registeredKeys.get(code);
+            if(key != null) {
+                if(down) {
+                    key.press();
+                } else {
+                    key.release();
+                }
+            }
+            codes[count] = code;
+            pressed[count] = down;
+            whens[count] = when;
+            count++;
+        });
+
+        int held = 0;
+        int[] heldCodes = new int[registeredKeys.size()];
+        for(Map.Entry<Integer, Key> entry: registeredKeys.entrySet()) {
+            if(entry.getValue().isDown()) {
+                heldCodes[held++] = entry.getKey();
+            }
+        }
+
+        snapshot = new InputSnapshot(
+                tick,
+                Arrays.copyOf(codes, count),
+                Arrays.copyOf(pressed, count),
+                Arrays.copyOf(whens, count),
+                Arrays.copyOf(heldCodes, held)
+                );
+        return snapshot;
+    }
+
+    /**
+     * 直前のティックで取り込んだ入力を返す
+     *
+     * @return ティックの入力
+     */
+    public InputSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * <pre>
+     * 全ての登録キーを押されていない状態にする
+     * 取り込んでいないキーイベントも破棄し、次のティックで押下が再生されないようにする
+     * ゲームループのスレッドから呼び出す
+     * </pre>
+     */
     public void releaseAll() {
+        events.drain((code, down, when) -> {});
         for(Key key:this.registeredKeys.values()) {
             key.release();
         }
@@ -1,7 +1,16 @@
 package classes.controllers;
 import java.awt.image.BufferedImage;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -12,6 +21,18 @@ import classes.utils.GeneralUtil;
  * <pre>
  * アクションステージの地形情報の管理クラス
  * マップのサイズ、地面、ブロックの配置などを設定する
+ *
+ * マップデータは以下のバイナリ形式(.map)、または従来のテキスト形式(.dat)で読み込む
+ *   int   マジックナンバー(MAGIC)
+ *   short バージョン(VERSION)
+ *   short 属性テーブルの件数
+ *   int   行数
+ *   int   列数
+ *   属性テーブル(タイル番号、属性フラグ、音階 の各1byteを件数分)
+ *   タイル番号の配列(行数 * 列数 byte、行優先)
+ * タイル番号はテキスト形式での文字コードとし、属性テーブルに無いタイルは属性を持たない
+ * ファイルとして配置されている場合はメモリマップで、jar内の場合は一括で読み込む
+ * 大きなマップはMapStreamerによりカメラの周囲のみをチャンク単位で読み込む
  * </pre>
  *
  * @author Naoki Yoshikawa
@@ -21,8 +42,52 @@ public class MapController {
     // タイルサイズ
     public static final int TILE_SIZE = 32;
 
-    // マップ
-    private char[][] map;
+    // バイナリ形式のマジックナンバー("OQMP")とバージョン
+    public static final int MAGIC = 0x4F514D50;
+    public static final short VERSION = 1;
+
+    // タイルの属性フラグ
+    // 通り抜けられない
+    public static final int SOLID = 0x01;
+    // メロディーブロック
+    public static final int MELODY = 0x02;
+    // ストップブロック
+    public static final int STOP = 0x04;
+    // ビートブロック
+    public static final int BEAT = 0x08;
+
+    // タイルの変更を記録する区画の一辺のタイル数
+    public static final int REVISION_BLOCK = 16;
+
+    // タイルの種類数(タイル番号は1byte)
+    private static final int TILE_KINDS = 256;
+
+    // 空白を表すタイル番号
+    private static final byte EMPTY = ' ';
+
+    // ヘッダと属性テーブルの最大サイズ
+    private static final int MAX_HEADER_SIZE = 16 + 3 * TILE_KINDS;
+
+    // チャンク単位で読み込むタイル数の閾値
+    private static long streamThreshold = 1024 * 1024;
+
+    // タイル番号の配列(行優先、チャンク単位で読み込む場合はnull)
+    private ByteBuffer tiles;
+
+    // チャンク単位で読み込む場合の読み込み管理オブジェクト(それ以外はnull)
+    private MapStreamer streamer;
+
+    // チャンク単位で読み込む場合に、変更したタイル(インデックスはy * col + x)
+    private Map<Integer, Byte> overrides;
+
+    // 区画ごとのタイルの変更回数(未変更の場合はnull)
+    private int[] revisions;
+
+    // タイル番号ごとの属性フラグ
+    private byte[] attributes;
+
+    // タイル番号ごとの音階(メロディーブロックのみ、C=0 ~ B=6)
+    private byte[] notes;
 
     // タイル換算での行列数
     private int row;
@@ -40,6 +105,9 @@ public class MapController {
      * @param filename マップデータのファイルパス
      */
     public MapController(String filename) {
+        attributes = new byte[TILE_KINDS];
+        notes = new byte[TILE_KINDS];
+        overrides = new HashMap<Integer, Byte>();
         load(filename);
         stageAssetMap = new HashMap<Character, BufferedImage>();
     }
@@ -94,12 +162,164 @@ public class MapController {
     }
 
     /**
-     * 読み込まれた整数型2次元配列のマップデータを返す
+     * <pre>
+     * マップデータの指定座標上のタイルを、テキスト形式での文字で返す
+     * マップの範囲外は空白を返す
+     * </pre>
+     *
+     * @param x マップデータのX座標
+     * @param y マップデータのY座標
+     *
+     * @return タイルを表す文字
+     */
+    public char getTile(int x, int y) {
+        if(x < 0 || y < 0 || x > col - 1 || y > row - 1) {
+            return (char) EMPTY;
+        }
+        return (char) (tileAt(x, y) & 0xff);
+    }
+
+    /**
+     * <pre>
+     * マップデータの指定座標上のタイルを変更する
+     * 変更したタイルを含む区画の変更回数を進める
+     * マップの範囲外は何もしない
+     * </pre>
+     *
+     * @param x      マップデータのX座標
+     * @param y      マップデータのY座標
+     * @param symbol タイルを表す文字
+     */
+    public void setTile(int x, int y, char symbol) {
+        if(x < 0 || y < 0 || x > col - 1 || y > row - 1 || symbol >= TILE_KINDS) {
+            return;
+        }
+
+        if(streamer != null) {
+            // チャンクは破棄、再読み込みされるため、変更は別に保持する
+            overrides.put(y * col + x, (byte) symbol);
+        } else {
+            if(tiles.isReadOnly()) {
+                // メモリマップしたファイルは書き換えられないため、初回の変更時に複製する
+                ByteBuffer copy = ByteBuffer.allocate(tiles.capacity());
+                copy.put(tiles.duplicate());
+                tiles = copy;
+            }
+            tiles.put(y * col + x, (byte) symbol);
+        }
+
+        if(revisions == null) {
+            revisions = new int[getBlockCount(col) * getBlockCount(row)];
+        }
+        revisions[(y / REVISION_BLOCK) * getBlockCount(col) + x / REVISION_BLOCK]++;
+    }
+
+    /**
+     * <pre>
+     * 指定座標のタイルを含む区画の変更回数を返す
+     * 区画はREVISION_BLOCK四方のタイルとする
+     * </pre>
+     *
+     * @param x マップデータのX座標
+     * @param y マップデータのY座標
      *
-     * @return マップデータ
+     * @return 区画の変更回数
      */
-    public char[][] getMapData() {
-        return map;
+    public int getRevision(int x, int y) {
+        if(revisions == null || x < 0 || y < 0 || x > col - 1 || y > row - 1) {
+            return 0;
+        }
+        return revisions[(y / REVISION_BLOCK) * getBlockCount(col) + x / REVISION_BLOCK];
+    }
+
+    /**
+     * <pre>
+     * マップデータの指定座標上のタイルの属性フラグを返す
+     * マップの範囲外は属性を持たない
+     * </pre>
+     *
+     * @param x マップデータのX座標
+     * @param y マップデータのY座標
+     *
+     * @return 属性フラグ(SOLID、MELODY、STOP、BEATの論理和)
+     */
+    public int getAttribute(int x, int y) {
+        if(x < 0 || y < 0 || x > col - 1 || y > row - 1) {
+            return 0;
+        }
+        return attributes[tileAt(x, y) & 0xff];
+    }
+
+    /**
+     * <pre>
+     * カメラの位置に合わせて、チャンク単位で読み込むマップのチャンクを読み込む
+     * 全体を読み込んだマップでは何もしない
+     * </pre>
+     *
+     * @param offsetX   カメラのX方向のオフセット(GeneralUtil.getCameraOffset)
+     * @param viewWidth 画面の幅
+     * @param direction 進行方向(正の値は右、負の値は左)
+     */
+    public void updateCamera(int offsetX, int viewWidth, int direction) {
+        if(streamer != null) {
+            streamer.update(offsetX, viewWidth, direction);
+        }
+    }
+
+    /**
+     * <pre>
+     * チャンク単位で読み込むマップのマップファイルを閉じる
+     * 全体を読み込んだマップでは何もしない
+     * 閉じた後のマップは使用しない
+     * </pre>
+     */
+    public void close() {
+        if(streamer != null) {
+            streamer.close();
+            streamer = null;
+        }
+    }
+
+    /**
+     * <pre>
+     * チャンク単位で読み込むタイル数の閾値を設定する
+     * タイル数がこれを超えるマップは全体を読み込まない
+     * </pre>
+     *
+     * @param tiles タイル数の閾値
+     */
+    public static void setStreamThreshold(long tiles) {
+        streamThreshold = tiles;
+    }
+
+    /**
+     * <pre>
+     * マップデータの指定座標上のオブジェクトが通り抜けられないかどうかを判断する
+     * 通り抜けられなければ true
+     * </pre>
+     *
+     * @param x マップデータのX座標
+     * @param y マップデータのY座標
+     *
+     * @return 通り抜けられないかどうか
+     */
+    public boolean isSolid(int x, int y) {
+        return (getAttribute(x, y) & SOLID) != 0;
+    }
+
+    /**
+     * メロディーブロックの音階を返す
+     *
+     * @param x マップデータのX座標
+     * @param y マップデータのY座標
+     *
+     * @return 音階(C=0 ~ B=6)、メロディーブロックでない場合は-1
+     */
+    public int getNote(int x, int y) {
+        if((getAttribute(x, y) & MELODY) == 0) {
+            return -1;
+        }
+        return notes[tileAt(x, y) & 0xff];
     }
 
     /**
@@ -123,19 +343,7 @@ public class MapController {
      * @return メロディーブロックかどうか
      */
     public boolean isMelodyBlock(int x, int y) {
-
-        if(x < 0 || y < 0 || x > col - 1 || y > row - 1) {
-            return false;
-        }
-
-        if (map[y][x] >= '1' && map[y][x] <= '7'
-                || map[y][x] == 'u'
-                || map[y][x] == 'i'
-                ) {
-            return true;
-        }
-
-        return false;
+        return (getAttribute(x, y) & (MELODY | STOP | BEAT)) != 0;
     }
 
     /**
@@ -149,7 +357,7 @@ public class MapController {
      */
     public void knockMelodyBlock(int x, int y) {
 
-        switch(map[y][x]) {
+        switch(getTile(x, y)) {
          case '1':
             // SoundController.stopSound(Sound.SE_C);
              //CONTROLLER_Sound.loopClipPeriod(CONSTANT_Sound.SE_C);
@@ -191,6 +399,39 @@ public class MapController {
 
     }
 
+    /**
+     * <pre>
+     * 指定座標のタイル番号を返す
+     * 座標はマップの範囲内であること
+     * </pre>
+     *
+     * @param x マップデータのX座標
+     * @param y マップデータのY座標
+     * @return タイル番号
+     */
+    private byte tileAt(int x, int y) {
+        if(streamer != null) {
+            if(!overrides.isEmpty()) {
+                Byte changed = overrides.get(y * col + x);
+                if(changed != null) {
+                    return changed;
+                }
+            }
+            return streamer.get(x, y);
+        }
+        return tiles.get(y * col + x);
+    }
+
+    /**
+     * タイル数を区画数に換算する
+     *
+     * @param tiles タイル数
+     * @return 区画数
+     */
+    private static int getBlockCount(int tiles) {
+        return (tiles + REVISION_BLOCK - 1) / REVISION_BLOCK;
+    }
+
     /**
      * マップデータ上のオブジェクトの画像を読み込む
      */
@@ -204,38 +445,241 @@ public class MapController {
      * <pre>
      * 不変のステージオブジェクトのみ読み込む
      * 動的なオブジェクトはスプライトとしてゲームシーン側で処理する
+     * 拡張子が.datの場合はテキスト形式、それ以外はバイナリ形式として読み込む
      * </pre>
      *
-     * @param filename マップ用datファイルのパス
+     * @param filename マップデータのファイルパス
      */
     private void load(String filename) {
         try {
-            // ファイルを開く
-            BufferedReader br = new BufferedReader(
-                new InputStreamReader(
-                    getClass().getResourceAsStream("maps/" + filename)
-                )
-            );
+            if(filename.endsWith(".dat")) {
+                loadText(filename);
+            } else {
+                loadBinary(filename);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            // 読み込みに失敗した場合は空のマップとする
+            row = 0;
+            col = 0;
+            tiles = ByteBuffer.allocate(0);
+        }
+    }
+
+    /**
+     * <pre>
+     * バイナリ形式のマップデータを読み込む
+     * タイル番号の配列は複製せず、読み込んだバッファをそのまま参照する
+     * ファイルとして配置されていて、タイル番号の配列がstreamThresholdを超える場合は
+     * 全体を読み込まずにチャンク単位で読み込む
+     * </pre>
+     *
+     * @param filename マップ用mapファイルのパス
+     * @throws IOException 読み込みに失敗した場合、または形式が不正な場合
+     */
+    private void loadBinary(String filename) throws IOException {
+        URL url = getClass().getResource("maps/" + filename);
+        if(url == null) {
+            throw new IOException("Map not found: " + filename);
+        }
+
+        if(!"file".equals(url.getProtocol())) {
+            // jar内の場合は一括で読み込む
+            ByteBuffer buffer = readAll(url);
+            readHeader(buffer, filename);
+            tiles = slice(buffer, filename);
+            return;
+        }
+
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+
+        try {
+            long size = channel.size();
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAX_HEADER_SIZE));
+            readHeader(header, filename);
+
+            if((long) row * col > streamThreshold) {
+                if(size - header.position() < (long) row * col) {
+                    throw new IOException("Truncated map file: " + filename);
+                }
+                // チャネルはMapStreamerが保持する
+                streamer = new MapStreamer(channel, header.position(), row, col);
+                channel = null;
+                return;
+            }
 
+            // マッピングはチャネルを閉じた後も有効
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.position(header.position());
+            tiles = slice(buffer, filename);
+        } finally {
+            if(channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * バイナリ形式のヘッダと属性テーブルを読み込む
+     * 読み込み後のバッファの位置はタイル番号の配列の先頭となる
+     * </pre>
+     *
+     * @param buffer   マップファイルの内容
+     * @param filename マップ用mapファイルのパス
+     * @throws IOException 形式が不正な場合
+     */
+    private void readHeader(ByteBuffer buffer, String filename) throws IOException {
+        if(buffer.remaining() < 16 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a map file: " + filename);
+        }
+        short version = buffer.getShort();
+        if(version != VERSION) {
+            throw new IOException("Unsupported map version " + version + ": " + filename);
+        }
+        int count = buffer.getShort();
+        row = buffer.getInt();
+        col = buffer.getInt();
+
+        for(int i = 0; i < count; i++) {
+            int id = buffer.get() & 0xff;
+            attributes[id] = buffer.get();
+            notes[id] = buffer.get();
+        }
+    }
+
+    /**
+     * バッファの現在位置からタイル番号の配列を切り出す
+     *
+     * @param buffer   マップファイルの内容
+     * @param filename マップ用mapファイルのパス
+     * @return タイル番号の配列
+     * @throws IOException タイル番号の配列が不足している場合
+     */
+    private ByteBuffer slice(ByteBuffer buffer, String filename) throws IOException {
+        if(buffer.remaining() < row * col) {
+            throw new IOException("Truncated map file: " + filename);
+        }
+        buffer.limit(buffer.position() + row * col);
+        return buffer.slice();
+    }
+
+    /**
+     * マップファイルの内容を一括で読み込む
+     *
+     * @param url マップファイルのURL
+     * @return ファイルの内容
+     * @throws IOException 読み込みに失敗した場合
+     */
+    private static ByteBuffer readAll(URL url) throws IOException {
+        try (InputStream in = url.openStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int n;
+            while((n = in.read(chunk)) != -1) {
+                out.write(chunk, 0, n);
+            }
+            return ByteBuffer.wrap(out.toByteArray());
+        }
+    }
+
+    /**
+     * <pre>
+     * テキスト形式のマップデータを読み込む
+     * 1行目に行数、2行目に列数、以降に1文字1タイルで地形を記述する
+     * </pre>
+     *
+     * @param filename マップ用datファイルのパス
+     * @throws IOException 読み込みに失敗した場合
+     */
+    private void loadText(String filename) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(parseText(getClass().getResourceAsStream("maps/" + filename)));
+        row = buffer.getInt();
+        col = buffer.getInt();
+        tiles = buffer.slice();
+
+        for(int i = 0; i < TILE_KINDS; i++) {
+            attributes[i] = (byte) getDefaultAttribute((char) i);
+            notes[i] = (byte) getDefaultNote((char) i);
+        }
+    }
+
+    /**
+     * <pre>
+     * テキスト形式のマップデータをタイル番号の配列に変換する
+     * 配列の先頭8byteに行数、列数を格納する
+     * 列数に満たない行は空白で埋める
+     * </pre>
+     *
+     * @param in テキスト形式のマップデータ
+     * @return 行数、列数とタイル番号の配列
+     * @throws IOException 読み込みに失敗した場合
+     */
+    public static byte[] parseText(InputStream in) throws IOException {
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(in))) {
             // 行数を読み込む
-            String line = br.readLine();
-            row = Integer.parseInt(line);
+            int row = Integer.parseInt(br.readLine().trim());
             // 列数を読み込む
-            line = br.readLine();
-            col = Integer.parseInt(line);
-            // マップを作成
-            map = new char[row][col];
+            int col = Integer.parseInt(br.readLine().trim());
+
+            ByteBuffer grid = ByteBuffer.allocate(8 + row * col);
+            grid.putInt(row);
+            grid.putInt(col);
             for (int i = 0; i < row; i++) {
-                line = br.readLine();
+                String line = br.readLine();
                 for (int j = 0; j < col; j++) {
-                    map[i][j] = line.charAt(j);
+                    char c = line != null && j < line.length() ? line.charAt(j) : (char) EMPTY;
+                    if(c >= TILE_KINDS) {
+                        throw new IOException("Unsupported tile '" + c + "' at " + j + "," + i);
+                    }
+                    grid.put((byte) c);
                 }
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+            return grid.array();
         }
     }
 
+    /**
+     * <pre>
+     * テキスト形式での文字に対応するタイルの属性フラグを返す
+     * 1 ~ 7はメロディーブロック、iはストップブロック、uはビートブロックとし、
+     * 空白以外は全て通り抜けられないブロックとする
+     * </pre>
+     *
+     * @param symbol タイルを表す文字
+     * @return 属性フラグ
+     */
+    public static int getDefaultAttribute(char symbol) {
+        if(symbol == EMPTY || symbol < ' ') {
+            return 0;
+        }
+        if(symbol >= '1' && symbol <= '7') {
+            return SOLID | MELODY;
+        }
+        if(symbol == 'i') {
+            return SOLID | STOP;
+        }
+        if(symbol == 'u') {
+            return SOLID | BEAT;
+        }
+        return SOLID;
+    }
+
+    /**
+     * テキスト形式での文字に対応するメロディーブロックの音階を返す
+     *
+     * @param symbol タイルを表す文字
+     * @return 音階(C=0 ~ B=6)、メロディーブロックでない場合は0
+     */
+    public static int getDefaultNote(char symbol) {
+        return symbol >= '1' && symbol <= '7' ? symbol - '1' : 0;
+    }
+
     /**
      * <pre>
      * Stage1用のデフォルトアセット用ファクトリーメソッド
@@ -0,0 +1,276 @@
+package classes.controllers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <pre>
+ * バイナリ形式のマップのタイル配列を、一定列数ごとのチャンクに分けて読み込むクラス
+ * カメラの周囲と進行方向の先のチャンクをバックグラウンドのスレッドで読み込み、
+ * 進行方向の後ろに離れたチャンクは破棄する
+ * 保持するチャンク数には上限があり、超えた場合は最も長く参照されていないチャンクから破棄する
+ * 読み込みが間に合わなかったチャンクは参照したスレッドで読み込む
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class MapStreamer {
+
+    // 1チャンクあたりの列数
+    public static final int CHUNK_COLUMNS = 64;
+
+    // 保持するチャンク数の上限
+    private static final int MAX_CHUNKS = 32;
+
+    // 進行方向の先に読み込んでおくチャンク数
+    private static final int PREFETCH_CHUNKS = 3;
+
+    // 進行方向の後ろに残しておくチャンク数
+    private static final int KEEP_BEHIND = 2;
+
+    // チャンクを読み込むスレッド(全てのマップで共有する)
+    private static final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "MapStreamer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * 読み込み済みのチャンク
+     */
+    private static class Chunk {
+
+        // チャンクのインデックス
+        private final int index;
+
+        // タイル番号の配列(チャンク内で行優先)
+        private final byte[] tiles;
+
+        /**
+         * チャンクを設定する
+         *
+         * @param index チャンクのインデックス
+         * @param tiles タイル番号の配列
+         */
+        private Chunk(int index, byte[] tiles) {
+            this.index = index;
+            this.tiles = tiles;
+        }
+    }
+
+    // マップファイル
+    private FileChannel channel;
+
+    // ファイル中のタイル番号の配列の開始位置
+    private long gridOffset;
+
+    // タイル換算での行列数
+    private int row;
+    private int col;
+
+    // 読み込み済みのチャンク(参照順)
+    private Map<Integer, Chunk> chunks;
+
+    // 読み込み中のチャンクのインデックス
+    private Set<Integer> pending;
+
+    // 直前に参照したチャンク
+    private volatile Chunk last;
+
+    // マップファイルを閉じたかどうか
+    private volatile boolean closed;
+
+    /**
+     * マップファイルとタイル配列の位置を設定する
+     *
+     * @param channel    マップファイル
+     * @param gridOffset ファイル中のタイル番号の配列の開始位置
+     * @param row        タイル換算での行数
+     * @param col        タイル換算での列数
+     */
+    public MapStreamer(FileChannel channel, long gridOffset, int row, int col) {
+        this.channel = channel;
+        this.gridOffset = gridOffset;
+        this.row = row;
+        this.col = col;
+        this.chunks = Collections.synchronizedMap(new LinkedHashMap<Integer, Chunk>(MAX_CHUNKS, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Chunk> eldest) {
+                return size() > MAX_CHUNKS;
+            }
+        });
+        this.pending = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * <pre>
+     * 指定座標のタイル番号を返す
+     * 座標はマップの範囲内であること
+     * </pre>
+     *
+     * @param x マップデータのX座標
+     * @param y マップデータのY座標
+     * @return タイル番号
+     */
+    public byte get(int x, int y) {
+        int index = x / CHUNK_COLUMNS;
+        Chunk chunk = last;
+        if(chunk == null || chunk.index != index) {
+            chunk = chunks.get(index);
+            if(chunk == null) {
+                chunk = load(index);
+            }
+            last = chunk;
+        }
+        return chunk.tiles[y * CHUNK_COLUMNS + x % CHUNK_COLUMNS];
+    }
+
+    /**
+     * <pre>
+     * カメラの位置に合わせてチャンクの読み込み、破棄を行う
+     * 画面内と進行方向の先のチャンクの読み込みを予約し、進行方向の後ろに離れたチャンクを破棄する
+     * </pre>
+     *
+     * @param offsetX   カメラのX方向のオフセット
+     * @param viewWidth 画面の幅
+     * @param direction 進行方向(正の値は右、負の値は左)
+     */
+    public void update(int offsetX, int viewWidth, int direction) {
+        int lastIndex = (col - 1) / CHUNK_COLUMNS;
+        int first = clamp(-offsetX / MapController.TILE_SIZE / CHUNK_COLUMNS, 0, lastIndex);
+        int end = clamp((viewWidth - offsetX) / MapController.TILE_SIZE / CHUNK_COLUMNS, 0, lastIndex);
+
+        int from = direction < 0 ? Math.max(0, first - PREFETCH_CHUNKS) : first;
+        int to = direction > 0 ? Math.min(lastIndex, end + PREFETCH_CHUNKS) : end;
+        for(int i = from; i <= to; i++) {
+            request(i);
+        }
+
+        synchronized(chunks) {
+            if(direction > 0) {
+                chunks.keySet().removeIf(i -> i < first - KEEP_BEHIND);
+            } else if(direction < 0) {
+                chunks.keySet().removeIf(i -> i > end + KEEP_BEHIND);
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * マップファイルを閉じ、読み込み済みのチャンクを破棄する
+     * 予約済みで未実行の読み込みは行わない
+     * </pre>
+     */
+    public void close() {
+        closed = true;
+        chunks.clear();
+        last = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * チャンクの読み込みをバックグラウンドのスレッドに予約する
+     *
+     * @param index チャンクのインデックス
+     */
+    private void request(int index) {
+        if(closed || chunks.containsKey(index) || !pending.add(index)) {
+            return;
+        }
+        loader.execute(() -> {
+            try {
+                if(!closed && !chunks.containsKey(index)) {
+                    chunks.put(index, new Chunk(index, read(index)));
+                }
+            } catch (IOException e) {
+                // 読み込み中に閉じた場合は破棄する
+                if(!closed) {
+                    e.printStackTrace();
+                }
+            } finally {
+                pending.remove(index);
+            }
+        });
+    }
+
+    /**
+     * <pre>
+     * チャンクを呼び出し元のスレッドで読み込む
+     * 読み込みに失敗した場合は空白のチャンクとする
+     * </pre>
+     *
+     * @param index チャンクのインデックス
+     * @return 読み込んだチャンク
+     */
+    private Chunk load(int index) {
+        byte[] tiles;
+        try {
+            tiles = read(index);
+        } catch (IOException e) {
+            e.printStackTrace();
+            tiles = new byte[row * CHUNK_COLUMNS];
+            Arrays.fill(tiles, (byte) ' ');
+        }
+        Chunk chunk = new Chunk(index, tiles);
+        chunks.put(index, chunk);
+        return chunk;
+    }
+
+    /**
+     * <pre>
+     * チャンクのタイル番号をファイルから読み込む
+     * マップの右端を超える列は空白とする
+     * </pre>
+     *
+     * @param index チャンクのインデックス
+     * @return タイル番号の配列(チャンク内で行優先)
+     * @throws IOException 読み込みに失敗した場合
+     */
+    private byte[] read(int index) throws IOException {
+        byte[] tiles = new byte[row * CHUNK_COLUMNS];
+        int firstColumn = index * CHUNK_COLUMNS;
+        int width = Math.min(CHUNK_COLUMNS, col - firstColumn);
+        if(width < CHUNK_COLUMNS) {
+            Arrays.fill(tiles, (byte) ' ');
+        }
+
+        for(int r = 0; r < row; r++) {
+            ByteBuffer buffer = ByteBuffer.wrap(tiles, r * CHUNK_COLUMNS, width);
+            long position = gridOffset + (long) r * col + firstColumn;
+            while(buffer.hasRemaining()) {
+                int n = channel.read(buffer, position + buffer.position() - r * CHUNK_COLUMNS);
+                if(n < 0) {
+                    throw new IOException("Unexpected end of map file");
+                }
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * 値を範囲内に収める
+     *
+     * @param value 値
+     * @param min   最小値
+     * @param max   最大値
+     * @return 範囲内に収めた値
+     */
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -11,8 +11,13 @@ import javax.sound.midi.MidiUnavailableException;
 import javax.sound.midi.Receiver;
 import javax.sound.midi.Transmitter;
 
+import classes.containers.InputRingBuffer;
+
 /**
+ * <pre>
  * MIDIコントローラー入力の管理クラス
+ * MIDIの受信スレッドで受け取ったノートはリングバッファに溜め、ゲームループがティックごとに取り込む
+ * </pre>
  *
  * @author  Naoki Yoshikawa
  */
@@ -33,8 +38,15 @@ public class MidiController {
     private static final int STATE_PRESSED = 1;
     // キーが離されるのを待っている
     private static final int STATE_WAITING_FOR_RELEASE = 2;
+
+    // 1ティックの間に溜めておけるノートイベントの数
+    private static final int EVENT_CAPACITY = 256;
+
     private Map<Integer, MidiController.Midi> registeredMidi;
 
+    // MIDIの受信スレッドから受け渡されたノートイベント
+    private InputRingBuffer events;
+
     // PCに接続されているMIDIデバイスのリスト
     private static List<MidiDevice> devices;
 
@@ -58,6 +70,34 @@ public class MidiController {
     public MidiController() {
         registeredMidi = new HashMap<Integer, MidiController.Midi>();
         devices = new ArrayList<MidiDevice>();
+        events = new InputRingBuffer(EVENT_CAPACITY);
+    }
+
+    /**
+     * <pre>
+     * ノートイベントをリングバッファに追加する
+     * MIDIの受信スレッドから呼び出す
+     * </pre>
+     *
+     * @param note      ノート番号
+     * @param on        ノートオンの場合 true、ノートオフの場合 false
+     * @param timeStamp イベントの発生時刻
+     */
+    public void offer(int note, boolean on, long timeStamp) {
+        events.offer(note, on, timeStamp);
+    }
+
+    /**
+     * <pre>
+     * 溜まったノートイベントを発生順に取り出す
+     * ゲームループのスレッドから、シーンの更新前に1ティックにつき1回呼び出す
+     * </pre>
+     *
+     * @param consumer ノートイベントを受け取るオブジェクト
+     * @return 取り出したノートイベントの数
+     */
+    public int poll(InputRingBuffer.Consumer consumer) {
+        return events.drain(consumer);
     }
 
     /**
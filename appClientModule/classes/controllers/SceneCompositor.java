@@ -0,0 +1,220 @@
+package classes.controllers;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.Transparency;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import classes.utils.GeneralUtil;
+
+import interfaces.GameScene;
+import interfaces.ModalScene;
+
+/**
+ * <pre>
+ * メインのシーンとスタックに重なったシーンを、1枚のCanvasのバックバッファに合成して描画するクラス
+ * BufferStrategyによるページフリップで画面に反映する
+ * ポーズ画面などModalSceneが重なっている間は、その下のシーンを1度だけ画像に描画して使い回す
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class SceneCompositor {
+
+    // バックバッファを含むバッファの数
+    private static final int BUFFERS = 2;
+
+    // 描画先のCanvas
+    private Canvas canvas;
+
+    // Canvasのバッファ(未生成の場合はnull)
+    private BufferStrategy strategy;
+
+    // ModalSceneの下に重なったシーンを描画した画像(未生成の場合はnull)
+    private BufferedImage frozen;
+
+    // frozenに描画したシーンのリスト(下から順)
+    private List<GameScene> frozenLayers;
+
+    /**
+     * 描画先のCanvasを生成する
+     */
+    public SceneCompositor() {
+        canvas = new Canvas();
+        canvas.setBackground(Color.BLACK);
+        // 描画はゲームループからのみ行い、OSからの再描画要求は無視する
+        canvas.setIgnoreRepaint(true);
+        canvas.setFocusable(true);
+        frozenLayers = new ArrayList<GameScene>();
+    }
+
+    /**
+     * 描画先のCanvasを返す
+     *
+     * @return 描画先のCanvas
+     */
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * <pre>
+     * メインのシーンとスタックのシーンを合成して画面に反映する
+     * Canvasが表示される前は何もしない
+     * バッファの生成に失敗した場合は false を返し、呼び出し元はSwingの再描画に切り替える
+     * </pre>
+     *
+     * @param base   メインのゲームシーンオブジェクト
+     * @param stack  重ねて描画するゲームシーンオブジェクトのスタック
+     * @param width  描画サイズの幅
+     * @param height 描画サイズの高さ
+     * @return バッファを使用できない場合 false
+     */
+    public boolean render(GameScene base, List<GameScene> stack, int width, int height) {
+        if(base == null || !canvas.isDisplayable() || width <= 0 || height <= 0) {
+            return true;
+        }
+        if(strategy == null) {
+            try {
+                canvas.createBufferStrategy(BUFFERS);
+            } catch (IllegalStateException | InternalError e) {
+                // ページフリップ、ブリットのいずれのバッファも生成できなかった場合
+                e.printStackTrace();
+                return false;
+            }
+            strategy = canvas.getBufferStrategy();
+            if(strategy == null) {
+                return false;
+            }
+        }
+
+        // 描画中にスタックが変更されても影響しないよう複製する
+        List<GameScene> layers = new ArrayList<GameScene>(stack);
+
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    compose(g, base, layers, width, height);
+                } finally {
+                    g.dispose();
+                }
+            } while(strategy.contentsRestored());
+            strategy.show();
+        } while(strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+        return true;
+    }
+
+    /**
+     * <pre>
+     * ModalSceneの下に重なったシーンの画像を破棄する
+     * 次回の描画時に描画し直す
+     * </pre>
+     */
+    public void invalidate() {
+        frozen = null;
+        frozenLayers.clear();
+    }
+
+    /**
+     * <pre>
+     * バックバッファに全てのシーンを下から順に描画する
+     * 最も上にあるModalSceneより下のシーンは、描画済みの画像で置き換える
+     * </pre>
+     *
+     * @param g      バックバッファのグラフィックスオブジェクト
+     * @param base   メインのゲームシーンオブジェクト
+     * @param layers 重ねて描画するゲームシーンオブジェクトのリスト(下から順)
+     * @param width  描画サイズの幅
+     * @param height 描画サイズの高さ
+     */
+    private void compose(Graphics g, GameScene base, List<GameScene> layers, int width, int height) {
+        int modal = -1;
+        for(int i = layers.size() - 1; i >= 0; i--) {
+            if(layers.get(i) instanceof ModalScene) {
+                modal = i;
+                break;
+            }
+        }
+
+        if(modal < 0) {
+            invalidate();
+            clear(g, width, height);
+            paintLayer(g, base);
+        } else {
+            List<GameScene> below = new ArrayList<GameScene>(layers.subList(0, modal));
+            below.add(0, base);
+            if(frozen == null
+                    || frozen.getWidth() != width
+                    || frozen.getHeight() != height
+                    || !below.equals(frozenLayers)) {
+                freeze(below, width, height);
+            }
+            g.drawImage(frozen, 0, 0, null);
+        }
+
+        for(int i = Math.max(0, modal); i < layers.size(); i++) {
+            paintLayer(g, layers.get(i));
+        }
+    }
+
+    /**
+     * ModalSceneの下に重なったシーンを画像に描画して保持する
+     *
+     * @param below  ModalSceneの下に重なったシーンのリスト(下から順)
+     * @param width  描画サイズの幅
+     * @param height 描画サイズの高さ
+     */
+    private void freeze(List<GameScene> below, int width, int height) {
+        if(frozen == null || frozen.getWidth() != width || frozen.getHeight() != height) {
+            frozen = GeneralUtil.createCompatibleImage(width, height, Transparency.OPAQUE);
+        }
+        Graphics g = frozen.createGraphics();
+        try {
+            clear(g, width, height);
+            for(GameScene scene: below) {
+                paintLayer(g, scene);
+            }
+        } finally {
+            g.dispose();
+        }
+        frozenLayers.clear();
+        frozenLayers.addAll(below);
+    }
+
+    /**
+     * <pre>
+     * シーンを1枚描画する
+     * シーンが変更した描画設定を次のシーンに持ち越さないよう、複製したグラフィックスオブジェクトを渡す
+     * </pre>
+     *
+     * @param g     描画先のグラフィックスオブジェクト
+     * @param scene 描画するゲームシーンオブジェクト
+     */
+    private static void paintLayer(Graphics g, GameScene scene) {
+        Graphics layer = g.create();
+        try {
+            scene.paintComponent(layer);
+        } finally {
+            layer.dispose();
+        }
+    }
+
+    /**
+     * 描画先を背景色で塗りつぶす
+     *
+     * @param g      描画先のグラフィックスオブジェクト
+     * @param width  描画サイズの幅
+     * @param height 描画サイズの高さ
+     */
+    private void clear(Graphics g, int width, int height) {
+        g.setColor(canvas.getBackground());
+        g.fillRect(0, 0, width, height);
+    }
+}
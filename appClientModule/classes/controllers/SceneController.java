@@ -1,5 +1,11 @@
 package classes.controllers;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
 import classes.scenes.Pause;
 import classes.scenes.Title;
 import classes.scenes.WorldMap;
@@ -8,16 +14,23 @@ import classes.scenes.slot.SlotHall;
 import classes.scenes.slot.SlotStage;
 import classes.scenes.vinyl.Turntable;
 import classes.scenes.vinyl.VinylShop;
+import interfaces.DisposableScene;
 import interfaces.GameScene;
+import interfaces.PersistentScene;
 
 /**
+ * <pre>
  * シーンインスタンスのロード、初期化を管理する
+ * シーンは初回の取得時に生成し、生成済みシーンが使用する画像の合計が上限を超えた場合は
+ * 最も長く使用されていないシーンから破棄する
+ * 破棄したシーンは状態を退避し、再度取得した時に生成し直して復元する
+ * 表示中のシーンと、表示中のシーンが遷移先として保持しているシーンは破棄しない
+ * </pre>
  *
  * @author Naoki Yoshikawa
  */
 public class SceneController {
 
-    private GameScene[] scenes;
     public static final int TITLE = 0;
     public static final int WORLD = 1;
     public static final int SLOT = 2;
@@ -27,32 +40,212 @@ public class SceneController {
     public static final int PAUSE = 6;
     public static final int ACTION = 7;
 
+    // シーンの種類数
+    private static final int SCENE_NUM = 8;
+
+    // 生成済みシーンが使用する画像の合計の上限(バイト)
+    private static final long MEMORY_BUDGET = 32L * 1024 * 1024;
+
+    // シーンごとに、エフェクトの遷移先として保持するシーン(無い場合は-1)
+    private static final int[] DEPENDENCIES = new int[] {-1, -1, -1, SLOT, -1, TURNTABLE, -1, -1};
+
+    // 生成済みのシーン(未生成、破棄済みはnull)
+    private GameScene[] scenes;
+
+    // シーンごとに使用している画像のファイルパス
+    private List<Set<String>> assets;
+
+    // シーンごとに使用している画像のメモリ量の概算
+    private long[] footprints;
+
+    // 生成済みシーンのインデックスを、最近使用した順に並べたリスト(先頭が最新)
+    private LinkedList<Integer> recent;
+
+    // 破棄したシーンから退避した状態
+    private Object[] savedStates;
+
     /**
      * シーンのインスタンスを管理する
      */
     public SceneController() {
-        scenes = new GameScene[8];
-        scenes[TITLE] = new Title();
-        scenes[WORLD] = new WorldMap();
-        scenes[SLOT] = new SlotStage();
-        scenes[HALL] = new SlotHall();
-        scenes[TURNTABLE] = new Turntable();
-        scenes[VINYL] = new VinylShop();
-        scenes[PAUSE] = new Pause();
-        scenes[ACTION] = new ActionStage();
+        scenes = new GameScene[SCENE_NUM];
+        assets = new ArrayList<Set<String>>(Collections.<Set<String>>nCopies(SCENE_NUM, null));
+        footprints = new long[SCENE_NUM];
+        recent = new LinkedList<Integer>();
+        savedStates = new Object[SCENE_NUM];
     }
 
-    public void initEffect() {
-        SlotHall sh = (SlotHall) scenes[HALL];
-        sh.setEffect();
+    /**
+     * <pre>
+     * シーンを初期化して返す
+     * 未生成のシーンはこの時点で生成する
+     * </pre>
+     *
+     * @param index シーンインスタンスのインデックス
+     * @return シーンインスタンス
+     */
+    public synchronized GameScene getScene(int index) {
+        if(scenes[index] == null) {
+            create(index);
+        }
 
-        VinylShop vs = (VinylShop) scenes[VINYL];
-        vs.setEffect();
-    }
+        recent.remove((Integer) index);
+        recent.addFirst(index);
+        evict(index);
 
-    public GameScene getScene(int index) {
         scenes[index].initParam();
         return scenes[index];
     }
 
+    /**
+     * タイトル画面で「はじめから」を選択した時、シーンを跨いで引き継ぐ状態を初期化する
+     */
+    public synchronized void resetParam() {
+        VinylShop vs = (VinylShop) scenes[VINYL];
+        if(vs != null) {
+            vs.restock();
+        }
+        ActionStage as = (ActionStage) scenes[ACTION];
+        if(as != null) {
+            as.resetParam();
+        }
+
+        // 未生成のシーンは生成時の初期状態のままでよい
+        savedStates[VINYL] = null;
+        savedStates[ACTION] = null;
+    }
+
+    /**
+     * <pre>
+     * シーンを生成し、使用する画像を記録する
+     * 退避した状態があれば復元し、エフェクトの遷移先を設定する
+     * </pre>
+     *
+     * @param index シーンインスタンスのインデックス
+     */
+    private void create(int index) {
+        AssetController ac = AssetController.getInstance();
+        ac.beginScope();
+        try {
+            scenes[index] = newScene(index);
+        } finally {
+            Set<String> paths = ac.endScope();
+            ac.acquire(paths);
+            assets.set(index, paths);
+            footprints[index] = ac.getFootprint(paths);
+        }
+
+        if(savedStates[index] != null && scenes[index] instanceof PersistentScene) {
+            ((PersistentScene) scenes[index]).restoreState(savedStates[index]);
+            savedStates[index] = null;
+        }
+
+        if(index == HALL) {
+            ((SlotHall) scenes[index]).setEffect();
+        } else if(index == VINYL) {
+            ((VinylShop) scenes[index]).setEffect();
+        }
+    }
+
+    /**
+     * インデックスに対応するシーンのインスタンスを生成する
+     *
+     * @param index シーンインスタンスのインデックス
+     * @return シーンインスタンス
+     */
+    private GameScene newScene(int index) {
+        switch(index) {
+        case TITLE:
+            return new Title();
+        case WORLD:
+            return new WorldMap();
+        case SLOT:
+            return new SlotStage();
+        case HALL:
+            return new SlotHall();
+        case TURNTABLE:
+            return new Turntable();
+        case VINYL:
+            return new VinylShop();
+        case PAUSE:
+            return new Pause();
+        case ACTION:
+            return new ActionStage();
+        default:
+            throw new IllegalArgumentException("Unknown scene index: " + index);
+        }
+    }
+
+    /**
+     * <pre>
+     * 使用する画像の合計が上限以下になるまで、最も長く使用されていないシーンから破棄する
+     * 破棄できるシーンが無くなった場合は上限を超えたままとする
+     * </pre>
+     *
+     * @param requested 今回取得するシーンのインデックス
+     */
+    private void evict(int requested) {
+        long total = 0;
+        for(int i: recent) {
+            total += footprints[i];
+        }
+
+        if(total <= MEMORY_BUDGET) {
+            return;
+        }
+
+        for(int k = recent.size() - 1; k >= 0 && total > MEMORY_BUDGET; k--) {
+            int index = recent.get(k);
+            if(index == requested || isPinned(index)) {
+                continue;
+            }
+            total -= footprints[index];
+            release(index);
+        }
+
+        // 上限を超えている間は、事前読み込みのみで未使用の画像も手放す
+        AssetController.getInstance().trim();
+    }
+
+    /**
+     * シーンを破棄し、引き継ぐ状態を退避して資源と画像の保持を解除する
+     *
+     * @param index シーンインスタンスのインデックス
+     */
+    private void release(int index) {
+        if(scenes[index] instanceof PersistentScene) {
+            savedStates[index] = ((PersistentScene) scenes[index]).saveState();
+        }
+        if(scenes[index] instanceof DisposableScene) {
+            ((DisposableScene) scenes[index]).dispose();
+        }
+        AssetController.getInstance().release(assets.get(index));
+        assets.set(index, null);
+        footprints[index] = 0;
+        scenes[index] = null;
+        recent.remove((Integer) index);
+    }
+
+    /**
+     * <pre>
+     * シーンが破棄できない状態かどうかを返す
+     * ウィンドウに表示中のシーンと、生成済みシーンがエフェクトの遷移先として保持するシーンが該当する
+     * </pre>
+     *
+     * @param index シーンインスタンスのインデックス
+     * @return 破棄できない場合は true
+     */
+    private boolean isPinned(int index) {
+        GameScene scene = scenes[index];
+        WindowController w = GameController.getWindow();
+        if(w != null && (w.getBasePanel() == scene || w.getSceneStack().contains(scene))) {
+            return true;
+        }
+        for(int i = 0; i < SCENE_NUM; i++) {
+            if(scenes[i] != null && DEPENDENCIES[i] == index) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
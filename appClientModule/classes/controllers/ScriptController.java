@@ -2,10 +2,9 @@ package classes.controllers;
 
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+import classes.containers.GlyphAtlas;
 import classes.utils.GeneralUtil;
 
 /**
@@ -27,8 +26,6 @@ public class ScriptController {
 
     private List<Script> scriptList;
 
-    private Map<Character, BufferedImage> cacheMap;
-
     /**
      * メッセージウィンドウの表示位置の座標、ウィンドウサイズ、背景画像の設定
      *
@@ -45,7 +42,6 @@ public class ScriptController {
         this.height = height;
         this.background = GeneralUtil.readImage(path);
         this.scriptList = new ArrayList<Script>();
-        this.cacheMap = new HashMap<Character, BufferedImage>();
     }
 
     /**
@@ -54,6 +50,8 @@ public class ScriptController {
     public class Script {
         // 行ごとのフォント画像のリスト
         private List<BufferedImage> scriptImgList;
+        private String script;
+        private FontController.Fonts font;
         private int size;
         private double renderIndex;
 
@@ -66,6 +64,8 @@ public class ScriptController {
          */
         private Script(int size, String script, FontController.Fonts font) {
             this.scriptImgList = new ArrayList<BufferedImage>();
+            this.script = script;
+            this.font = font;
             this.size = size;
             convertFontImage(script, font);
             this.renderIndex = 0;
@@ -78,14 +78,9 @@ public class ScriptController {
          * @param font   フォントオブジェクト
          */
         private void convertFontImage(String script, FontController.Fonts font) {
+            GlyphAtlas atlas = font.getAtlas();
             for(int i = 0; i < script.length(); i++) {
-                if(cacheMap.containsKey(script.charAt(i))) {
-                    scriptImgList.add(cacheMap.get(script.charAt(i)));
-                } else {
-                    BufferedImage img = GeneralUtil.readImage(font.getValue(script.charAt(i)));
-                    scriptImgList.add(img);
-                    cacheMap.put(script.charAt(i), img);
-                }
+                scriptImgList.add(atlas.getGlyph(script.charAt(i)));
             }
         }
 
@@ -107,6 +102,24 @@ public class ScriptController {
             return this.scriptImgList;
         }
 
+        /**
+         * スクリプトの文字列を返す
+         *
+         * @return スクリプトの内容
+         */
+        public String getText() {
+            return this.script;
+        }
+
+        /**
+         * スクリプトのフォントオブジェクトを返す
+         *
+         * @return フォントオブジェクト
+         */
+        public FontController.Fonts getFont() {
+            return this.font;
+        }
+
         public int getCharPerRow() {
             return (int) (width / size);
         }
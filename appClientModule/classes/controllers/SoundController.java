@@ -40,11 +40,22 @@ public class SoundController {
 
         @Override
         public void run() {
-            Clip c = createClip(SoundController.class.getResource(this.path));
-            c.start();
+            playSE(this.path);
         }
     }
 
+    /**
+     * <pre>
+     * SEを再生する
+     * デコード済みのSEをSE再生エンジンでミキシングするため、スレッドの生成は不要
+     * </pre>
+     *
+     * @param path SEのファイルパス
+     */
+    public static void playSE(String path) {
+        SoundEffectController.getInstance().play(path);
+    }
+
     /**
      * BGMのループなし再生スレッドに使用するインナークラス
      */
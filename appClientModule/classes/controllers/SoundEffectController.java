@@ -0,0 +1,337 @@
+package classes.controllers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import classes.constants.SoundResource;
+
+/**
+ * <pre>
+ * SEの再生エンジン
+ * SEを一度だけPCMデータにデコードして保持し、1本のオーディオスレッドでミキシングする
+ * ボイス数は固定で、上限を超えた場合は最も古いボイスを停止して再利用する
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class SoundEffectController implements Runnable {
+
+    // ミキシングの出力フォーマット
+    private static final float SAMPLE_RATE = 44100f;
+    private static final int CHANNELS = 2;
+
+    // 1回の書き込みで処理するフレーム数
+    private static final int BUFFER_FRAMES = 512;
+
+    // 同時発音数の上限
+    private static final int MAX_VOICES = 16;
+
+    // 同じSEの同時発音数の上限
+    private static final int MAX_PER_SOUND = 4;
+
+    // 唯一のインスタンス
+    private static SoundEffectController instance;
+
+    // デコード済みのSE(ステレオ16bitのインターリーブ)
+    private Map<String, short[]> samples;
+
+    // 再生要求のキュー
+    private volatile Queue<short[]> requests;
+
+    // 発音中のボイス
+    private Voice[] voices;
+
+    // ボイスの発音順を表すカウンタ
+    private long serial;
+
+    /**
+     * 発音中のSEの再生位置を保持するインナークラス
+     */
+    private static class Voice {
+        private short[] sample;
+        private int position;
+        private long serial;
+
+        private boolean isActive() {
+            return sample != null;
+        }
+    }
+
+    /**
+     * ボイス、キューを初期化する
+     */
+    private SoundEffectController() {
+        samples = new ConcurrentHashMap<String, short[]>();
+        requests = new ConcurrentLinkedQueue<short[]>();
+        voices = new Voice[MAX_VOICES];
+        for(int i = 0; i < voices.length; i++) {
+            voices[i] = new Voice();
+        }
+    }
+
+    /**
+     * <pre>
+     * SE再生エンジンのインスタンスを返す
+     * 初回呼び出し時にオーディオスレッドを開始する
+     * </pre>
+     *
+     * @return SE再生エンジン
+     */
+    public static synchronized SoundEffectController getInstance() {
+        if(instance == null) {
+            instance = new SoundEffectController();
+            Thread t = new Thread(instance, "SoundEffect");
+            t.setDaemon(true);
+            t.start();
+        }
+        return instance;
+    }
+
+    /**
+     * SoundResourceに定義された全てのSEをデコードする
+     */
+    public void preloadAll() {
+        for(Field f: SoundResource.class.getFields()) {
+            if(Modifier.isStatic(f.getModifiers())
+                    && f.getType() == String.class
+                    && f.getName().startsWith("SE_")) {
+                try {
+                    getSample((String) f.get(null));
+                } catch (IllegalAccessException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * 指定したSEをデコードする
+     * 複数のスレッドから同時に呼び出してよい
+     * </pre>
+     *
+     * @param path SEのファイルパス
+     */
+    public void preload(String path) {
+        getSample(path);
+    }
+
+    /**
+     * <pre>
+     * SEを再生する
+     * 呼び出し元のスレッドはブロックしない
+     * </pre>
+     *
+     * @param path SEのファイルパス
+     */
+    public void play(String path) {
+        short[] sample = getSample(path);
+        if(sample != null && sample.length > 0) {
+            requests.offer(sample);
+        }
+    }
+
+    /**
+     * デコード済みのSEを返す、未デコードの場合はデコードする
+     *
+     * @param path SEのファイルパス
+     * @return ステレオ16bitのPCMデータ
+     */
+    private short[] getSample(String path) {
+        short[] sample = samples.get(path);
+        if(sample == null) {
+            sample = decode(SoundController.class.getResource(path));
+            if(sample != null) {
+                samples.put(path, sample);
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * 再生要求をボイスに割り当てる
+     *
+     * @param sample 再生するPCMデータ
+     */
+    private void assign(short[] sample) {
+        Voice target = null;
+        Voice oldestSame = null;
+        Voice oldest = null;
+        int sameCount = 0;
+
+        for(Voice v: voices) {
+            if(!v.isActive()) {
+                if(target == null) {
+                    target = v;
+                }
+                continue;
+            }
+            if(v.sample == sample) {
+                sameCount++;
+                if(oldestSame == null || v.serial < oldestSame.serial) {
+                    oldestSame = v;
+                }
+            }
+            if(oldest == null || v.serial < oldest.serial) {
+                oldest = v;
+            }
+        }
+
+        // 同じSEが上限に達していれば、そのうち最も古いものを差し替える
+        if(sameCount >= MAX_PER_SOUND) {
+            target = oldestSame;
+        } else if(target == null) {
+            target = oldest;
+        }
+
+        target.sample = sample;
+        target.position = 0;
+        target.serial = serial++;
+    }
+
+    /**
+     * オーディオスレッドのメインループ
+     */
+    @Override
+    public void run() {
+        AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, CHANNELS, true, false);
+        SourceDataLine line;
+        try {
+            line = (SourceDataLine) AudioSystem.getLine(new DataLine.Info(SourceDataLine.class, format));
+            line.open(format, BUFFER_FRAMES * CHANNELS * 2 * 4);
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            // 出力デバイスが無い環境ではSEを再生しない
+            e.printStackTrace();
+            requests = new DiscardQueue();
+            return;
+        }
+        line.start();
+
+        int[] mix = new int[BUFFER_FRAMES * CHANNELS];
+        byte[] out = new byte[mix.length * 2];
+
+        while(true) {
+
+            short[] request;
+            while((request = requests.poll()) != null) {
+                assign(request);
+            }
+
+            Arrays.fill(mix, 0);
+            for(Voice v: voices) {
+                if(!v.isActive()) {
+                    continue;
+                }
+                int n = Math.min(mix.length, v.sample.length - v.position);
+                for(int i = 0; i < n; i++) {
+                    mix[i] += v.sample[v.position + i];
+                }
+                v.position += n;
+                if(v.position >= v.sample.length) {
+                    v.sample = null;
+                }
+            }
+
+            for(int i = 0; i < mix.length; i++) {
+                int s = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+                out[i * 2] = (byte) s;
+                out[i * 2 + 1] = (byte) (s >> 8);
+            }
+
+            // バッファが空くまでブロックする
+            line.write(out, 0, out.length);
+        }
+    }
+
+    /**
+     * <pre>
+     * 音源ファイルを出力フォーマットのPCMデータにデコードする
+     * サンプリングレートの違いは線形補間で、モノラルは複製してステレオに変換する
+     * </pre>
+     *
+     * @param path 音源ファイルのURL
+     * @return ステレオ16bitのPCMデータ
+     */
+    private static short[] decode(URL path) {
+        if(path == null) {
+            return null;
+        }
+        try (AudioInputStream src = AudioSystem.getAudioInputStream(path)) {
+            AudioFormat base = src.getFormat();
+            int channels = base.getChannels();
+            float rate = base.getSampleRate();
+            AudioFormat pcm = new AudioFormat(rate, 16, channels, true, false);
+
+            byte[] bytes;
+            try (AudioInputStream ais = AudioSystem.getAudioInputStream(pcm, src)) {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                byte[] buf = new byte[8192];
+                int len;
+                while((len = ais.read(buf)) > 0) {
+                    bos.write(buf, 0, len);
+                }
+                bytes = bos.toByteArray();
+            }
+
+            int srcFrames = bytes.length / (2 * channels);
+            int dstFrames = (int) ((long) srcFrames * SAMPLE_RATE / rate);
+            short[] dst = new short[dstFrames * CHANNELS];
+            double step = rate / SAMPLE_RATE;
+
+            for(int i = 0; i < dstFrames; i++) {
+                double p = i * step;
+                int f0 = Math.min((int) p, srcFrames - 1);
+                int f1 = Math.min(f0 + 1, srcFrames - 1);
+                double t = p - (int) p;
+                for(int c = 0; c < CHANNELS; c++) {
+                    int sc = Math.min(c, channels - 1);
+                    int s0 = readShort(bytes, (f0 * channels + sc) * 2);
+                    int s1 = readShort(bytes, (f1 * channels + sc) * 2);
+                    dst[i * CHANNELS + c] = (short) (s0 + (s1 - s0) * t);
+                }
+            }
+            return dst;
+        } catch (UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * リトルエンディアンの16bit値を読み出す
+     *
+     * @param b      バイト配列
+     * @param offset 読み出し位置
+     * @return 16bitの符号付き値
+     */
+    private static int readShort(byte[] b, int offset) {
+        return (short) ((b[offset] & 0xff) | (b[offset + 1] << 8));
+    }
+
+    /**
+     * 出力デバイスが無い場合に再生要求を破棄するキュー
+     */
+    @SuppressWarnings("serial")
+    private static class DiscardQueue extends ConcurrentLinkedQueue<short[]> {
+        @Override
+        public boolean offer(short[] e) {
+            return false;
+        }
+    }
+}
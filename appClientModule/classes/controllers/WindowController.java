@@ -1,14 +1,25 @@
 package classes.controllers;
 
+import java.awt.AWTEvent;
+import java.awt.Canvas;
+import java.awt.Dimension;
+import java.awt.EventQueue;
 import java.awt.Point;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
 import java.awt.event.WindowEvent;
 import java.awt.event.WindowStateListener;
+import java.util.Queue;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.JFrame;
 
+import classes.containers.ScaledImageCache;
+
 import interfaces.*;
 
 /**
@@ -17,7 +28,7 @@ import interfaces.*;
  * @author Naoki Yoshikawa
  */
 @SuppressWarnings("serial")
-public class WindowController extends JFrame implements ComponentListener, WindowStateListener {
+public class WindowController extends JFrame implements ComponentListener, WindowStateListener, KeyListener {
 
     // 基準となるウィンドウサイズ
     public static final double WIDTH = 960;
@@ -33,8 +44,20 @@ public class WindowController extends JFrame implements ComponentListener, Windo
     private Stack<GameScene> sceneStack;
 
     // 現在のウィンドウサイズ
-    private double currentWidth;
-    private double currentHeight;
+    private volatile double currentWidth;
+    private volatile double currentHeight;
+
+    // シーンを合成して描画するオブジェクト(Swingの再描画を使用する場合はnull)
+    private volatile SceneCompositor compositor;
+
+    // EDTに送った合成描画の要求が未処理かどうか
+    private AtomicBoolean renderPending;
+
+    // ゲームループのスレッドで描画を行うかどうか
+    private volatile boolean activeRendering;
+
+    // EDTで受け取り、ゲームループのスレッドで処理するキー入力、リサイズのイベント
+    private Queue<AWTEvent> events;
 
     /**
      * ウィンドウの設定及び初期シーンを指定する
@@ -58,6 +81,121 @@ public class WindowController extends JFrame implements ComponentListener, Windo
         currentHeight = 60 * 9;//HEIGHT;
 
         sceneStack = new Stack<GameScene>();
+
+        renderPending = new AtomicBoolean();
+        events = new ConcurrentLinkedQueue<AWTEvent>();
+    }
+
+    /**
+     * <pre>
+     * シーンを1枚のCanvasに合成して描画するモードに切り替える
+     * シーンのパネルはウィンドウに追加せず、キー入力はCanvasから最前面のシーンに転送する
+     * シーンを設定する前に呼び出す
+     * </pre>
+     */
+    public void enableCompositor() {
+        if(compositor != null) {
+            return;
+        }
+        compositor = new SceneCompositor();
+        compositor.getCanvas().setPreferredSize(new Dimension((int) currentWidth, (int) currentHeight));
+        compositor.getCanvas().addKeyListener(this);
+        this.add(compositor.getCanvas());
+    }
+
+    /**
+     * <pre>
+     * ゲームループのスレッドで合成描画を行うモードに切り替える
+     * キー入力とリサイズはEDTからキューで受け渡し、dispatchEvents()を呼び出したスレッドで処理する
+     * シーンの更新と描画が同じスレッドで行われるため、描画中にシーンの状態が変化しない
+     * シーンを設定する前に呼び出す
+     * </pre>
+     */
+    public void enableActiveRendering() {
+        enableCompositor();
+        activeRendering = true;
+    }
+
+    /**
+     * <pre>
+     * EDTから受け渡されたイベントを受け取った順に処理する
+     * ゲームループのスレッドから、シーンの更新前に1フレームにつき1回呼び出す
+     * </pre>
+     */
+    public void dispatchEvents() {
+        AWTEvent e;
+        while((e = events.poll()) != null) {
+            if(e instanceof KeyEvent) {
+                forwardKey((KeyEvent) e);
+            } else {
+                resize();
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * 1フレーム分の描画を要求する
+     * 合成描画のモードではEDTでバックバッファに合成して画面に反映し、
+     * ゲームループのスレッドで描画するモードでは呼び出したスレッドで画面に反映する
+     * それ以外はSwingの再描画を要求する
+     * </pre>
+     */
+    public void render() {
+        if(compositor == null) {
+            repaint();
+            return;
+        }
+
+        if(activeRendering) {
+            renderComposite();
+            return;
+        }
+
+        // 前回の要求が未処理の間は要求を追加しない
+        if(renderPending.compareAndSet(false, true)) {
+            EventQueue.invokeLater(() -> {
+                renderPending.set(false);
+                renderComposite();
+            });
+        }
+    }
+
+    /**
+     * <pre>
+     * シーンを合成して画面に反映する
+     * バッファを生成できなかった場合はSwingの再描画に切り替える
+     * </pre>
+     */
+    private void renderComposite() {
+        SceneCompositor c = compositor;
+        if(c != null && !c.render(getBasePanel(), sceneStack, (int) currentWidth, (int) currentHeight)) {
+            disableCompositor();
+        }
+    }
+
+    /**
+     * <pre>
+     * 合成描画をやめ、Swingの再描画で各シーンのパネルを個別に描画するモードに戻す
+     * Canvasを取り除き、シーンのパネルをpushSceneと同じ順にウィンドウへ追加する
+     * キー入力、リサイズはその場で処理するようになる(キューに残ったイベントはdispatchEvents()で処理する)
+     * </pre>
+     */
+    private synchronized void disableCompositor() {
+        if(compositor == null) {
+            return;
+        }
+        Canvas canvas = compositor.getCanvas();
+        compositor = null;
+        activeRendering = false;
+
+        this.remove(canvas);
+        for(int i = 0; i < sceneStack.size(); i++) {
+            this.add(sceneStack.get(sceneStack.size() - (1 + i)).getPanel());
+        }
+        this.add(getBasePanel().getPanel());
+        repaintUtil();
+        repaint();
     }
 
     /**
@@ -95,7 +233,7 @@ public class WindowController extends JFrame implements ComponentListener, Windo
      */
     public void clearStack() {
         for(GameScene s: sceneStack) {
-            this.remove(s.getPanel());
+            detach(s);
         }
         sceneStack.clear();
     }
@@ -110,15 +248,17 @@ public class WindowController extends JFrame implements ComponentListener, Windo
 
         sceneStack.push(s);
 
-        // 描画順の逆順でaddし直す
-        this.remove(getBasePanel().getPanel());
-        for(GameScene scene: sceneStack) {
-            this.remove(scene.getPanel());
-        }
-        for(int i = 0; i < sceneStack.size(); i++) {
-            this.add(sceneStack.get(sceneStack.size() - (1 + i)).getPanel());
+        // 描画順の逆順でaddし直す(合成描画のモードではスタックの順に描画するため不要)
+        if(compositor == null) {
+            this.remove(getBasePanel().getPanel());
+            for(GameScene scene: sceneStack) {
+                this.remove(scene.getPanel());
+            }
+            for(int i = 0; i < sceneStack.size(); i++) {
+                this.add(sceneStack.get(sceneStack.size() - (1 + i)).getPanel());
+            }
+            this.add(getBasePanel().getPanel());
         }
-        this.add(getBasePanel().getPanel());
         getBasePanel().getKeyConfig().releaseAll();
         playBGM(s);
         repaintUtil();
@@ -128,7 +268,7 @@ public class WindowController extends JFrame implements ComponentListener, Windo
      * スタックの最上位からゲームシーンオブジェクトを1つ削除する
      */
     public void popScene() {
-        this.remove(sceneStack.pop().getPanel());
+        detach(sceneStack.pop());
         getFrontPanel().getKeyConfig().releaseAll();
         repaintUtil();
     }
@@ -139,12 +279,14 @@ public class WindowController extends JFrame implements ComponentListener, Windo
      * @param scene   移行先のゲームシーンオブジェクト
      */
     public void changeScene(GameScene scene) {
-        if(currentScene != null) {
-            this.remove(currentScene.getPanel());
+        GameScene previous = currentScene;
+        if(previous != null) {
+            detach(previous);
         }
 
         this.currentScene = scene;
-        this.add(scene.getPanel());
+        attach(scene);
+        disposeScene(previous, scene);
 
         // BGMの切り替え
         playBGM(scene);
@@ -162,12 +304,14 @@ public class WindowController extends JFrame implements ComponentListener, Windo
      */
     public void setGameScene(GameScene scene) {
 
-        if(currentScene != null) {
-            this.remove(currentScene.getPanel());
+        GameScene previous = currentScene;
+        if(previous != null) {
+            detach(previous);
         }
 
         this.currentScene = scene;
-        this.add(scene.getPanel());
+        attach(scene);
+        disposeScene(previous, scene);
 
 
         repaintUtil();
@@ -333,12 +477,118 @@ public class WindowController extends JFrame implements ComponentListener, Windo
         changeScene(this.currentScene.getNewScene());
     }
 
+    /**
+     * <pre>
+     * ゲームシーンのパネルをウィンドウに追加する
+     * 合成描画のモードでは追加しない
+     * </pre>
+     *
+     * @param scene ゲームシーンオブジェクト
+     */
+    private void attach(GameScene scene) {
+        if(compositor == null) {
+            this.add(scene.getPanel());
+        }
+    }
+
+    /**
+     * <pre>
+     * 差し替えたゲームシーンが資源を持つ場合は解放する
+     * 同じシーンを設定し直した場合は解放しない
+     * </pre>
+     *
+     * @param previous 差し替える前のゲームシーンオブジェクト
+     * @param next     差し替えた後のゲームシーンオブジェクト
+     */
+    private void disposeScene(GameScene previous, GameScene next) {
+        if(previous != next && previous instanceof DisposableScene) {
+            ((DisposableScene) previous).dispose();
+        }
+    }
+
+    /**
+     * <pre>
+     * ゲームシーンのパネルをウィンドウから削除する
+     * 合成描画のモードでは追加していないため何もしない
+     * </pre>
+     *
+     * @param scene ゲームシーンオブジェクト
+     */
+    private void detach(GameScene scene) {
+        if(compositor == null) {
+            this.remove(scene.getPanel());
+        }
+    }
+
+    /**
+     * <pre>
+     * キー入力を最前面のシーンに転送する
+     * 合成描画のモードでCanvasが受けたキー入力をシーンのKeyListenerに渡す
+     * </pre>
+     *
+     * @param e キーイベント
+     */
+    private void forwardKey(KeyEvent e) {
+        for(KeyListener l: getFrontPanel().getPanel().getKeyListeners()) {
+            switch(e.getID()) {
+            case KeyEvent.KEY_PRESSED:
+                l.keyPressed(e);
+                break;
+            case KeyEvent.KEY_RELEASED:
+                l.keyReleased(e);
+                break;
+            case KeyEvent.KEY_TYPED:
+                l.keyTyped(e);
+                break;
+            default:
+            }
+        }
+    }
+
+    /**
+     * 現在のウィンドウサイズを取得し、全てのシーンのパネルを再設定する
+     */
+    private void resize() {
+        // 拡大縮小済みの画像はサイズが変わった場合のみ破棄する
+        if(currentWidth != super.getWidth() || currentHeight != super.getHeight()) {
+            ScaledImageCache.getInstance().invalidate();
+        }
+        currentWidth = super.getWidth();
+        currentHeight = super.getHeight();
+        getBasePanel().initPanel();
+        for(GameScene s: sceneStack) {
+            s.initPanel();
+        }
+    }
+
+    /**
+     * <pre>
+     * EDTで受け取ったキー入力、リサイズのイベントを処理する
+     * ゲームループのスレッドで描画するモードではキューに追加し、それ以外はその場で処理する
+     * </pre>
+     *
+     * @param e イベント
+     */
+    private void handle(AWTEvent e) {
+        if(activeRendering) {
+            events.offer(e);
+        } else if(e instanceof KeyEvent) {
+            forwardKey((KeyEvent) e);
+        } else {
+            resize();
+        }
+    }
+
     /**
      * パネルの更新・再描画の一連の手続きを集約して行う
      */
     private void repaintUtil() {
-        // フォーカスを操作パネルに設定
-        getFrontPanel().getPanel().requestFocusInWindow();
+        // フォーカスを操作パネル(合成描画のモードではCanvas)に設定
+        if(compositor == null) {
+            getFrontPanel().getPanel().requestFocusInWindow();
+        } else {
+            compositor.getCanvas().requestFocusInWindow();
+        }
         //更新
         super.validate();
     }
@@ -350,18 +600,34 @@ public class WindowController extends JFrame implements ComponentListener, Windo
      */
     @Override
     public void componentResized(ComponentEvent e) {
-        currentWidth = super.getWidth();
-        currentHeight = super.getHeight();
-        getBasePanel().initPanel();
-        for(GameScene s: sceneStack) {
-            s.initPanel();
-        }
+        handle(e);
     }
 
     @Override
     public void componentMoved(ComponentEvent e) {
     }
 
+    /*
+     * KeyListenerインターフェースの機能群
+     * 合成描画のモードでCanvasが受けたキー入力を最前面のシーンに転送する
+     * ゲームループのスレッドで描画するモードではdispatchEvents()で転送する
+     */
+
+    @Override
+    public void keyPressed(KeyEvent e) {
+        handle(e);
+    }
+
+    @Override
+    public void keyReleased(KeyEvent e) {
+        handle(e);
+    }
+
+    @Override
+    public void keyTyped(KeyEvent e) {
+        handle(e);
+    }
+
     @Override
     public void componentShown(ComponentEvent e) {
     }
@@ -377,11 +643,6 @@ public class WindowController extends JFrame implements ComponentListener, Windo
      */
     @Override
     public void windowStateChanged(WindowEvent e) {
-        currentWidth = super.getWidth();
-        currentHeight = super.getHeight();
-        getBasePanel().initPanel();
-        for(GameScene s: sceneStack) {
-            s.initPanel();
-        }
+        handle(e);
     }
 }
@@ -27,6 +27,25 @@ public class Ray {
         this.dir = dir;
     }
 
+    /**
+     * <pre>
+     * 位置ベクトル、方向ベクトルの成分を設定する
+     * 保持しているベクトルの値そのものを変更する
+     * </pre>
+     *
+     * @param px 位置ベクトルのX成分
+     * @param py 位置ベクトルのY成分
+     * @param dx 方向ベクトルのX成分
+     * @param dy 方向ベクトルのY成分
+     *
+     * @return この光線
+     */
+    public Ray set(double px, double py, double dx, double dy) {
+        this.pos.set(px, py);
+        this.dir.set(dx, dy);
+        return this;
+    }
+
     /**
      * 光線の位置ベクトルを返す
      *
@@ -66,14 +85,36 @@ public class Ray {
         return this.pos.add(this.dir);
     }
 
+    /**
+     * 光線の終端位置の座標を出力先のベクトルに格納する
+     *
+     * @param out 出力先のベクトルオブジェクト
+     *
+     * @return 出力先のベクトル
+     */
+    public Vector2 getEndPos(Vector2 out) {
+        return this.pos.add(this.dir, out);
+    }
+
     /**
      * 方向ベクトルに対しての正規化した法線ベクトルを返す
      *
      * @return 法線ベクトル
      */
     public Vector2 getOrthonorm() {
-        Vector2 v = new Vector2(-getSlope(), 1);
-        return v.scalar(1/v.mag());
+        return getOrthonorm(new Vector2(0, 0));
+    }
+
+    /**
+     * 方向ベクトルに対しての正規化した法線ベクトルを出力先のベクトルに格納する
+     *
+     * @param out 出力先のベクトルオブジェクト
+     *
+     * @return 出力先の法線ベクトル
+     */
+    public Vector2 getOrthonorm(Vector2 out) {
+        out.set(-getSlope(), 1);
+        return out.scalar(1/out.mag());
     }
 
      /**
@@ -85,7 +126,7 @@ public class Ray {
 
         // Y軸平行の傾きは許容値とする
         if(Math.abs(this.dir.getX()) < EPSILON) {
-            this.dir = new Vector2(EPSILON, this.dir.getY());
+            this.dir.set(EPSILON, this.dir.getY());
         }
 
         return this.dir.getY() / this.dir.getX();
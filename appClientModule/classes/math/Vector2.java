@@ -111,4 +111,140 @@ public class Vector2 {
         this.y *= s;
         return this;
     }
-}
\ No newline at end of file
+
+    /**
+     * ベクトルの成分を設定する
+     *
+     * @param x ベクトルのX成分
+     * @param y ベクトルのY成分
+     *
+     * @return このベクトル
+     */
+    public Vector2 set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * ベクトルの成分を他のベクトルと同じ値にする
+     *
+     * @param u 値をコピーするベクトルオブジェクト
+     *
+     * @return このベクトル
+     */
+    public Vector2 set(Vector2 u) {
+        this.x = u.x;
+        this.y = u.y;
+        return this;
+    }
+
+    /**
+     * <pre>
+     * ベクトルを加算する
+     * add と異なりベクトルの値そのものを変更する
+     * </pre>
+     *
+     * @param u このインスタンスに加算するベクトルオブジェクト
+     *
+     * @return 加算後のこのベクトル
+     */
+    public Vector2 addLocal(Vector2 u) {
+        this.x += u.x;
+        this.y += u.y;
+        return this;
+    }
+
+    /**
+     * <pre>
+     * ベクトルに成分を加算する
+     * add と異なりベクトルの値そのものを変更する
+     * </pre>
+     *
+     * @param x 加算するX成分
+     * @param y 加算するY成分
+     *
+     * @return 加算後のこのベクトル
+     */
+    public Vector2 addLocal(double x, double y) {
+        this.x += x;
+        this.y += y;
+        return this;
+    }
+
+    /**
+     * <pre>
+     * スカラー倍したベクトルを加算する
+     * u.copy().scalar(s) を加算するのと同じ結果を、インスタンスを生成せずに求める
+     * </pre>
+     *
+     * @param u このインスタンスに加算するベクトルオブジェクト
+     * @param s u に掛けるスカラー倍
+     *
+     * @return 加算後のこのベクトル
+     */
+    public Vector2 addScaledLocal(Vector2 u, double s) {
+        this.x += u.x * s;
+        this.y += u.y * s;
+        return this;
+    }
+
+    /**
+     * <pre>
+     * ベクトルを減算する
+     * sub と異なりベクトルの値そのものを変更する
+     * </pre>
+     *
+     * @param u このインスタンスから減算するベクトルオブジェクト
+     *
+     * @return 減算後のこのベクトル
+     */
+    public Vector2 subLocal(Vector2 u) {
+        this.x -= u.x;
+        this.y -= u.y;
+        return this;
+    }
+
+    /**
+     * <pre>
+     * 2ベクトルの加算結果を出力先のベクトルに格納する
+     * 出力先にこのインスタンス自身を指定してもよい
+     * </pre>
+     *
+     * @param u   このインスタンスに加算するベクトルオブジェクト
+     * @param out 出力先のベクトルオブジェクト
+     *
+     * @return 出力先のベクトル
+     */
+    public Vector2 add(Vector2 u, Vector2 out) {
+        return out.set(this.x + u.x, this.y + u.y);
+    }
+
+    /**
+     * <pre>
+     * 2ベクトルの減算結果を出力先のベクトルに格納する
+     * 出力先にこのインスタンス自身を指定してもよい
+     * </pre>
+     *
+     * @param u   このインスタンスから減算するベクトルオブジェクト
+     * @param out 出力先のベクトルオブジェクト
+     *
+     * @return 出力先のベクトル
+     */
+    public Vector2 sub(Vector2 u, Vector2 out) {
+        return out.set(this.x - u.x, this.y - u.y);
+    }
+
+    /**
+     * 2ベクトルの終点間の距離を返す
+     *
+     * @param u 距離を求めるベクトルオブジェクト
+     *
+     * @return 2点間の距離
+     */
+    public double distance(Vector2 u) {
+        double dx = this.x - u.x;
+        double dy = this.y - u.y;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
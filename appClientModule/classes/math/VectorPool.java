@@ -0,0 +1,59 @@
+package classes.math;
+
+/**
+ * <pre>
+ * 1フレーム内の一時的な計算に使用するベクトルのプール
+ * obtain() で取り出したベクトルは次の reset() まで有効で、以降は再利用される
+ * スレッドセーフではないため、更新処理と描画処理でそれぞれ別のプールを使用する
+ * </pre>
+ *
+ * @author Naoki Yoshikawa
+ */
+public class VectorPool {
+
+    // 確保済みのベクトル
+    private Vector2[] vectors;
+
+    // 次に取り出すベクトルのインデックス
+    private int next;
+
+    /**
+     * 指定数のベクトルをあらかじめ確保する
+     *
+     * @param capacity 初期の確保数
+     */
+    public VectorPool(int capacity) {
+        vectors = new Vector2[Math.max(1, capacity)];
+        for(int i = 0; i < vectors.length; i++) {
+            vectors[i] = new Vector2(0, 0);
+        }
+        next = 0;
+    }
+
+    /**
+     * <pre>
+     * 成分を0にしたベクトルを取り出す
+     * 確保数を超えた場合はプールを拡張する
+     * </pre>
+     *
+     * @return 一時的に使用できるベクトル
+     */
+    public Vector2 obtain() {
+        if(next == vectors.length) {
+            Vector2[] grown = new Vector2[vectors.length * 2];
+            System.arraycopy(vectors, 0, grown, 0, vectors.length);
+            for(int i = vectors.length; i < grown.length; i++) {
+                grown[i] = new Vector2(0, 0);
+            }
+            vectors = grown;
+        }
+        return vectors[next++].set(0, 0);
+    }
+
+    /**
+     * 取り出したベクトルをすべてプールに戻す
+     */
+    public void reset() {
+        next = 0;
+    }
+}
@@ -134,10 +134,8 @@ public class BaseSystemOperator extends JLayeredPane implements KeyListener {
      * @see java.awt.event.KeyListener
      */
     public void keyPressed(KeyEvent e) {
-        int key = e.getKeyCode();
-        if (keyConfig.getKeys().containsKey(key)) {
-            keyConfig.getKeys().get(key).press();
-        }
+        // キーの状態はゲームループのスレッドで更新する
+        keyConfig.offer(e);
     }
 
     /**
@@ -145,10 +143,8 @@ public class BaseSystemOperator extends JLayeredPane implements KeyListener {
      * @see java.awt.event.KeyListener
      */
     public void keyReleased(KeyEvent e) {
-        int key = e.getKeyCode();
-        if (keyConfig.getKeys().containsKey(key)) {
-            keyConfig.getKeys().get(key).release();
-        }
+        // キーの状態はゲームループのスレッドで更新する
+        keyConfig.offer(e);
     }
 
     /**
@@ -118,7 +118,7 @@ public class Introduction extends BaseSystemOperator implements GameScene {
         // イントロのBGMが鳴り終わったタイミングでロゴ表示とSEを実行
         if (onLoad && !SoundController.isPlaying()) {
             if (!logoFlg){
-                new Thread(new SoundController.PlaySE(SoundResource.SE_OPENINGLOGO)).start();
+                SoundController.playSE(SoundResource.SE_OPENINGLOGO);
                 logoFlg = true;
 
             // ロード完了後、かつ一定時間の経過でタイトル画面へ遷移
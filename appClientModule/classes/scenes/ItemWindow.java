@@ -7,7 +7,6 @@ import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import javax.swing.JLayeredPane;
 
@@ -26,13 +25,14 @@ import classes.ui.StringSelectOption;
 import classes.utils.GeneralUtil;
 
 import interfaces.GameScene;
+import interfaces.ModalScene;
 
 /**
  * レコード屋の買い物用ウィンドウを定義するクラス
  *
  * @author Naoki Yoshikawa
  */
-public class ItemWindow extends BaseSystemOperator implements GameScene {
+public class ItemWindow extends BaseSystemOperator implements GameScene, ModalScene {
 
     // スクリプトを管理するオブジェクト
     private ScriptController script;
@@ -49,9 +49,6 @@ public class ItemWindow extends BaseSystemOperator implements GameScene {
      // 表示するスクリプトを表すインデックス
      private int scriptIndex;
 
-     // コイン数を表示するのに使用する数字のフォント画像のリスト
-     private Map<Character, BufferedImage> numFontMap;
-
      // UIテキスト用のオブジェクト
      private StringSelectOption coin;
 
@@ -72,7 +69,6 @@ public class ItemWindow extends BaseSystemOperator implements GameScene {
         keyConfig.getKeys().put(KeyEvent.VK_C, keyConfig.new Key(KeyController.DETECT_INITIAL_PRESS_ONLY));
 
         // 画像の読み込み
-        this.numFontMap = GeneralUtil.stringToImageMap(FontController.Fonts.NORMAL, "0123456789-");
         owner = GeneralUtil.readImage(ImageResource.VinylIcon.OWNER.getValue());
 
         coin = new StringSelectOption(
@@ -260,7 +256,7 @@ public class ItemWindow extends BaseSystemOperator implements GameScene {
                 );
         GeneralUtil.drawDynamicString(
                 Integer.toString(GameController.getCoin()),
-                numFontMap,
+                FontController.Fonts.NORMAL,
                 770,
                 400,
                 20,
@@ -291,13 +287,13 @@ public class ItemWindow extends BaseSystemOperator implements GameScene {
             scriptIndex = cursorVinylIndex;
             script.getScriptList().get(scriptIndex).resetIndex();
             count = 0;
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
         } else if (keyConfig.getKeys().get(KeyEvent.VK_RIGHT).isPressed()) {
             next();
             scriptIndex = cursorVinylIndex;
             script.getScriptList().get(scriptIndex).resetIndex();
             count = 0;
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
         }
 
 
@@ -1,5 +1,6 @@
 package classes.scenes;
 
+import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Point;
 import java.awt.image.BufferedImage;
@@ -7,6 +8,7 @@ import java.awt.image.BufferedImage;
 import javax.swing.JLayeredPane;
 
 import classes.constants.ImageResource;
+import classes.controllers.AssetController;
 import classes.controllers.GameController;
 import classes.controllers.SoundController;
 import classes.controllers.WindowController;
@@ -25,6 +27,10 @@ public class Loading extends BaseSystemOperator implements GameScene {
 
     /* 定数群 */
     private final int SPEED = 10;// アニメーションのスピード
+    private final int BAR_X = 700;      // プログレスバーの表示位置のX座標
+    private final int BAR_Y = 515;      // プログレスバーの表示位置のY座標
+    private final int BAR_WIDTH = 228;  // プログレスバーの幅
+    private final int BAR_HEIGHT = 4;   // プログレスバーの高さ
 
     // フレームカウント数
     private double count;
@@ -88,6 +94,22 @@ public class Loading extends BaseSystemOperator implements GameScene {
                 );
          }
 
+         // 事前読み込みの進捗
+         double progress = AssetController.getInstance().getProgress();
+         g.setColor(Color.DARK_GRAY);
+         g.fillRect(
+                 (int) GameController.getWindow().getAbsPosX(BAR_X),
+                 (int) GameController.getWindow().getAbsPosY(BAR_Y),
+                 (int) GameController.getWindow().getAbsPosX(BAR_WIDTH),
+                 (int) GameController.getWindow().getAbsPosY(BAR_HEIGHT)
+                 );
+         g.setColor(Color.WHITE);
+         g.fillRect(
+                 (int) GameController.getWindow().getAbsPosX(BAR_X),
+                 (int) GameController.getWindow().getAbsPosY(BAR_Y),
+                 (int) GameController.getWindow().getAbsPosX(BAR_WIDTH * progress),
+                 (int) GameController.getWindow().getAbsPosY(BAR_HEIGHT)
+                 );
      }
 
      /**
@@ -24,6 +24,7 @@ import classes.ui.StringSelectOption;
 import classes.utils.GeneralUtil;
 
 import interfaces.GameScene;
+import interfaces.ModalScene;
 
 /**
  * ゲーム中のポーズ画面を定義するゲームシーンオブジェクト
@@ -31,7 +32,7 @@ import interfaces.GameScene;
  * @author Naoki Yoshikawa
  */
 @SuppressWarnings("serial")
-public class Pause extends BaseSystemOperator implements GameScene {
+public class Pause extends BaseSystemOperator implements GameScene, ModalScene {
 
     // 選択リストの文字列定数
     private final String OPTION_RESUME = "さいかい";
@@ -188,13 +189,13 @@ public class Pause extends BaseSystemOperator implements GameScene {
         WindowController w = GameController.getWindow();
         Map<Integer, KeyController.Key> keys = getKeyConfig().getKeys();
         if (keys.get(KeyEvent.VK_UP).isPressed()) {
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
             previousIndex();
         } else if (keys.get(KeyEvent.VK_DOWN).isPressed()) {
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
             nextIndex();
         } else if (keys.get(KeyEvent.VK_ENTER).isPressed()) {
-            new Thread(new SoundController.PlaySE(SoundResource.SE_ENTER)).start();
+            SoundController.playSE(SoundResource.SE_ENTER);
             keyConfig.releaseAll();
             switch(index) {
             // "さいかい"を選択
@@ -89,7 +89,8 @@ public class Title extends BaseSystemOperator implements GameScene {
                         )
                 );
 
-        title = GeneralUtil.readImage(ImageResource.Logo.TITLE.getValue());
+        // ロゴの色を書き換えるため、共有の画像を複製して使用する
+        title = GeneralUtil.copyImage(GeneralUtil.readImage(ImageResource.Logo.TITLE.getValue()));
 
         // タイトルロゴ画像から、指定RGBをもつピクセルを取得する
         color = new Color((int) RED, (int) GREEN, (int) BLUE);
@@ -186,13 +187,13 @@ public class Title extends BaseSystemOperator implements GameScene {
         }
 
         // プレイヤーの描画
-        g.drawImage(
+        GeneralUtil.drawScaled(
                 player.getImage(),
                 (int) w.getAbsPosX(player.getImageLeftX()),
                 (int) w.getAbsPosY(WindowController.HEIGHT - player.getImageHeight()),
                 (int) w.getAbsPosX(player.getImageWidth()),
                 (int) w.getAbsPosY(player.getImageHeight()),
-                null
+                g
                 );
 
 
@@ -216,13 +217,13 @@ public class Title extends BaseSystemOperator implements GameScene {
         int drawHeight = (int) GameController.getWindow().getAbsPosY(title.getHeight());
 
         // タイトルロゴの描画
-        g.drawImage(
+        GeneralUtil.drawScaled(
                 title,
                 (int) ((GameController.getWindow().getWindowWidth() - drawWidth)/2),
                 (int) (GameController.getWindow().getWindowHeight() / 10),
                 drawWidth,
                 drawHeight,
-                null
+                g
                 );
 
         // 選択リストの描画
@@ -287,12 +288,12 @@ public class Title extends BaseSystemOperator implements GameScene {
         // 選択リストに対するキーイベントの処理
         if (keys.get(KeyEvent.VK_UP).isPressed()) {
             previousIndex();
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
         } else if (keys.get(KeyEvent.VK_DOWN).isPressed()) {
             nextIndex();
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
         } else if (keys.get(KeyEvent.VK_ENTER).isPressed()) {
-            new Thread(new SoundController.PlaySE(SoundResource.SE_ENTER)).start();
+            SoundController.playSE(SoundResource.SE_ENTER);
             switch(index) {
             // "はじめから"を選択した場合コインをリセット
             case 0:
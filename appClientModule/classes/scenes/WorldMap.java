@@ -11,6 +11,7 @@ import javax.swing.JLayeredPane;
 import classes.constants.ImageResource;
 import classes.constants.SoundResource;
 import classes.containers.Image;
+import classes.containers.VolatileLayer;
 import classes.controllers.FontController;
 import classes.controllers.GameController;
 import classes.controllers.KeyController;
@@ -26,6 +27,7 @@ import classes.ui.ImageSelectOption;
 import classes.ui.StringSelectOption;
 import classes.utils.GeneralUtil;
 
+import interfaces.DisposableScene;
 import interfaces.GameScene;
 
 /**
@@ -34,7 +36,7 @@ import interfaces.GameScene;
  * @author Naoki Yoshikawa
  */
 @SuppressWarnings("serial")
-public class WorldMap extends BaseSystemOperator implements GameScene {
+public class WorldMap extends BaseSystemOperator implements GameScene, DisposableScene {
 
     // ステージ名の文字列定数
     private static final String MAPPOINT1 = "きんさく";    // "こつこつかせぐ"
@@ -46,7 +48,7 @@ public class WorldMap extends BaseSystemOperator implements GameScene {
     private final int STAGE_VINYLSHOP = 2;
 
     //背景画像オブジェクト
-    private BufferedImage background;
+    private VolatileLayer background;
 
     // ワールドマップロゴの画像オブジェクト
     private Image logo;
@@ -100,7 +102,7 @@ public class WorldMap extends BaseSystemOperator implements GameScene {
                     )
                 );
 
-        background = GeneralUtil.readImage(ImageResource.LayeredBackground.WORLDMAP.getValue());
+        background = new VolatileLayer(GeneralUtil.readImage(ImageResource.LayeredBackground.WORLDMAP.getValue()));
         logo = new Image(
                 50,
                 320,
@@ -156,17 +158,13 @@ public class WorldMap extends BaseSystemOperator implements GameScene {
     public void paintComponent(Graphics g) {
 
         // 背景画像の描画
-        g.drawImage(
-                background,
+        background.draw(
+                g,
                 0,
                 0,
                 (int) GameController.getWindow().getWindowWidth(),
-                (int) GameController.getWindow().getWindowHeight(),
-                0,
-                0,
-                background.getWidth(),
-                background.getHeight(),
-                null);
+                (int) GameController.getWindow().getWindowHeight()
+                );
 
         // 画像アイコンタイプの選択リストを描画
         for(StringSelectOption selectOption: selectOptionList) {
@@ -258,18 +256,18 @@ public class WorldMap extends BaseSystemOperator implements GameScene {
             previousIndex();
             resetTimes();
             script.getScriptList().get(index).resetIndex();
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
 
         } else if (keys.get(KeyEvent.VK_DOWN).isPressed()) {
             nextIndex();
             resetTimes();
             script.getScriptList().get(index).resetIndex();
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
 
         } else if (keys.get(KeyEvent.VK_ENTER).isPressed()) {
             keyConfig.releaseAll();
 
-            new Thread(new SoundController.PlaySE(SoundResource.SE_ENTER)).start();
+            SoundController.playSE(SoundResource.SE_ENTER);
 
             switch(index) {
 
@@ -370,6 +368,15 @@ public class WorldMap extends BaseSystemOperator implements GameScene {
         keyConfig.releaseAll();
     }
 
+    /**
+     * シーンを手放す際に、背景のVolatileImageを解放する
+     * @see interfaces.DisposableScene#dispose()
+     */
+    @Override
+    public void dispose() {
+        background.flush();
+    }
+
     /**
      * シーンレイヤーのスタックのうち、子シーンからのコールバックを受ける
      *
@@ -6,20 +6,19 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
-import java.awt.Rectangle;
 import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 
 import javax.swing.JLayeredPane;
 
 import classes.constants.ImageResource;
 import classes.constants.SoundResource;
+import classes.containers.VolatileLayer;
 import classes.controllers.EffectController;
 import classes.controllers.FontController;
 import classes.controllers.GameController;
@@ -27,16 +26,20 @@ import classes.controllers.SceneController;
 import classes.controllers.SoundController;
 import classes.controllers.WindowController;
 import classes.math.Vector2;
+import classes.math.VectorPool;
 import classes.ui.StringSelectOption;
 import classes.scenes.BaseSystemOperator;
 import classes.scenes.action.assets.Player;
+import classes.scenes.action.assets.StageGrid;
 import classes.scenes.effects.Turntable1;
 import classes.scenes.effects.Turntable2;
 import classes.scenes.effects.Turntable3;
 import classes.utils.GeneralUtil;
 import classes.scenes.action.assets.StageObject;
 
+import interfaces.DisposableScene;
 import interfaces.GameScene;
+import interfaces.PersistentScene;
 
 /**
  * <pre>
@@ -47,7 +50,7 @@ import interfaces.GameScene;
  * @author Naoki Yoshikawa
  **/
 @SuppressWarnings("serial")
-public class ActionStage extends BaseSystemOperator implements GameScene {
+public class ActionStage extends BaseSystemOperator implements GameScene, PersistentScene, DisposableScene {
 
     /* 定数群 */
     private final int GROUND = (int) (WindowController.HEIGHT/3 * 2); // 地面の高さ
@@ -59,12 +62,25 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
     private final int FIELD_WIDTH = 500;  // 2Dビューの幅
     private final int FIELD_HEIGHT = 250; // 2Dビューの高さ
     private final int ITEM_SIZE = 20;     // 所持できる最大アイテム数
+    private final int CELL_SIZE = 50;     // 空間インデックスのセル1辺の長さ
     private int SCALE = 100;  // ステージオブジェクトの拡大倍率の補正値
     private int SHIFT = 300;  // ステージオブジェクトのカメラビュー上でのX方向への補正値
     private int NORMAL = 0;   // ゲームモード:通常時
     private int TUTORIAL = 1; // ゲームモード:初回時
     private int DEBUG = 2; // ゲームモード:初回時
 
+    // プレイヤーから遠い順、近い順に並べる比較器
+    private static final Comparator<StageObject> FAR_TO_NEAR = new Comparator<StageObject>() {
+        public int compare(StageObject t1, StageObject t2) {
+            return Double.compare(t2.getDistance(), t1.getDistance());
+        }
+    };
+    private static final Comparator<StageObject> NEAR_TO_FAR = new Comparator<StageObject>() {
+        public int compare(StageObject t1, StageObject t2) {
+            return Double.compare(t1.getDistance(), t2.getDistance());
+        }
+    };
+
     // プレイヤーオブジェクト
     private Player player;
 
@@ -84,15 +100,40 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
     private List<StageObject> visibleObjFront;
     private List<StageObject> visibleObjBack;
 
+    // 静的ステージオブジェクトとキノコの空間インデックス
+    private StageGrid grid;
+
+    // 空間インデックスから取り出した視界判定の候補
+    private List<StageObject> candidates;
+
+    // 描画処理、更新処理でそれぞれ使用する一時ベクトルのプール
+    private VectorPool drawPool;
+    private VectorPool updatePool;
+
+    // 描画時の補間係数と、補間したプレイヤーの位置(カメラの位置)
+    private double drawAlpha;
+    private Vector2 camera;
+
+    // プレイヤーの移動方向を表す単位ベクトル
+    private static final Vector2 LEFT = new Vector2(-1, 0);
+    private static final Vector2 RIGHT = new Vector2(1, 0);
+    private static final Vector2 UP = new Vector2(0, -1);
+    private static final Vector2 DOWN = new Vector2(0, 1);
+
     // 所持キノコのリスト
     private List<StageObject> items;
 
-    // 背景、ロゴ画像オブジェクト
-    private BufferedImage sky;
-    private BufferedImage mountain1;
-    private BufferedImage mountain2;
-    private BufferedImage mountain3;
-    private BufferedImage fog;
+    // 倒れたプレイヤーのステージオブジェクト(位置はシーンを破棄しても引き継ぐ)
+    private List<StageObject> corpses;
+
+    // 背景画像オブジェクト(画面全体に拡大するためVolatileImageに複製して描画する)
+    private VolatileLayer sky;
+    private VolatileLayer mountain1;
+    private VolatileLayer mountain2;
+    private VolatileLayer mountain3;
+    private VolatileLayer fog;
+
+    // ロゴ画像オブジェクト
     private BufferedImage go;
 
     // チュートリアルで表示するGOロゴのアニメーション用カウント
@@ -104,9 +145,6 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
     // 乱数生成用
     private Random r;
 
-    // コイン数を表示するのに使用する数字のフォント画像のリスト
-     private Map<Character, BufferedImage> numFontMap;
-
      // UI表示用メッセージのオブジェクト
      private StringSelectOption coin;
     private StringSelectOption max;
@@ -138,7 +176,6 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
 
         sell = new StringSelectOption(800, 130, FontController.Fonts.NORMAL, "ENTER: うる", 32);
 
-        numFontMap = GeneralUtil.stringToImageMap(FontController.Fonts.NORMAL, "0123456789-");
         coin = new StringSelectOption(
                 760,
                 390,
@@ -172,15 +209,16 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
                 );
 
         // 背景
-        sky = GeneralUtil.readImage(ImageResource.LayeredBackground.SKY.getValue());
-        fog = GeneralUtil.readImage(ImageResource.LayeredBackground.FOG.getValue());
-        mountain1 = GeneralUtil.readImage(ImageResource.LayeredBackground.MOUNTAIN1.getValue());
-        mountain2 = GeneralUtil.readImage(ImageResource.LayeredBackground.MOUNTAIN2.getValue());
-        mountain3 = GeneralUtil.readImage(ImageResource.LayeredBackground.MOUNTAIN3.getValue());
+        sky = new VolatileLayer(GeneralUtil.readImage(ImageResource.LayeredBackground.SKY.getValue()));
+        fog = new VolatileLayer(GeneralUtil.readImage(ImageResource.LayeredBackground.FOG.getValue()));
+        mountain1 = new VolatileLayer(GeneralUtil.readImage(ImageResource.LayeredBackground.MOUNTAIN1.getValue()));
+        mountain2 = new VolatileLayer(GeneralUtil.readImage(ImageResource.LayeredBackground.MOUNTAIN2.getValue()));
+        mountain3 = new VolatileLayer(GeneralUtil.readImage(ImageResource.LayeredBackground.MOUNTAIN3.getValue()));
         go = GeneralUtil.readImage(ImageResource.Logo.GO.getValue());
 
         // ステージの静的/動的オブジェクト
         objects = new ArrayList<StageObject>();
+        corpses = new ArrayList<StageObject>();
 
         BufferedImage img = GeneralUtil.readImage(ImageResource.StageObject.TREE.getValue());
         objects.add(new StageObject(new Vector2(0, 0), img, false, 0));
@@ -238,15 +276,106 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
                     );
         }
 
+        grid = new StageGrid(FIELD_WIDTH, FIELD_HEIGHT, CELL_SIZE);
+        candidates = new ArrayList<StageObject>();
+        drawPool = new VectorPool(8);
+        camera = new Vector2(0, 0);
+        updatePool = new VectorPool(8);
+        visibleObjFront = new ArrayList<StageObject>();
+        visibleObjBack = new ArrayList<StageObject>();
+
         mode = TUTORIAL;
         goCount = 0;
     }
 
     /**
+     * <pre>
      * タイトル画面で「はじめから」を選択した時のみゲーム起動時の状態に初期化する
+     * 倒れたプレイヤーも取り除き、退避した状態を破棄した場合と同じ状態にする
+     * </pre>
      */
     public void resetParam() {
         this.mode = TUTORIAL;
+        objects.removeAll(corpses);
+        corpses.clear();
+        rebuildGrid();
+    }
+
+    /**
+     * シーンを破棄しても引き継ぐステージの状態
+     */
+    private static class State {
+
+        // ステージのモード
+        private final int mode;
+
+        // 倒れたプレイヤーを置いた位置
+        private final List<Vector2> corpses;
+
+        /**
+         * 引き継ぐ状態を設定する
+         *
+         * @param mode    ステージのモード
+         * @param corpses 倒れたプレイヤーを置いた位置
+         */
+        private State(int mode, List<Vector2> corpses) {
+            this.mode = mode;
+            this.corpses = corpses;
+        }
+    }
+
+    /**
+     * 引き継ぐ状態としてステージのモードと、倒れたプレイヤーを置いた位置を返す
+     * @see interfaces.PersistentScene
+     *
+     * @return ステージの状態
+     */
+    public Object saveState() {
+        List<Vector2> saved = new ArrayList<Vector2>();
+        for(StageObject o: corpses) {
+            saved.add(o.getPosVec().copy());
+        }
+        return new State(mode, saved);
+    }
+
+    /**
+     * ステージのモードを復元し、倒れたプレイヤーを置き直す
+     * @see interfaces.PersistentScene
+     *
+     * @param state ステージの状態
+     */
+    public void restoreState(Object state) {
+        State s = (State) state;
+        this.mode = s.mode;
+        for(Vector2 pos: s.corpses) {
+            addCorpse(pos);
+        }
+    }
+
+    /**
+     * シーンを手放す際に、背景のVolatileImageを解放する
+     * @see interfaces.DisposableScene#dispose()
+     */
+    @Override
+    public void dispose() {
+        sky.flush();
+        mountain1.flush();
+        mountain2.flush();
+        mountain3.flush();
+        fog.flush();
+    }
+
+    /**
+     * 倒れたプレイヤーをステージオブジェクトとして置く
+     *
+     * @param pos 置く位置
+     */
+    private void addCorpse(Vector2 pos) {
+        StageObject o = new StageObject(pos.copy(), player.getFrameHolder().get(ImageResource.DUCK_RIGHT).get(0), false, 0);
+        o.initParam();
+        objects.add(o);
+        grid.add(o);
+        corpses.add(o);
     }
 
     /**
@@ -259,68 +388,68 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
 
         WindowController w = GameController.getWindow();
 
+        drawPool.reset();
+
+        // 固定タイムステップの更新の間の時刻に合わせて、プレイヤーと車の位置を補間して描画する
+        // 最前面でない(ポーズ中などで更新されない)場合は補間しない
+        drawAlpha = w.getFrontPanel() == this ? GameController.getAlpha() : 1.0;
+        player.getDrawPos(drawAlpha, camera);
+
         // 背景の描画
-        g.drawImage(
-                sky,
+        sky.draw(
+                g,
                 (int) 0,
                 (int) 0,
                 (int) w.getWindowWidth(),
-                (int) w.getAbsPosY(GROUND),
-                null
+                (int) w.getAbsPosY(GROUND)
                 );
 
-        g.drawImage(
-                mountain1,
+        mountain1.draw(
+                g,
                 (int) 0,
                 (int) 0,
                 (int) w.getWindowWidth(),
-                (int) w.getAbsPosY(GROUND),
-                null
+                (int) w.getAbsPosY(GROUND)
                 );
 
-        g.drawImage(
-                fog,
+        fog.draw(
+                g,
                 (int) (System.currentTimeMillis()/10 % w.getWindowWidth()),
                 (int) 0,
                 (int) w.getWindowWidth(),
-                (int) w.getAbsPosY(GROUND),
-                null
+                (int) w.getAbsPosY(GROUND)
                 );
 
-        g.drawImage(
-                mountain2,
+        mountain2.draw(
+                g,
                 (int) 0,
                 (int) 0,
                 (int) w.getWindowWidth(),
-                (int) w.getAbsPosY(GROUND),
-                null
+                (int) w.getAbsPosY(GROUND)
                 );
 
-        g.drawImage(
-                fog,
+        fog.draw(
+                g,
                 (int) ((System.currentTimeMillis() + 1000)/10 % w.getWindowWidth()),
                 (int) 0,
                 (int) w.getWindowWidth(),
-                (int) w.getAbsPosY(GROUND),
-                null
+                (int) w.getAbsPosY(GROUND)
                 );
 
-        g.drawImage(
-                mountain3,
+        mountain3.draw(
+                g,
                 (int) 0,
                 (int) 0,
                 (int) w.getWindowWidth(),
-                (int) w.getAbsPosY(GROUND),
-                null
+                (int) w.getAbsPosY(GROUND)
                 );
 
-        g.drawImage(
-                fog,
+        fog.draw(
+                g,
                 (int) ((System.currentTimeMillis()+3000)/10 % w.getWindowWidth()),
                 (int) 0,
                 (int) w.getWindowWidth(),
-                (int) w.getAbsPosY(GROUND),
-                null
+                (int) w.getAbsPosY(GROUND)
                 );
 
         // ステージオブジェクトおよびプレイヤーの描画
@@ -369,7 +498,7 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
             }
         }
 
-        if(isFront(house) && !items.isEmpty()) {
+        if(isFront(house, drawPool) && !items.isEmpty()) {
             GeneralUtil.drawStringShiver(
                     sell.getImageFont(),
                     sell.getX(),
@@ -458,7 +587,7 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
 
          GeneralUtil.drawDynamicString(
                  Integer.toString(GameController.getCoin()),
-                 numFontMap,
+                 FontController.Fonts.NORMAL,
                  770,
                  420,
                  20,
@@ -472,9 +601,9 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
      * @param o 検査対象のステージオブジェクト
      */
     private void setVisibleObjs(StageObject o) {
-        Vector2 distance = player.getPosVec().sub(o.getPosVec());
-        double distanceY = distance.getY();
-        double distanceX = distance.getX() * getAdjustX(distanceY);
+        double dx = player.getPosVec().getX() - o.getPosVec().getX();
+        double distanceY = player.getPosVec().getY() - o.getPosVec().getY();
+        double distanceX = dx * getAdjustX(distanceY);
 
         if(Math.abs(distanceX) < CAMERA_WIDTH/2 + 100
                 && distanceY < FORE_SIGHT
@@ -487,7 +616,48 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
                 visibleObjBack.add(o);
             }
 
-            o.setDistance(distance.mag());
+            o.setDistance(Math.sqrt(dx * dx + distanceY * distanceY));
+        }
+    }
+
+    /**
+     * <pre>
+     * 空間インデックスから前方視野とカメラビューの範囲に掛かるセルのオブジェクトを取り出し、
+     * 視界内のオブジェクトをリストに追加する
+     * カメラビューの幅はプレイヤーからのY方向の距離に比例して広がる
+     * </pre>
+     */
+    private void collectVisibleObjs() {
+        double px = player.getPosVec().getX();
+        double py = player.getPosVec().getY();
+        double eyesight = CAMERA_WIDTH/2 + 100;
+
+        candidates.clear();
+        for(int row = 0; row < grid.getRows(); row++) {
+            double top = Math.max(grid.getRowTop(row), py - FORE_SIGHT);
+            if(top >= py || grid.getRowBottom(row) <= py - FORE_SIGHT) {
+                continue;
+            }
+            // 行内で最も遠い位置でのカメラビューの幅
+            double halfWidth = eyesight * (py - top) / SHIFT;
+            grid.collectRow(row, px - halfWidth, px + halfWidth, candidates);
+        }
+
+        for(StageObject o: candidates) {
+            setVisibleObjs(o);
+        }
+    }
+
+    /**
+     * 空間インデックスを現在のオブジェクトの位置で作り直す
+     */
+    private void rebuildGrid() {
+        grid.clear();
+        for(StageObject o: objects) {
+            grid.add(o);
+        }
+        for(StageObject o: mushrooms) {
+            grid.add(o);
         }
     }
 
@@ -499,7 +669,7 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
     private void drawPlayer(Graphics g) {
         WindowController w = GameController.getWindow();
 
-        double drawY = GROUND - player.getImageHeight() + player.getZ();
+        double drawY = GROUND - player.getImageHeight() + player.getDrawZ(drawAlpha);
         double anchorX = player.getImageLeftX() + player.getImageWidth()/2;
         double anchorY = drawY + player.getImageHeight() - player.getActualHeight()/2;
         GeneralUtil.setRotationRad(
@@ -545,7 +715,7 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
     private void drawBorder(StageObject o, Graphics g) {
         WindowController w = GameController.getWindow();
         double distanceY = BACK_SIGHT;
-        double distanceX = (player.getPosVec().getX() - o.getPosVec().getX()) * getAdjustX(distanceY);
+        double distanceX = (camera.getX() - o.getPosVec().getX()) * getAdjustX(distanceY);
 
         distanceX = Math.max(CAMERA_WIDTH/2 - distanceX, 0);
 
@@ -566,7 +736,7 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
     private void drawObject(StageObject o, Graphics g) {
         WindowController w = GameController.getWindow();
         double eyesight = CAMERA_WIDTH/2;
-        Vector2 distance = player.getPosVec().sub(o.getPosVec());
+        Vector2 distance = camera.sub(o.getDrawPos(drawAlpha, drawPool.obtain()), drawPool.obtain());
         double distanceY = distance.getY();
         double distanceX = distance.getX() * getAdjustX(distanceY);
         double rate = getScaleRate(distanceY);
@@ -664,7 +834,7 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
      * @return プレイヤーがフィールド境界に達しているか
      */
     private boolean isBorder() {
-        Vector2 dest = player.getPosVec().add(player.getDirVec());
+        Vector2 dest = player.getPosVec().add(player.getDirVec(), updatePool.obtain());
         if(dest.getX() < 0
             || dest.getX() > FIELD_WIDTH
             || dest.getY() < 0
@@ -686,7 +856,7 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
      * @return ステージオブジェクトに触れているかどうか
      */
     private boolean isCollidedItem(StageObject o) {
-        Vector2 distance = player.getPosVec().sub(o.getPosVec());
+        Vector2 distance = player.getPosVec().sub(o.getPosVec(), updatePool.obtain());
         if(distance.getY() < BACK_SIGHT + 1 && distance.getY() > BACK_SIGHT - 1) {
             return rectCollision(o, distance);
         }
@@ -704,7 +874,7 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
      * @return 衝突しているかどうか
      */
     private boolean isCollidedCar(StageObject o, double dt) {
-        Vector2 distance = player.getPosVec().sub(o.getPosVec());
+        Vector2 distance = player.getPosVec().sub(o.getPosVec(), updatePool.obtain());
         if(distance.getY() > BACK_SIGHT
             && distance.getY() - CAR_SPEED[o.getType()] * dt < BACK_SIGHT
             ) {
@@ -720,11 +890,12 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
      * 正面にいる場合 true
      * </pre>
      *
-     * @param o ステージオブジェクト
+     * @param o    ステージオブジェクト
+     * @param pool 呼び出し元の処理で使用する一時ベクトルのプール
      * @return 正面にいるかどうか
      */
-    private boolean isFront(StageObject o) {
-        Vector2 distance = player.getPosVec().sub(o.getPosVec());
+    private boolean isFront(StageObject o, VectorPool pool) {
+        Vector2 distance = player.getPosVec().sub(o.getPosVec(), pool.obtain());
         if(distance.getY() < 60 && distance.getY() > BACK_SIGHT) {
             return rectCollision(o, distance);
         }
@@ -748,25 +919,20 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
         double drawWidth = o.getImageWidth() * rate;
         double drawHeight = o.getImageHeight() * rate;
 
-        Rectangle subject = new Rectangle(
-                (int) w.getAbsPosX(player.getImageLeftX()),
-                (int) w.getAbsPosY(GROUND - player.getImageHeight() + player.getZ()),
-                (int) w.getAbsPosX(player.getImageWidth()),
-                (int) w.getAbsPosY(player.getImageHeight())
-                );
-        Rectangle object = new Rectangle(
-                (int) w.getAbsPosX(CAMERA_WIDTH/2 - distanceX - drawWidth/2),
-                (int) w.getAbsPosY(GROUND - drawHeight),
-                (int) w.getAbsPosX(drawWidth),
-                (int) w.getAbsPosY(drawHeight)
-                );
+        int sx = (int) w.getAbsPosX(player.getImageLeftX());
+        int sy = (int) w.getAbsPosY(GROUND - player.getImageHeight() + player.getZ());
+        int sw = (int) w.getAbsPosX(player.getImageWidth());
+        int sh = (int) w.getAbsPosY(player.getImageHeight());
 
-        // 自分の矩形と相手の矩形が重なっているか調べる
-        if (subject.intersects(object)) {
-            return true;
-        } else {
-            return false;
-        }
+        int ox = (int) w.getAbsPosX(CAMERA_WIDTH/2 - distanceX - drawWidth/2);
+        int oy = (int) w.getAbsPosY(GROUND - drawHeight);
+        int ow = (int) w.getAbsPosX(drawWidth);
+        int oh = (int) w.getAbsPosY(drawHeight);
+
+        // 自分の矩形と相手の矩形が重なっているか調べる(Rectangle.intersectsと同じ判定)
+        return sw > 0 && sh > 0 && ow > 0 && oh > 0
+                && ox < sx + sw && ox + ow > sx
+                && oy < sy + sh && oy + oh > sy;
     }
 
     /**
@@ -850,6 +1016,12 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
     @Override
     public void updator(double dt) {
 
+        updatePool.reset();
+
+        // 描画時の補間に使用する更新前の位置を保持する
+        player.savePosition();
+        car.savePosition();
+
         // ポーズ
         if(keyConfig.getKeys().get(KeyEvent.VK_ESCAPE).isPressed()) {
             GameController.getWindow().pushScene(GameController.getScene(SceneController.PAUSE));
@@ -877,7 +1049,7 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
         }
 
         // 車の判定
-        car.setPosVec(car.getPosVec().add(car.getDirVec().copy().scalar(dt)));
+        car.getPosVec().addScaledLocal(car.getDirVec(), dt);
         if(car.getPosVec().getY() > FIELD_HEIGHT) {
             int type = randomCar();
             car = new StageObject(new Vector2(265, -50), carImgs[type], false, type);
@@ -886,7 +1058,7 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
         }
 
         if(isCollidedCar(car, dt)) {
-            new Thread(new SoundController.PlaySE(SoundResource.SE_CRASH)).start();
+            SoundController.playSE(SoundResource.SE_CRASH);
             player.hit();
         }
 
@@ -908,7 +1080,8 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
                     if(items.size() > ITEM_SIZE) {
                         items.remove(0);
                     }
-                    new Thread(new SoundController.PlaySE(SoundResource.SE_BOUNCE)).start();
+                    SoundController.playSE(SoundResource.SE_BOUNCE);
+                    grid.remove(mushrooms[i]);
                     int type = randomMushroom();
                     mushrooms[i] = new StageObject(
                             new Vector2(r.nextInt(FIELD_WIDTH - BACK_SIGHT), r.nextInt(FIELD_HEIGHT - BACK_SIGHT)),
@@ -917,38 +1090,25 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
                             type
                             );
                     mushrooms[i].initParam();
+                    grid.add(mushrooms[i]);
                 }
             }
         } else {
             goCount = (goCount + dt) % 2;
         }
 
-        visibleObjFront = new ArrayList<StageObject>();
-        visibleObjBack = new ArrayList<StageObject>();
+        visibleObjFront.clear();
+        visibleObjBack.clear();
 
         // 視界内のオブジェクトを一括取得
-        for(StageObject o: objects) {
-            setVisibleObjs(o);
-        }
+        collectVisibleObjs();
 
+        // 車は毎フレーム移動するため空間インデックスには入れない
         setVisibleObjs(car);
 
-        for(StageObject o: mushrooms) {
-            setVisibleObjs(o);
-        }
-
         // 視界内オブジェクトのリストを距離順にソート
-        Collections.sort(visibleObjBack, new Comparator<StageObject>(){
-              public int compare(StageObject t1, StageObject t2) {
-                return (int) (t2.getDistance() - t1.getDistance());
-              }
-            });
-
-        Collections.sort(visibleObjFront, new Comparator<StageObject>(){
-              public int compare(StageObject t1, StageObject t2) {
-                return (int) (t1.getDistance() - t2.getDistance());
-              }
-            });
+        Collections.sort(visibleObjBack, FAR_TO_NEAR);
+        Collections.sort(visibleObjFront, NEAR_TO_FAR);
     }
 
     /**
@@ -957,8 +1117,8 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
     private void blowMushroom() {
         for(int i = 0; i < items.size(); i++) {
             if(isInsideCamera(items.get(i), i)) {
-                items.get(i).setPosVec(items.get(i).getPosVec().add(items.get(i).getDirVec()));
-                items.get(i).setDirVec(items.get(i).getDirVec().add(new Vector2(0, GRAVITY)));
+                items.get(i).getPosVec().addLocal(items.get(i).getDirVec());
+                items.get(i).getDirVec().addLocal(0, GRAVITY);
             }
         }
     }
@@ -993,17 +1153,17 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
         if(status == Player.NORMAL) {
             // 左右の移動
             if(keyConfig.getKeys().get(KeyEvent.VK_A).isPressed()) {
-                player.move(new Vector2(-1, 0), dt);
+                player.move(LEFT, dt);
             } else if(keyConfig.getKeys().get(KeyEvent.VK_D).isPressed()) {
-                player.move(new Vector2(1, 0), dt);
+                player.move(RIGHT, dt);
             }
 
             // 奥行きの移動
             if(mode != TUTORIAL) {
                 if(keyConfig.getKeys().get(KeyEvent.VK_W).isPressed()) {
-                    player.move(new Vector2(0, -1), dt);
+                    player.move(UP, dt);
                 } else if(keyConfig.getKeys().get(KeyEvent.VK_S).isPressed()) {
-                    player.move(new Vector2(0, 1), dt);
+                    player.move(DOWN, dt);
                 }
             }
 
@@ -1011,7 +1171,7 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
             if(keyConfig.getKeys().get(KeyEvent.VK_SPACE).isPressed() && !(player.getZ() > 0)) {
                 if(player.getZ() == 0) {
                     player.jump();
-                    new Thread(new SoundController.PlaySE(SoundResource.SE_JUMP)).start();
+                    SoundController.playSE(SoundResource.SE_JUMP);
                 }
             }
 
@@ -1022,15 +1182,15 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
 
             // キノコの売却
             if(keyConfig.getKeys().get(KeyEvent.VK_ENTER).isPressed()
-                    && isFront(house)
+                    && isFront(house, updatePool)
                     && !items.isEmpty()
                     ) {
                 sellItem(items.get(0));
                 items.remove(0);
-                new Thread(new SoundController.PlaySE(SoundResource.SE_CLOCK)).start();
+                SoundController.playSE(SoundResource.SE_CLOCK);
             }
 
-            if(mode == TUTORIAL && isFront(house)) {
+            if(mode == TUTORIAL && isFront(house, updatePool)) {
                 // TODO 吹き出しを出すシーンを重ねて、奥行きモードへ
                 mode = NORMAL;
                 GameController.getWindow().pushScene(new Tutorial());
@@ -1043,10 +1203,7 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
         } else if(status == Player.HIT) {
             blowMushroom();
             if(player.getZ() == 0) {
-                Vector2 deadPos = player.getPosVec().copy().sub(new Vector2(0, BACK_SIGHT));
-                StageObject o = new StageObject(deadPos, player.getFrameHolder().get(ImageResource.DUCK_RIGHT).get(0), false, 0);
-                o.initParam();
-                objects.add(o);
+                addCorpse(player.getPosVec().copy().sub(new Vector2(0, BACK_SIGHT)));
                 player.die();
             }
         // 幽霊状態の時
@@ -1131,8 +1288,10 @@ public class ActionStage extends BaseSystemOperator implements GameScene {
         house.initParam();
 
         items = new ArrayList<StageObject>();
-        visibleObjBack = new ArrayList<StageObject>();
-        visibleObjFront = new ArrayList<StageObject>();
+        visibleObjBack.clear();
+        visibleObjFront.clear();
+
+        rebuildGrid();
 
         keyConfig.releaseAll();
     }
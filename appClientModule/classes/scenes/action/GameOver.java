@@ -146,12 +146,12 @@ public class GameOver extends BaseSystemOperator implements GameScene {
         // キーイベントの処理
         if (keys.get(KeyEvent.VK_UP).isPressed() || keys.get(KeyEvent.VK_LEFT).isPressed()) {
             previousIndex();
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
         } else if (keys.get(KeyEvent.VK_DOWN).isPressed() || keys.get(KeyEvent.VK_RIGHT).isPressed()) {
             nextIndex();
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
         } else if (keys.get(KeyEvent.VK_ENTER).isPressed()) {
-            new Thread(new SoundController.PlaySE(SoundResource.SE_AH)).start();
+            SoundController.playSE(SoundResource.SE_AH);
             w.popScene();
             switch(index) {
             // 「もういっかい」選択時
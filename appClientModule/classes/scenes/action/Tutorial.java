@@ -18,13 +18,14 @@ import classes.ui.StringSelectOption;
 import classes.utils.GeneralUtil;
 
 import interfaces.GameScene;
+import interfaces.ModalScene;
 
 /**
  * アクションステージの初期フローにおいて、買取屋のセリフウィンドウを定義するクラス
  *
  * @author Naoki Yoshikawa
  */
-public class Tutorial extends BaseSystemOperator implements GameScene {
+public class Tutorial extends BaseSystemOperator implements GameScene, ModalScene {
 
     // スクリプトを管理するオブジェクト
     private ScriptController script;
@@ -23,6 +23,9 @@ public class BaseSprite {
     protected int transparencyRight;
     protected int transparencyLeft;
 
+    // 透明部分の距離を算出済みの画像
+    private BufferedImage boundsImage;
+
     // キャラクターサイズ倍率
     protected double widthRatio;
     protected double heightRatio;
@@ -35,6 +38,9 @@ public class BaseSprite {
     protected Vector2 pos;
     protected Vector2 dir;
 
+    // 直前の更新開始時の位置ベクトル(描画時の補間に使用する、補間しない場合はnull)
+    protected Vector2 prevPos;
+
     // スプライトの画像
     protected BufferedImage image;
 
@@ -97,6 +103,51 @@ public class BaseSprite {
      */
     public void setPosVec(Vector2 pos) {
         this.pos = pos;
+        discardPrevious();
+    }
+
+    /**
+     * <pre>
+     * 更新前の位置を保持する
+     * 描画時に更新前後の位置を補間するため、毎ティックの更新の開始時に呼び出す
+     * </pre>
+     */
+    public void savePosition() {
+        if(prevPos == null) {
+            prevPos = pos.copy();
+        } else {
+            prevPos.set(pos);
+        }
+    }
+
+    /**
+     * <pre>
+     * 保持していた更新前の位置を破棄する
+     * 位置を初期化した直後など、補間すると移動前の位置が描画されてしまう場合に呼び出す
+     * </pre>
+     */
+    public void discardPrevious() {
+        prevPos = null;
+    }
+
+    /**
+     * <pre>
+     * 更新前後の位置を補間した描画用の位置ベクトルを返す
+     * 更新前の位置を保持していない場合は現在の位置とする
+     * </pre>
+     *
+     * @param alpha 補間係数(0.0: 更新前 ~ 1.0: 更新後)
+     * @param out   結果を格納するベクトル
+     * @return 結果を格納したベクトル
+     */
+    public Vector2 getDrawPos(double alpha, Vector2 out) {
+        if(prevPos == null) {
+            return out.set(pos);
+        }
+        return out.set(
+                prevPos.getX() + (pos.getX() - prevPos.getX()) * alpha,
+                prevPos.getY() + (pos.getY() - prevPos.getY()) * alpha
+                );
     }
 
     /**
@@ -277,7 +328,7 @@ public class BaseSprite {
         * @return 描画スプライト画像の実体の高さ
         */
     public int getActualHeight() {
-        GeneralUtil.getAlphaPixel(this);
+        updateAlphaPixel();
         return (int)((image.getHeight() - transparencyTop - transparencyBottom) * heightRatio);
     }
 
@@ -287,10 +338,20 @@ public class BaseSprite {
         * @return 描画スプライト画像の実体の幅
         */
     public int getActualWidth() {
-        GeneralUtil.getAlphaPixel(this);
+        updateAlphaPixel();
         return (int)((image.getWidth() - transparencyRight - transparencyLeft) * widthRatio);
     }
 
+    /**
+        * 画像が切り替わっていた場合のみ、透明ピクセルを除いた実体までの距離を再設定する
+        */
+    private void updateAlphaPixel() {
+        if(boundsImage != image) {
+            GeneralUtil.getAlphaPixel(this);
+            boundsImage = image;
+        }
+    }
+
     /**
         * スプライトの透明部分を除いた実体の上端のY座標を返す
         *
@@ -31,6 +31,9 @@ public class Player extends BaseSprite implements Animation {
     private double z;
     private double vz;
 
+    // 直前の更新開始時のZ成分(描画時の補間に使用する)
+    private double prevZ;
+
 
 
     // プレイヤーの2Dビュー上での角度
@@ -94,12 +97,43 @@ public class Player extends BaseSprite implements Animation {
         switchLabel(ImageResource.RUN_RIGHT);
         setImageLeftX(init.x);
         setImageTopY(init.y);
-        super.pos = init.pos;
+        super.pos = init.pos.copy();
         super.dir = new Vector2(0, 0);
         angle = 0;
         degree = 0;
         status = NORMAL;
          z = 0;
+        discardPrevious();
+    }
+
+    /**
+     * 更新前の位置と高さを保持する
+     * @see classes.scenes.action.assets.BaseSprite#savePosition()
+     */
+    @Override
+    public void savePosition() {
+        super.savePosition();
+        prevZ = z;
+    }
+
+    /**
+     * 保持していた更新前の位置と高さを破棄する
+     * @see classes.scenes.action.assets.BaseSprite#discardPrevious()
+     */
+    @Override
+    public void discardPrevious() {
+        super.discardPrevious();
+        prevZ = z;
+    }
+
+    /**
+     * 更新前後の高さを補間した描画用のZ成分を返す
+     *
+     * @param alpha 補間係数(0.0: 更新前 ~ 1.0: 更新後)
+     * @return 描画用の高さの座標
+     */
+    public double getDrawZ(double alpha) {
+        return prevZ + (z - prevZ) * alpha;
     }
 
 
@@ -213,7 +247,7 @@ public class Player extends BaseSprite implements Animation {
      */
     public void move(Vector2 dir, double dt) {
         double theta = Math.atan2(dir.getY(), dir.getX());
-        super.dir = super.dir.add(new Vector2(Math.cos(theta), Math.sin(theta)).scalar(dt * SPEED));
+        super.dir.addLocal(Math.cos(theta) * dt * SPEED, Math.sin(theta) * dt * SPEED);
     }
 
     /**
@@ -227,15 +261,15 @@ public class Player extends BaseSprite implements Animation {
             direction = 1;
         }
         if(status == HIT) {
-            super.pos = super.pos.add(new Vector2(dt * direction * SPEED * 4, 0));
+            super.pos.addLocal(dt * direction * SPEED * 4, 0);
             degree = (degree + Math.PI/6) % (2 * Math.PI);
             animate(dt);
         } else if(status == SPOOK) {
-            super.pos = super.pos.add(new Vector2(dt * direction, 0));
+            super.pos.addLocal(dt * direction, 0);
         } else if(super.dir.mag() == 0) {
             subIndex = 0;
         } else {
-            super.pos = super.pos.add(super.dir);
+            super.pos.addLocal(super.dir);
             stop();
             animate(dt);
         }
@@ -257,7 +291,7 @@ public class Player extends BaseSprite implements Animation {
      * 移動成分を0にする
      */
     public void stop() {
-        super.dir = new Vector2(0.0, 0.0);
+        super.dir.set(0.0, 0.0);
     }
 
     /**
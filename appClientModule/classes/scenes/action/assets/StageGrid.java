@@ -0,0 +1,159 @@
+package classes.scenes.action.assets;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <pre>
+ * 2Dビュー上のステージオブジェクトを格子状のセルに振り分ける空間インデックス
+ * フィールドの外側にあるオブジェクトは最寄りの端のセルに格納する
+ * 端のセルはフィールドの外側まで無限に広がっているものとして扱う
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class StageGrid {
+
+    // セル1辺の長さ
+    private double cellSize;
+
+    // セルの列数、行数
+    private int cols;
+    private int rows;
+
+    // セルごとのステージオブジェクトのリスト(行優先)
+    private List<List<StageObject>> cells;
+
+    /**
+     * フィールドの大きさとセルの大きさからセルを確保する
+     *
+     * @param width    フィールドの幅
+     * @param height   フィールドの高さ
+     * @param cellSize セル1辺の長さ
+     */
+    public StageGrid(double width, double height, double cellSize) {
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cells = new ArrayList<List<StageObject>>(cols * rows);
+        for(int i = 0; i < cols * rows; i++) {
+            cells.add(new ArrayList<StageObject>());
+        }
+    }
+
+    /**
+     * ステージオブジェクトを現在の位置のセルに登録する
+     *
+     * @param o ステージオブジェクト
+     */
+    public void add(StageObject o) {
+        getCell(o).add(o);
+    }
+
+    /**
+     * <pre>
+     * ステージオブジェクトを登録時の位置のセルから削除する
+     * 登録後に位置を変更したオブジェクトには使用できない
+     * </pre>
+     *
+     * @param o ステージオブジェクト
+     */
+    public void remove(StageObject o) {
+        getCell(o).remove(o);
+    }
+
+    /**
+     * 全てのセルを空にする
+     */
+    public void clear() {
+        for(List<StageObject> cell: cells) {
+            cell.clear();
+        }
+    }
+
+    /**
+     * セルの行数を返す
+     *
+     * @return セルの行数
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * <pre>
+     * 指定行の上辺のY座標を返す
+     * 先頭行はフィールドの外側まで広がっているため負の無限大を返す
+     * </pre>
+     *
+     * @param row 行
+     *
+     * @return 行の上辺のY座標
+     */
+    public double getRowTop(int row) {
+        return row == 0 ? Double.NEGATIVE_INFINITY : row * cellSize;
+    }
+
+    /**
+     * <pre>
+     * 指定行の下辺のY座標を返す
+     * 末尾行はフィールドの外側まで広がっているため正の無限大を返す
+     * </pre>
+     *
+     * @param row 行
+     *
+     * @return 行の下辺のY座標
+     */
+    public double getRowBottom(int row) {
+        return row == rows - 1 ? Double.POSITIVE_INFINITY : (row + 1) * cellSize;
+    }
+
+    /**
+     * 指定行のうち、X座標の範囲に掛かるセルのステージオブジェクトを出力先のリストに追加する
+     *
+     * @param row  行
+     * @param minX X座標の下限
+     * @param maxX X座標の上限
+     * @param out  出力先のリスト
+     */
+    public void collectRow(int row, double minX, double maxX, List<StageObject> out) {
+        int first = toCol(minX);
+        int last = toCol(maxX);
+        for(int col = first; col <= last; col++) {
+            out.addAll(cells.get(row * cols + col));
+        }
+    }
+
+    /**
+     * ステージオブジェクトの現在の位置に対応するセルを返す
+     *
+     * @param o ステージオブジェクト
+     *
+     * @return セルのリスト
+     */
+    private List<StageObject> getCell(StageObject o) {
+        return cells.get(toRow(o.getPosVec().getY()) * cols + toCol(o.getPosVec().getX()));
+    }
+
+    /**
+     * X座標を列に変換する
+     *
+     * @param x X座標
+     *
+     * @return 列
+     */
+    private int toCol(double x) {
+        return (int) Math.max(0, Math.min(cols - 1, Math.floor(x / cellSize)));
+    }
+
+    /**
+     * Y座標を行に変換する
+     *
+     * @param y Y座標
+     *
+     * @return 行
+     */
+    private int toRow(double y) {
+        return (int) Math.max(0, Math.min(rows - 1, Math.floor(y / cellSize)));
+    }
+}
@@ -58,6 +58,7 @@ public class StageObject extends BaseSprite {
         super.pos = init.pos.copy();
         super.dir = new Vector2(0, 0);
         this.distance = 0;
+        discardPrevious();
     }
 
     /**
@@ -84,7 +84,7 @@ public class Turntable2 extends BaseSystemOperator implements GameScene {
       */
     private void bounce() {
          bound = bound/1.5;
-         new Thread(new SoundController.PlaySE(SoundResource.SE_REEL)).start();
+         SoundController.playSE(SoundResource.SE_REEL);
      }
 
     /*
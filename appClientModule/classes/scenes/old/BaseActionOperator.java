@@ -11,6 +11,7 @@ import java.util.List;
 import javax.swing.JLayeredPane;
 
 import classes.containers.Background;
+import classes.containers.SpatialHash;
 import classes.controllers.GameController;
 import classes.controllers.KeyController;
 import classes.controllers.MapController;
@@ -20,6 +21,7 @@ import classes.scenes.old.assets.Player;
 import classes.scenes.old.assets.StaticObject;
 import classes.scenes.old.logics.DrawLogic;
 import interfaces.Calculation;
+import interfaces.DisposableScene;
 
 
 /**
@@ -28,7 +30,7 @@ import interfaces.Calculation;
  * @author Naoki Yoshikawa
  **/
 @SuppressWarnings("serial")
-public class BaseActionOperator extends JLayeredPane implements Calculation, KeyListener {
+public class BaseActionOperator extends JLayeredPane implements Calculation, DisposableScene, KeyListener {
 
     // ステージ固有の定数
     private static double GRAVITY = 0.6; // 重力
@@ -50,6 +52,9 @@ public class BaseActionOperator extends JLayeredPane implements Calculation, Key
     protected LinkedList<StaticObject> frontObjectList;
     protected LinkedList<StaticObject> backObjectList;
 
+    // スプライトの衝突判定の候補を絞り込む空間ハッシュ
+    protected SpatialHash spriteGrid;
+
     protected boolean helpOn;
     protected List<StringSelectOption> keyHelpList;
 
@@ -64,6 +69,7 @@ public class BaseActionOperator extends JLayeredPane implements Calculation, Key
         baseSpriteList = new LinkedList<BaseSprite>();
         frontObjectList = new LinkedList<StaticObject>();
         backObjectList = new LinkedList<StaticObject>();
+        spriteGrid = new SpatialHash();
         background = new LinkedList<Background>();
         this.helpOn = true;
         this.keyHelpList = new ArrayList<StringSelectOption>();
@@ -106,6 +112,17 @@ public class BaseActionOperator extends JLayeredPane implements Calculation, Key
         return map;
     }
 
+    /**
+     * ステージを破棄する際に、地形情報のマップファイルを閉じる
+     * @see interfaces.DisposableScene#dispose()
+     */
+    @Override
+    public void dispose() {
+        if(map != null) {
+            map.close();
+        }
+    }
+
     /**
      * スプライトオブジェクトのリストを返す
      *
@@ -115,6 +132,15 @@ public class BaseActionOperator extends JLayeredPane implements Calculation, Key
         return baseSpriteList;
     }
 
+    /**
+     * スプライトの衝突判定の候補を絞り込む空間ハッシュを返す
+     *
+     * @return 空間ハッシュ
+     */
+    public SpatialHash getSpriteGrid() {
+        return spriteGrid;
+    }
+
     /**
      * 最前面に描画するステージオブジェクトのリストを返す
      *
@@ -184,10 +210,8 @@ public class BaseActionOperator extends JLayeredPane implements Calculation, Key
      * @see java.awt.event.KeyListener
      */
     public void keyPressed(KeyEvent e) {
-        int key = e.getKeyCode();
-        if (keyConfig.getKeys().containsKey(key)) {
-            keyConfig.getKeys().get(key).press();
-        }
+        // キーの状態はゲームループのスレッドで更新する
+        keyConfig.offer(e);
     }
 
     /**
@@ -195,10 +219,8 @@ public class BaseActionOperator extends JLayeredPane implements Calculation, Key
      * @see java.awt.event.KeyListener
      */
     public void keyReleased(KeyEvent e) {
-        int key = e.getKeyCode();
-        if (keyConfig.getKeys().containsKey(key)) {
-            keyConfig.getKeys().get(key).release();
-        }
+        // キーの状態はゲームループのスレッドで更新する
+        keyConfig.offer(e);
     }
 
     /**
@@ -104,7 +104,7 @@ public class Goal extends BaseActionOperator implements GameScene {
     public void updator(double dt) {
         if(x <= GameController.getWindow().getWindowWidth() / 2) {
             if(x == GameController.getWindow().getWindowWidth() / 2) {
-                new Thread(new SoundController.PlaySE(SoundResource.SE_CLOCK)).start();
+                SoundController.playSE(SoundResource.SE_CLOCK);
             }
             x++;
         }
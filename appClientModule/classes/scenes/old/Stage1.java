@@ -31,7 +31,7 @@ public class Stage1 extends BaseActionOperator implements GameScene {
     public static final double GRAVITY = 1.2;
 
     // 地形データのファイルパス
-    private static final String MAPDATA = "map03.dat";
+    private static final String MAPDATA = "map03.map";
 
     /**
      * マップの読み込み、スプライトの設定
@@ -80,7 +80,7 @@ public class Stage2 extends BaseActionOperator implements GameScene, Receiver {
     public Stage2() {
 
         // マップを作成
-        map = new MapController("map02.dat");
+        map = new MapController("map02.map");
 
         // 背景画像のレイヤーを設定
         //background.add(new Background(GeneralUtil.readImage(ImageResource.LayeredBackground.BASE2.getValue()), 10, 1));
@@ -347,11 +347,11 @@ public class Stage2 extends BaseActionOperator implements GameScene, Receiver {
     private void playDrum(int time) {
         TimerTask task = new TimerTask() {
             public void run() {
-                new Thread(new SoundController.PlaySE(SoundResource.SE_SNARE)).start();
+                SoundController.playSE(SoundResource.SE_SNARE);
             }
         };
 
-        new Thread(new SoundController.PlaySE(SoundResource.SE_BASSDRUM)).start();
+        SoundController.playSE(SoundResource.SE_BASSDRUM);
 
         Timer timer = new Timer();
         timer.schedule(task, time);
@@ -394,6 +394,15 @@ public class Stage2 extends BaseActionOperator implements GameScene, Receiver {
      * @param dt     デルタタイム
      */
     public void updator(double dt) {
+        // MIDIの受信スレッドから受け渡されたノートを、現在のコード進行で移調して反映する
+        midiController.poll((note, on, when) -> {
+            Midi midi = midiConfig.get((note + getConvertedChord()[progIndex] + key) % 12);
+            if(on) {
+                midi.press();
+            } else {
+                midi.release();
+            }
+        });
         UpdateLogic.basicLogic(this, dt);
     }
 
@@ -469,17 +478,10 @@ public class Stage2 extends BaseActionOperator implements GameScene, Receiver {
     public void send(MidiMessage msg, long timeStamp) {
 
         byte[] aMsg = msg.getMessage();
-        int chord = getConvertedChord()[progIndex];//chordProg[progIndex];
-
-        int index = ((int)aMsg[1] + chord + key) % 12;
-
-        Midi midi =  midiConfig.get(index);
         System.out.println((int)aMsg[1] % 12);
-        if(aMsg[2] > 0) {
-            midi.press();
-        } else {
-            midi.release();
-        }
+
+        // ノートの状態はゲームループのスレッドで更新する
+        midiController.offer(aMsg[1], aMsg[2] > 0, timeStamp);
     }
 
     @Override
@@ -42,7 +42,7 @@ public class Ball extends BaseSprite {
         // 当たり判定の無効時間を追加するまでは効果音も保留
         this.vx = vx;
         this.vy = vy;
-        new Thread(new SoundController.PlaySE(SoundResource.SE_BOUNCE)).start();
+        SoundController.playSE(SoundResource.SE_BOUNCE);
     }
 
     /**
@@ -50,7 +50,7 @@ public class Ball extends BaseSprite {
      */
     public void bounceX() {
         // 当たり判定の無効時間を追加するまでは効果音も保留
-        new Thread(new SoundController.PlaySE(SoundResource.SE_BOUNCE)).start();
+        SoundController.playSE(SoundResource.SE_BOUNCE);
         this.vx = -this.vx / 2;
     }
 
@@ -59,7 +59,7 @@ public class Ball extends BaseSprite {
      */
     public void bounceY() {
         if(!onGround) {
-            new Thread(new SoundController.PlaySE(SoundResource.SE_BOUNCE)).start();
+            SoundController.playSE(SoundResource.SE_BOUNCE);
         }
         this.vy = -this.vy / 2;
     }
@@ -1,6 +1,5 @@
 package classes.scenes.old.assets;
 
-import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 
 import classes.utils.GeneralUtil;
@@ -22,6 +21,9 @@ public class BaseSprite {
     protected int transparencyRight;
     protected int transparencyLeft;
 
+    // 透明部分の距離を算出済みの画像
+    private BufferedImage boundsImage;
+
     // キャラクターサイズ倍率
     protected double widthRatio;
     protected double heightRatio;
@@ -30,6 +32,10 @@ public class BaseSprite {
     protected double x;
     protected double y;
 
+    // 直前の地形との衝突判定による移動前の座標(x, yと同じ基準)
+    protected double previousX;
+    protected double previousY;
+
     // スプライトの画像
     protected BufferedImage image;
 
@@ -66,6 +72,8 @@ public class BaseSprite {
     protected BaseSprite(double x, double y, BufferedImage image) {
         this.x = x;
         this.y = y;
+        this.previousX = x;
+        this.previousY = y;
         this.image = image;
         this.vx = 0.0;
         this.vy = 0.0;
@@ -78,6 +86,35 @@ public class BaseSprite {
 
     /* getter, setter */
 
+    /**
+     * <pre>
+     * 現在の位置を移動前の位置として保持する
+     * 地形との衝突判定で移動させる直前に呼び出す
+     * </pre>
+     */
+    public void savePosition() {
+        previousX = x;
+        previousY = y;
+    }
+
+    /**
+     * 直前の移動前のスプライト画像の矩形左端のX座標を返す
+     *
+     * @return 移動前の矩形左端のX座標
+     */
+    public double getPreviousImageLeftX() {
+        return previousX;
+    }
+
+    /**
+     * 直前の移動前のスプライト画像の矩形下端のY座標を返す
+     *
+     * @return 移動前の矩形下端のY座標
+     */
+    public double getPreviousImageBaseY() {
+        return previousY;
+    }
+
     /**
      * スプライトの画像データをBufferedImageオブジェクトで返す
      *
@@ -238,7 +275,7 @@ public class BaseSprite {
         * @return 描画スプライト画像の実体の高さ
         */
     public int getActualHeight() {
-        GeneralUtil.getAlphaPixel(this);
+        updateAlphaPixel();
         return (int)((image.getHeight() - transparencyTop - transparencyBottom) * heightRatio);
     }
 
@@ -248,10 +285,20 @@ public class BaseSprite {
         * @return 描画スプライト画像の実体の幅
         */
     public int getActualWidth() {
-        GeneralUtil.getAlphaPixel(this);
+        updateAlphaPixel();
         return (int)((image.getWidth() - transparencyRight - transparencyLeft) * widthRatio);
     }
 
+    /**
+        * 画像が切り替わっていた場合のみ、透明ピクセルを除いた実体までの距離を再設定する
+        */
+    private void updateAlphaPixel() {
+        if(boundsImage != image) {
+            GeneralUtil.getAlphaPixel(this);
+            boundsImage = image;
+        }
+    }
+
     /**
         * スプライトの透明部分を除いた実体の上端のY座標を返す
         *
@@ -536,28 +583,31 @@ public class BaseSprite {
     }
 
     /**
+        * <pre>
         * 自身と引数のスプライトが衝突しているかを判定する
+        * 毎フレーム多数回呼ばれるため、Rectangleを生成せずに整数座標で比較する
+        * </pre>
         *
         * @param sprite 衝突判定対象のスプライトオブジェクト
         * @return 衝突判定結果 [true: 衝突している]
         */
     public boolean isCollision(BaseSprite sprite) {
-        Rectangle subject = new Rectangle(
-                (int)getEntityLeftX(),
-                (int)getEntityTopY(),
-                getActualWidth(),
-                getActualHeight()
-                );
-        Rectangle object = new Rectangle(
-                (int)sprite.getEntityLeftX(),
-                (int)sprite.getEntityTopY(),
-                sprite.getActualWidth(),
-                sprite.getActualHeight()
-                );
-        // 自分の矩形と相手の矩形が重なっているか調べる
-        if (subject.intersects(object)) {
-            return true;
+        int width = getActualWidth();
+        int height = getActualHeight();
+        int otherWidth = sprite.getActualWidth();
+        int otherHeight = sprite.getActualHeight();
+        if (width <= 0 || height <= 0 || otherWidth <= 0 || otherHeight <= 0) {
+            return false;
         }
-        return false;
+        int left = (int)getEntityLeftX();
+        int top = (int)getEntityTopY();
+        int otherLeft = (int)sprite.getEntityLeftX();
+        int otherTop = (int)sprite.getEntityTopY();
+
+        // 自分の矩形と相手の矩形が重なっているか調べる
+        return left < otherLeft + otherWidth
+                && otherLeft < left + width
+                && top < otherTop + otherHeight
+                && otherTop < top + height;
     }
 }
@@ -30,7 +30,7 @@ public class Car extends BaseSprite {
      * @param pixelList 着色するピクセルのリスト
      */
     public Car(int x, int y, int width, int height, String path, List<Point> pixelList) {
-        super(x, y, GeneralUtil.changeRandomColor(GeneralUtil.readImage(path), pixelList));
+        super(x, y, GeneralUtil.changeRandomColor(GeneralUtil.copyImage(GeneralUtil.readImage(path)), pixelList));
         random = new Random();
         widthRatio = 4;
         heightRatio = 4;
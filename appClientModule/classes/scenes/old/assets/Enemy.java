@@ -137,7 +137,7 @@ public class Enemy extends BaseSprite implements Animation {
         * @param vy 踏まれたリアクション時のY方向の速度
         */
     private void blown(double vx, double vy) {
-        new Thread(new SoundController.PlaySE(SoundResource.SE_AH)).start();
+        SoundController.playSE(SoundResource.SE_AH);
         this.vy = vy;
         blownX = vx;
     }
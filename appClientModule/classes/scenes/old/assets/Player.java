@@ -308,7 +308,7 @@ public class Player extends BaseSprite implements Animation {
             // 上方向に速度を加える
             vy = -jumpSpeed;
             onGround = false;
-            new Thread(new SoundController.PlaySE(SoundResource.SE_JUMP)).start();
+            SoundController.playSE(SoundResource.SE_JUMP);
             // ジャンプ中の回転のために角度を初期化する
             degree = 0;
 
@@ -317,7 +317,7 @@ public class Player extends BaseSprite implements Animation {
             // 上方向に速度を加える
             vy = -jumpSpeed;
             canJumpTwice = false;
-            new Thread(new SoundController.PlaySE(SoundResource.SE_JUMP)).start();
+            SoundController.playSE(SoundResource.SE_JUMP);
             // ジャンプ中の回転のために角度を初期化する
             degree = 0;
         }
@@ -379,7 +379,7 @@ public class Player extends BaseSprite implements Animation {
         * @param spriteList 発射するブロックのオブジェクトをセットするスプライトのリスト
         */
     public void createNewBlock(List<BaseSprite> spriteList) {
-        new Thread(new SoundController.PlaySE(SoundResource.SE_AH)).start();
+        SoundController.playSE(SoundResource.SE_AH);
         spriteList.add(
             new VoiceIcon(
                 x, getImageBaseY(),
@@ -396,7 +396,7 @@ public class Player extends BaseSprite implements Animation {
         * @param vy 衝突時に吹き飛ばされる際のY方向の速度
         */
     public void die(double vx, double vy) {
-        new Thread(new SoundController.PlaySE(SoundResource.SE_CRASH)).start();
+        SoundController.playSE(SoundResource.SE_CRASH);
 
         // 衝突時の方向によって死亡時の画像の向きを決定する
         if(directionX == BaseSprite.LEFT) {
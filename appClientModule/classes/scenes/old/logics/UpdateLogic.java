@@ -4,6 +4,7 @@ import java.awt.event.KeyEvent;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import classes.constants.ImageResource;
 import classes.controllers.GameController;
@@ -123,6 +124,8 @@ public class UpdateLogic {
 
                 if(keys.get(KeyEvent.VK_SPACE).isPressed()) {
                     player.createNewBlock(target.getSpriteList());
+                    // 生成した音声弾は同じティックの判定から空間ハッシュに登録する
+                    target.getSpriteGrid().insert(target.getSpriteList().getLast());
                 }
 
                 if(!player.getOnGround()) {
@@ -155,6 +158,10 @@ public class UpdateLogic {
         Player player = target.getPlayer();
         MapController map = target.getMap();
 
+        // 空間ハッシュでプレイヤーとの衝突の候補を絞り込む
+        // ループ中に音声弾の上へ押し出されても漏れないよう、押し出し量の上限として高さの2倍広げる
+        Set<BaseSprite> candidates = UpdateUtil.getPlayerCandidates(target, player.getActualHeight() * 2);
+
         // プレイヤー以外のスプライトの演算
         while (iterator.hasNext()) {
             BaseSprite sprite = (BaseSprite)iterator.next();
@@ -167,7 +174,7 @@ public class UpdateLogic {
                 if(enemy.isAlive()) {
 
                     // プレイヤーと敵の衝突判定を行う
-                    if (player.isCollision(enemy)) {
+                    if (candidates.contains(enemy) && player.isCollision(enemy)) {
                         double playerEnergy = GeneralUtil.calculateCrashPower(player, enemy);
                         double enemyEnergy = GeneralUtil.calculateCrashPower(enemy, player);
 
@@ -219,7 +226,9 @@ public class UpdateLogic {
                 }
 
                 // プレイヤーが音声弾に乗っているかの判定
-                GeneralUtil.rewritePoint(player, sprite);
+                if(candidates.contains(voice)) {
+                    GeneralUtil.rewritePoint(player, sprite);
+                }
 
                 // 音声弾の状態を更新
                 UpdateUtil.updateVoiceIcon(voice);
@@ -239,7 +248,7 @@ public class UpdateLogic {
 
                 // プレイヤーがボールに衝突すると、動力を得る
                 } else {
-                    if (player.isCollision(ball)) {
+                    if (candidates.contains(ball) && player.isCollision(ball)) {
                         double ballEnergy = GeneralUtil.calculateCrashPower(ball, player);
                         ball.blown(ballEnergy, -10 + player.getVY());
                         ball.collided();
@@ -258,6 +267,9 @@ public class UpdateLogic {
                 UpdateUtil.updateBaseSprite(ball, target);
             }
         }
+
+        // 移動後の位置で空間ハッシュを作り直す
+        UpdateUtil.rebuildSpriteGrid(target);
     }
 
     /**
@@ -292,9 +304,13 @@ public class UpdateLogic {
                     ){
 
                 // Todo: 試験的に衝突方向による演算の分岐を実装
-                if(target.getPlayer().isCollision(object)) {
+                // プレイヤーの頭打ち処理
+                // 移動前の位置から掃引するため、1フレームでブロックを通り抜けた場合も衝突とする
+                // 接触時に縦方向の速度を0にするため、上昇中だったかは先に調べておく
+                boolean rising = target.getPlayer().getVY() < 0;
+                if(GeneralUtil.getBlock(target.getPlayer(), object)) {
 
-                    if(target.getPlayer().getVY() < 0 && !object.isInMotion()){
+                    if(rising && !object.isInMotion()){
                         object.strucken();
                         if(object.getObjectType().equals(ImageResource.StageObject.BLOCK_C.toString()) ){
                             //CONTROLLER_Sound.loopClipPeriod(CONSTANT_Sound.SE_C);
@@ -316,9 +332,6 @@ public class UpdateLogic {
                             //CONTROLLER_Sound.loopClipPeriod(CONSTANT_Sound.SE_BEAT);
                         }
                     }
-                    // プレイヤーの頭打ち処理
-                    // とりあえず動き優先で作ったのであとで最適化する
-                    GeneralUtil.getBlock(target.getPlayer(), object);
                 }
 
                 // プレーヤーが活性化したブロックは膨らむアニメーションに入る
@@ -383,6 +396,9 @@ public class UpdateLogic {
                 UpdateUtil.updateBaseSprite(ball, target);
             }
         }
+
+        // 移動後の位置で空間ハッシュを作り直す
+        UpdateUtil.rebuildSpriteGrid(target);
     }
 
     /**
@@ -2,10 +2,13 @@ package classes.scenes.old.utils;
 
 import java.awt.Graphics;
 import java.awt.image.BufferedImage;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import classes.containers.Background;
+import classes.containers.TileChunkCache;
 import classes.controllers.GameController;
 import classes.controllers.MapController;
 import classes.scenes.old.assets.*;
@@ -20,6 +23,10 @@ import interfaces.Calculation;
  */
 public class DrawUtil {
 
+    // 地形の管理オブジェクトごとの、チャンク単位で描画済みの地形の画像
+    private static final Map<MapController, TileChunkCache> tileCaches =
+            Collections.synchronizedMap(new WeakHashMap<MapController, TileChunkCache>());
+
     /* アクションステージ */
 
     /**
@@ -346,32 +353,20 @@ public class DrawUtil {
         * @param g       グラフィックスオブジェクト
         */
     public static void drawMap(MapController map, int offsetX, int offsetY, Graphics g) {
-        // オフセットを元に描画範囲を求める
-        int firstTileX = GeneralUtil.pixelsToTiles(-offsetX);
-        int lastTileX = firstTileX + GeneralUtil.pixelsToTiles(GameController.getWindow().getWindowWidth()) + 1;
-        // 描画範囲がマップの大きさより大きくならないように調整
-        lastTileX = Math.min(lastTileX, map.getColumn());
-
-        int firstTileY = 0;
-        int lastTileY = 14 + MapController.TILE_SIZE;
-        // 描画範囲がマップの大きさより大きくならないように調整
-        lastTileY = Math.min(lastTileY, map.getRow());
-        char[][] mapData = map.getMapData();
-        Map<Character, BufferedImage> assetMap = map.getAssetMap();
-
-        for (int i = firstTileY; i < lastTileY; i++) {
-            for (int j = firstTileX; j < lastTileX; j++) {
-                // mapの値に応じて画像を描く
-                if (assetMap.containsKey(mapData[i][j])) {
-                    g.drawImage(
-                        assetMap.get(mapData[i][j]),
-                        GeneralUtil.tilesToPixels(j) + offsetX,
-                        GeneralUtil.tilesToPixels(i) + offsetY,
-                        null
-                    );
-                }
-            }
+        // 地形はチャンク単位で描画済みの画像を転送する
+        TileChunkCache cache = tileCaches.get(map);
+        if(cache == null) {
+            cache = new TileChunkCache(map.getAssetMap());
+            tileCaches.put(map, cache);
         }
+        cache.draw(
+                map,
+                offsetX,
+                offsetY,
+                (int) GameController.getWindow().getWindowWidth(),
+                (int) GameController.getWindow().getWindowHeight(),
+                g
+                );
     }
 
     /**
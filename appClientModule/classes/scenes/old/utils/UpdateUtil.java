@@ -1,5 +1,9 @@
 package classes.scenes.old.utils;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
 import classes.controllers.GameController;
 import classes.controllers.MapController;
 import classes.scenes.old.assets.BaseSprite;
@@ -18,6 +22,10 @@ import interfaces.Calculation;
  */
 public class UpdateUtil {
 
+    // プレイヤーとの衝突の候補(ゲームループのスレッドからのみ使用する)
+    private static final Set<BaseSprite> candidates =
+            Collections.newSetFromMap(new IdentityHashMap<BaseSprite, Boolean>());
+
     /**
      * アクションステージにおいて音声弾を更新する
      *
@@ -78,14 +86,51 @@ public class UpdateUtil {
 
         GeneralUtil.getCollision(player, map);
 
-        // とりあえずこれで、ただ無駄が多いので最適化する
-        for(BaseSprite sprite: target.getSpriteList()) {
+        // カメラの周囲と進行方向の先の地形を読み込んでおく
+        int viewWidth = (int) GameController.getWindow().getWindowWidth();
+        map.updateCamera(
+                GeneralUtil.getCameraOffset((int) player.getImageLeftX(), viewWidth, map.getWidth()),
+                viewWidth,
+                player.getDirectionX()
+                );
+
+        // スプライトの移動後に作り直した空間ハッシュで、プレイヤーの周囲の音声弾のみ判定する
+        target.getSpriteGrid().query(player, 0, candidates);
+        for(BaseSprite sprite: candidates) {
             if(sprite instanceof VoiceIcon) {
                 GeneralUtil.rewritePoint(player, sprite);
             }
         }
     }
 
+    /**
+     * <pre>
+     * プレイヤーとの衝突の候補となるスプライトを返す
+     * 空間ハッシュはrebuildSpriteGridで直前のスプライトの移動後に作り直したものを使用する
+     * 結果の集合は次の呼び出しまで有効
+     * </pre>
+     *
+     * @param target 更新対象のゲームシーンオブジェクト
+     * @param margin プレイヤーの矩形を上下左右に広げるピクセル数
+     * @return 衝突の候補となるスプライトの集合
+     */
+    public static Set<BaseSprite> getPlayerCandidates(Calculation target, int margin) {
+        target.getSpriteGrid().query(target.getPlayer(), margin, candidates);
+        return candidates;
+    }
+
+    /**
+     * <pre>
+     * スプライトの空間ハッシュを現在の位置で作り直す
+     * 全てのスプライトの移動、削除を終えた後に呼び出し、次のティックのプレイヤーとの判定に使用する
+     * </pre>
+     *
+     * @param target 更新対象のゲームシーンオブジェクト
+     */
+    public static void rebuildSpriteGrid(Calculation target) {
+        target.getSpriteGrid().rebuild(target.getSpriteList());
+    }
+
     /**
      * 汎用的なスプライトの更新メソッド
      *
@@ -74,10 +74,8 @@ public class BaseSlotOperator extends JLayeredPane implements KeyListener {
      * @see java.awt.event.KeyListener
      */
     public void keyPressed(KeyEvent e) {
-        int key = e.getKeyCode();
-        if (keyConfig.getKeys().containsKey(key)) {
-            keyConfig.getKeys().get(key).press();
-        }
+        // キーの状態はゲームループのスレッドで更新する
+        keyConfig.offer(e);
     }
 
     /**
@@ -85,10 +83,8 @@ public class BaseSlotOperator extends JLayeredPane implements KeyListener {
      * @see java.awt.event.KeyListener
      */
     public void keyReleased(KeyEvent e) {
-        int key = e.getKeyCode();
-        if (keyConfig.getKeys().containsKey(key)) {
-            keyConfig.getKeys().get(key).release();
-        }
+        // キーの状態はゲームループのスレッドで更新する
+        keyConfig.offer(e);
     }
 
     /**
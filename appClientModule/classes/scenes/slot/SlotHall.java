@@ -17,7 +17,9 @@ import classes.controllers.SceneController;
 import classes.controllers.WindowController;
 import classes.scenes.effects.*;
 import classes.math.*;
+import classes.scenes.slot.assets.HallMap;
 import classes.scenes.slot.assets.Player;
+import classes.scenes.slot.assets.Raycaster;
 import classes.ui.StringSelectOption;
 import classes.scenes.slot.utils.DrawUtil;
 import classes.utils.GeneralUtil;
@@ -42,6 +44,7 @@ public class SlotHall extends BaseSlotOperator implements GameScene {
     private final int SPEED = 150;         // プレイヤーの移動速度
     private final int ADJUST = 100;        // スロット画像が視角端で消えるのを防ぐための、余分な光線の数
     private final int ENCOUNT = 100;       // スロット画像との接触判定が有効になる範囲
+    private final int MARGIN = 1;          // プレイヤーが壁に近づける最短距離
 
     // スロット画像オブジェクト
     private BufferedImage imgSlot;
@@ -49,8 +52,11 @@ public class SlotHall extends BaseSlotOperator implements GameScene {
     // 1人称視点を受け持つプレイヤーオブジェクト
     private Player player;
 
-    // ステージを囲む壁をベクトルで表す
-    private Ray[] walls;
+    // ステージのフロアをタイルの格子で表す
+    private HallMap hallMap;
+
+    // 壁を列ごとに描画するフレームバッファ
+    private Raycaster raycaster;
 
     // スロットオブジェクトの位置をベクトルで表す
     private Ray slot;
@@ -81,10 +87,13 @@ public class SlotHall extends BaseSlotOperator implements GameScene {
     // スロット画像のサイズ補正
     private double adj;
 
+    // スロット画像にヒットした視線の値を保持するベクトル
+    private Vector2 slotRayVec;
+
     /**
      * <pre>
      * 画像の読み込み、キーコンフィグ、プレイヤー、シーン遷移エフェクトの設定
-     * 壁、スロットをベクトルで定義
+     * フロアをタイルの格子、スロットをベクトルで定義
      * </pre>
      */
     public SlotHall() {
@@ -99,20 +108,21 @@ public class SlotHall extends BaseSlotOperator implements GameScene {
         keyConfig.getKeys().put(KeyEvent.VK_D, keyConfig.new Key());
 
 
-        walls = new Ray[4];
-        walls[0] = new Ray(new Vector2(0, 0), new Vector2(0, FIELD_SIZE));
-        walls[1] = new Ray(new Vector2(0, 0), new Vector2(FIELD_SIZE, 0));
-        walls[2] = new Ray(new Vector2(FIELD_SIZE, FIELD_SIZE), new Vector2(0, -FIELD_SIZE));
-        walls[3] = new Ray(new Vector2(FIELD_SIZE, FIELD_SIZE), new Vector2(-FIELD_SIZE, 0));
+        hallMap = HallMap.getDefault();
 
         slot = new Ray(new Vector2(FIELD_SIZE/2, FIELD_SIZE/3), new Vector2(SLOT_SIZE, 0));
 
         player = new Player(FIELD_SIZE/2, FIELD_SIZE/6 * 5);
 
+        // 1列を1本の光線に対応させる
+        raycaster = new Raycaster(hallMap, player.getRayNum() * 2 + 1, (int) WindowController.HEIGHT, WALL_HEIGHT);
+
         slotRay = null;
         column = -1;
         adj = 0.0;
 
+        slotRayVec = new Vector2(0, 0);
+
         keyHelpList.add(new StringSelectOption(100, 400, FontController.Fonts.NORMAL, "W", 16));
         keyHelpList.add(new StringSelectOption(80, 430, FontController.Fonts.NORMAL, "A", 16));
         keyHelpList.add(new StringSelectOption(105, 430, FontController.Fonts.NORMAL, "S", 16));
@@ -134,53 +144,31 @@ public class SlotHall extends BaseSlotOperator implements GameScene {
 
         WindowController w = GameController.getWindow();
 
-        // 天井
-        g.setColor(new Color(30, 0, 0));
-        g.fillRect(
-                0,
-                0,
-                (int) w.getAbsPosX(WindowController.WIDTH),
-                (int) w.getAbsPosY(WindowController.HEIGHT / 2)
-                );
-
-
-        // 床
-        g.setColor(new Color(80, 0, 0));
-        g.fillRect(
-                0,
-                (int) w.getAbsPosY(WindowController.HEIGHT / 2),
-                (int) w.getAbsPosX(WindowController.WIDTH),
-                (int) w.getAbsPosY(WindowController.HEIGHT)
-                );
-
         // 画面中央の高さの座標
         int centerY = (int) (WindowController.HEIGHT / 2);
 
-        // レイトレーシングの実験
         // 視野角を光線で等分して、光線間の角度を求める
         double rayAngle = player.getViewAngle() / (double) player.getRayNum();
 
-        // 壁との交点を検証する光線を左から順に設定
-        double rayDirection = player.getDirection();
-
-        // スロット画像に最初にヒットした視線
-        slotRay = null;
-        // ヒットした視線のインデックス(左端が0, 右端がn)
-        column = -1;
-        // スロット画像のサイズ補正
-        adj = Math.cos(rayDirection - player.getDirection());
-
-        // 視角のうち、中央より右半分
-        // 右端が1つ不足するため[player.getRayNum() + ADJUST]としている
-        for(int i = 0; i < player.getRayNum() + ADJUST; i++) {
-            calcRay(rayDirection, rayAngle, centerY, i, g);
-        }
+        // 天井、床、壁をフレームバッファに描画し、画面サイズに拡大して一度だけ転送する
+        raycaster.render(
+                player.getPosVec().getX(),
+                player.getPosVec().getY(),
+                player.getDirection(),
+                rayAngle
+                );
+        g.drawImage(
+                raycaster.getImage(),
+                0,
+                0,
+                (int) w.getAbsPosX(WindowController.WIDTH),
+                (int) w.getAbsPosY(WindowController.HEIGHT),
+                null
+                );
 
-        // 視角のうち、中央より左半分
-        // 左端から画像が消えることを防ぐため[player.getRayNum() + ADJUST]としている
-        for(int i = 1; i < player.getRayNum() + ADJUST; i++) {
-            calcRay(rayDirection, rayAngle, centerY, -i, g);
-        }
+        // スロット画像が視角内にあれば、対応する視線を求める
+        // 壁の描画が全列完了した後に単一スレッドで行うため、並列描画でも結果は変わらない
+        projectSlot(rayAngle);
 
         // スロットマシーンの描画
         if(slotRay != null) {
@@ -237,102 +225,43 @@ public class SlotHall extends BaseSlotOperator implements GameScene {
     }
 
     /**
-     * 壁の定義ベクトルと視線ベクトルから壁を描画する
-     *
-     * @param rayDirection プレイヤーの正面の方向の角度(rad)
-     * @param rayAngle     計算対象の光線の正面からの角度(rad)
-     * @param centerY      ゲーム画面の高さの半分
-     * @param i            視線のインデックス
-     * @param g            グラフィックスオブジェクト
+     * <pre>
+     * スロット画像の位置を視線の角度に投影し、対応する視線のインデックスと距離を求める
+     * 視角外、または壁に隠れている場合は slotRay を null とする
+     * 視角端で画像が消えるのを防ぐため、視角の外側にも[ADJUST]本の視線を仮定する
+     * </pre>
      *
-     * @return 計算に使用した視線ベクトル
+     * @param rayAngle 光線間の角度(rad)
      */
-    private void calcRay(double rayDirection, double rayAngle, double centerY, int i, Graphics g) {
-        Ray r = new Ray(
-                player.getPosVec().copy(),
-                new Vector2(Math.cos(rayDirection + rayAngle * i), Math.sin(rayDirection + rayAngle * i)).scalar(1000.0)
-                );
-
-        Vector2 minVec = null;
-
-        // 四方の壁と光線の交点を調べる
-        for(Ray wall: walls) {
-            Vector2 v = intersect(r, wall);
-            if(v != null) {
+    private void projectSlot(double rayAngle) {
+        slotRay = null;
+        column = -1;
+        adj = 0.0;
 
-                // 複数の交点がある場合最短距離を採用する
-                if(minVec == null || v.sub(r.getStartPos()).mag() < minVec.mag()) {
-                    minVec = v.sub(r.getStartPos());
-                }
-            }
-        }
+        Vector2 v = slotRayVec.set(slot.getPosVec()).subLocal(player.getPosVec());
+        v.addLocal(SLOT_SIZE / 2.0, 0);
 
-        if(minVec != null) {
-            double drawWidth = (double) (WindowController.WIDTH / (player.getRayNum() * 2 + 1));
-            double drawHeight = WALL_HEIGHT / (minVec.mag() * Math.cos(rayDirection + rayAngle * i - player.getDirection()));
-            double shade = minVec.mag() / 1200 * Math.sqrt(2);
-
-            // 遠くの壁ほど暗くする
-            Color c = new Color(
-                    150 - Math.min(150, (int) (150 * shade)),
-                    0,
-                    30 - Math.min(30, (int) (30 * shade))
-                    );
-
-            g.setColor(c);
-            g.fillRect(
-                (int) GameController.getWindow().getAbsPosX(drawWidth * (player.getRayNum() + i)),
-                (int) GameController.getWindow().getAbsPosY(centerY - drawHeight / 2),
-                (int) Math.max(1, GameController.getWindow().getAbsPosX(drawWidth + 1)),
-                (int) GameController.getWindow().getAbsPosY(drawHeight)
-                );
+        // 正面に対するスロット画像の方向を -π から π の範囲に正規化する
+        double diff = Math.atan2(v.getY(), v.getX()) - player.getDirection();
+        diff = Math.atan2(Math.sin(diff), Math.cos(diff));
+        if(Math.cos(diff) <= 0) {
+            return;
         }
 
-        Vector2 v = intersect(r, slot);
-        if(v != null) {
-            slotRay = v.sub(r.getStartPos());
-            column = player.getRayNum() + i;
-            adj = Math.cos(rayDirection + rayAngle * i - player.getDirection());
+        int i = (int) Math.round(diff / rayAngle);
+        if(Math.abs(i) >= player.getRayNum() + ADJUST) {
+            return;
         }
-    }
 
-    /**
-     * 2本の光線の交点を求める
-     *
-     * @param r1 光線1
-     * @param r2 光線2
-     *
-     * @return 交点の位置ベクトル
-     */
-    private Vector2 intersect(Ray r1, Ray r2) {
-
-        // 一方の光線の傾き、通る1点のXY座標
-        double slope1 = r1.getSlope();
-        double x1     = r1.getPosVec().getX();
-        double y1     = r1.getPosVec().getY();
-
-        // 他方の光線の傾き、通る1点のXY座標
-        double slope2 = r2.getSlope();
-        double x2     = r2.getPosVec().getX();
-        double y2     = r2.getPosVec().getY();
-
-        // 2直線の交点のX座標
-        double x = (slope1 * x1 - slope2 * x2 - y1 + y2) / (slope1 - slope2);
-
-        // 2直線の交点のY座標
-        double y = slope1 * (x - x1) + y1;
-
-        // 線分の範囲内かどうかを判断
-        if(
-            x > Math.min(r1.getStartPos().getX(), r1.getEndPos().getX())
-            && x < Math.max(r1.getStartPos().getX(), r1.getEndPos().getX())
-            && x > Math.min(r2.getStartPos().getX(), r2.getEndPos().getX())
-            && x < Math.max(r2.getStartPos().getX(), r2.getEndPos().getX())
-        ) {
-            return new Vector2(x, y);
+        // 壁より奥にある場合は描画しない
+        int col = player.getRayNum() + i;
+        if(col >= 0 && col < raycaster.getColumns() && raycaster.getDepth(col) < v.mag()) {
+            return;
         }
 
-        return null;
+        slotRay = v;
+        column = col;
+        adj = Math.cos(rayAngle * i);
     }
 
     /**
@@ -392,7 +321,7 @@ public class SlotHall extends BaseSlotOperator implements GameScene {
 
         player.stop();
 
-        if(player.getPosVec().sub(slot.getPosVec()).mag() < ENCOUNT
+        if(player.getPosVec().distance(slot.getPosVec()) < ENCOUNT
                 && GameController.getWindow().isEmptyStack()
                 ) {
             if(!effect.isRemained()) {
@@ -449,30 +378,21 @@ public class SlotHall extends BaseSlotOperator implements GameScene {
         // 今フレームでの移動ベクトルを取得
         Ray moveRay = player.getMoveRay();
 
-        // 移動が発生している場合のみチェックする
+        // 移動が発生している場合のみ、X軸、Y軸の順に移動先のタイルを調べる
+        // 壁に入る軸の移動成分を打ち消すことで壁ずりとする
         if(moveRay.getDirVec().mag() > 0) {
-            for(Ray wall: walls) {
-                // 交点の位置ベクトル
-                Vector2 v = intersect(moveRay, wall);
-                if(v != null) {
-                    // 壁との交点までの方向ベクトル forward vector
-                    Vector2 fwdVec = v.sub(moveRay.getStartPos());
-
-                    // 壁の法線ベクトル orthonormal vector
-                    Vector2 normVec = wall.getOrthonorm();
-
-                    // 方向ベクトルを法線ベクトルへ投影
-                    double alpha = fwdVec.scalar(-1).dot(wall.getOrthonorm());
-
-                    // 壁と平行なベクトル parallel vector
-                    Vector2 parVec = fwdVec.add(normVec.scalar(alpha));
-                    parVec = parVec.scalar(1/parVec.mag());
-                    player.adjustPos(parVec);
-
-                    // 衝突する壁は常に一つ?角は？
-                    break;
-                }
+            double x = moveRay.getStartPos().getX();
+            double y = moveRay.getStartPos().getY();
+            double vx = moveRay.getDirVec().getX();
+            double vy = moveRay.getDirVec().getY();
+
+            if(hallMap.isWall(x + vx + Math.signum(vx) * MARGIN, y)) {
+                vx = 0;
+            }
+            if(hallMap.isWall(x + vx, y + vy + Math.signum(vy) * MARGIN)) {
+                vy = 0;
             }
+            player.adjustPos(moveRay.getDirVec().set(vx, vy));
         }
 
         // 仮の移動ベクトルを最終確定
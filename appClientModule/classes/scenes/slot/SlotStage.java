@@ -28,6 +28,7 @@ import classes.scenes.effects.Freeze2;
 import classes.scenes.effects.Freeze3;
 import classes.scenes.effects.Freeze4;
 
+import interfaces.DisposableScene;
 import interfaces.GameScene;
 
 /**
@@ -36,7 +37,7 @@ import interfaces.GameScene;
  * @author Naoki Yoshikawa
  **/
 @SuppressWarnings("serial")
-public class SlotStage extends BaseSlotOperator implements GameScene {
+public class SlotStage extends BaseSlotOperator implements GameScene, DisposableScene {
 
     // パーツモジュールのラッパーとしてのスロットオブジェクト
     private Slot slot;
@@ -73,12 +74,12 @@ public class SlotStage extends BaseSlotOperator implements GameScene {
 
         float[] luminance = {2.0f, 2.0f, 2.0f, 1.0f};
 
+        int[][] reelOrders = Reel.getReelOrders();
         Reel[] reels = new Reel[] {
-                // 0:リプレイ, 1:ベル, 2:チェリー, 3:スイカ, 4:Bar, 5:赤, 6:青
                 // リールのみ相対配置を行うので、リール自体に位置は指定しない
-                new Reel(imgPaths, new int[] {0,5,2,5,1,0,4,6,6,1,0,2,3,3,1,0,3,4,3,1}, 32, 32, luminance),
-                new Reel(imgPaths, new int[] {1,2,5,2,0,1,3,6,2,0,1,4,3,4,0,1,2,3,2,0}, 32, 32, luminance),
-                new Reel(imgPaths, new int[] {0,5,2,5,1,0,4,2,2,1,0,3,4,3,1,0,6,6,4,1}, 32, 32, luminance)
+                new Reel(imgPaths, reelOrders[0], 32, 32, luminance),
+                new Reel(imgPaths, reelOrders[1], 32, 32, luminance),
+                new Reel(imgPaths, reelOrders[2], 32, 32, luminance)
             };
 
         luminance = new float[] {1.5f, 1.5f, 1.5f, 1.0f};
@@ -172,16 +173,7 @@ public class SlotStage extends BaseSlotOperator implements GameScene {
         musics.put(3, new MusicTable(490000, 797000, SoundResource.BGM_EDM));
 
         // 当選率配分の異なるモードを設定する
-        Mode[] modeTable = new Mode[] {
-                Mode.getNormal(),
-                Mode.getRedBig(),
-                Mode.getBlueBig(),
-                Mode.getRedReg(),
-                Mode.getBlueReg(),
-                Mode.getBonus(),
-                Mode.getCherryBonus(),
-                Mode.getSuikaBonus()
-            };
+        Mode[] modeTable = Mode.getModeTable();
 
         // スロットに各モジュールをセット
         this.slot = new Slot(
@@ -377,6 +369,15 @@ public class SlotStage extends BaseSlotOperator implements GameScene {
         keyConfig.releaseAll();
     }
 
+    /**
+     * シーンを手放す際に、台枠のVolatileImageを解放する
+     * @see interfaces.DisposableScene#dispose()
+     */
+    @Override
+    public void dispose() {
+        slot.getSlotFrame().flush();
+    }
+
     /**
      * シーンレイヤーのスタックのうち、子シーンからのコールバックを受ける
      *
@@ -25,6 +25,9 @@ public class Button {
     // 発光用の明度変更オブジェクト
     private RescaleOp rescaleOp;
 
+    // 点灯時の画像オブジェクト(読み込み時に生成)
+    private BufferedImage brightImg;
+
     /**
      * 画像のファイルパス、描画位置の座標、発光パターンの設定
      *
@@ -39,6 +42,7 @@ public class Button {
         this.y = y;
         float[] offsets = new float[4];
         this.rescaleOp = new RescaleOp(luminance, offsets, null);
+        this.brightImg = rescaleOp.filter(img, new BufferedImage(img.getWidth(), img.getHeight(), img.getType()));
         initParam();
     }
 
@@ -51,6 +55,15 @@ public class Button {
         return this.img;
     }
 
+    /**
+     * 点灯時の明るさに変換済みの画像オブジェクトを返す
+     *
+     * @return 点灯時の画像オブジェクト
+     */
+    public BufferedImage getBrightImage() {
+        return this.brightImg;
+    }
+
     /**
      * 描画位置のX座標を返す
      *
@@ -0,0 +1,174 @@
+package classes.scenes.slot.assets;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * <pre>
+ * フラグの配列をエイリアステーブル(Walker/Vose法)に変換した抽選器
+ * テーブルの長さによらず、1回の乱数で定数時間でフラグを抽選する
+ * 各フラグの成立確率は従来の逐次抽選と同じく、先頭から順に
+ * 宣言上の確率 / 直前の補数 を条件付き確率として解釈し、末尾のフラグには残りの確率を割り当てる
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class FlagLottery {
+
+    // 確率の検証に使用する許容誤差
+    private static final double EPSILON = 1e-9;
+
+    // 列ごとの自身のフラグを採用する確率
+    private double[] prob;
+
+    // 列ごとの自身以外に採用するフラグのID
+    private int[] alias;
+
+    // 逐次抽選の規則で解釈したフラグごとの成立確率
+    private double[] declared;
+
+    /**
+     * フラグの配列からエイリアステーブルを構築し、構築結果を検証する
+     *
+     * @param flagTables フラグ情報の配列
+     */
+    public FlagLottery(FlagTable[] flagTables) {
+        int n = flagTables.length;
+        declared = new double[n];
+
+        // 手前のフラグすべてに当選しなかった確率
+        double reach = 1.0;
+        double complement = 1.0;
+        for(int i = 0; i < n - 1; i++) {
+            double prob = Math.min(1.0, flagTables[i].getProbability() / complement);
+            declared[i] = reach * prob;
+            reach -= declared[i];
+            complement = 1.0 - prob;
+        }
+        declared[n - 1] = reach;
+
+        build();
+        verify(flagTables);
+    }
+
+    /**
+     * Vose法でエイリアステーブルを構築する
+     */
+    private void build() {
+        int n = declared.length;
+        prob = new double[n];
+        alias = new int[n];
+
+        // 平均1となるように拡大した確率を、1未満と1以上に振り分ける
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int s = 0;
+        int l = 0;
+        for(int i = 0; i < n; i++) {
+            scaled[i] = declared[i] * n;
+            if(scaled[i] < 1.0) {
+                small[s++] = i;
+            } else {
+                large[l++] = i;
+            }
+        }
+
+        // 1未満の列の不足分を1以上の列から補う
+        while(s > 0 && l > 0) {
+            int less = small[--s];
+            int more = large[--l];
+            prob[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if(scaled[more] < 1.0) {
+                small[s++] = more;
+            } else {
+                large[l++] = more;
+            }
+        }
+
+        // 残りは誤差のみのため自身を確定で採用する
+        while(l > 0) {
+            int i = large[--l];
+            prob[i] = 1.0;
+            alias[i] = i;
+        }
+        while(s > 0) {
+            int i = small[--s];
+            prob[i] = 1.0;
+            alias[i] = i;
+        }
+    }
+
+    /**
+     * <pre>
+     * 構築したテーブルから逆算した各フラグの条件付き確率が、宣言上の成立確率 / 補数 と一致するか検証する
+     * 一致しない場合は IllegalStateException を送出する
+     * </pre>
+     *
+     * @param flagTables フラグ情報の配列
+     */
+    private void verify(FlagTable[] flagTables) {
+        double reach = 1.0;
+        double complement = 1.0;
+        for(int i = 0; i < flagTables.length; i++) {
+            double compiled = getProbability(i);
+
+            // 手前で抽選が確定している場合は以降のフラグは成立しない
+            if(reach <= EPSILON) {
+                if(compiled > EPSILON) {
+                    throw new IllegalStateException("フラグ" + i + "は成立しないはずです: " + compiled);
+                }
+                continue;
+            }
+
+            double expected = i == flagTables.length - 1
+                    ? 1.0
+                    : Math.min(1.0, flagTables[i].getProbability() / complement);
+            if(Math.abs(compiled / reach - expected) > EPSILON) {
+                throw new IllegalStateException(
+                        "フラグ" + i + "の成立確率が一致しません: " + compiled / reach + " != " + expected);
+            }
+            reach -= compiled;
+            complement = 1.0 - expected;
+        }
+    }
+
+    /**
+     * 構築したテーブル上のフラグの成立確率を返す
+     *
+     * @param flag フラグのID
+     *
+     * @return 成立確率
+     */
+    public double getProbability(int flag) {
+        int n = prob.length;
+        double p = 0.0;
+        for(int j = 0; j < n; j++) {
+            if(j == flag) {
+                p += prob[j] / n;
+            }
+            if(alias[j] == flag) {
+                p += (1.0 - prob[j]) / n;
+            }
+        }
+        return p;
+    }
+
+    /**
+     * <pre>
+     * フラグを抽選する
+     * 1つの乱数の整数部で列を、小数部で列内の採用フラグを決める
+     * </pre>
+     *
+     * @param random [0, 1)の一様乱数の供給元
+     *
+     * @return フラグのID
+     */
+    public int draw(DoubleSupplier random) {
+        double x = random.getAsDouble() * prob.length;
+        // 丸め誤差で末尾を超えないようにする
+        int column = Math.min((int) x, prob.length - 1);
+        return x - column < prob[column] ? column : alias[column];
+    }
+}
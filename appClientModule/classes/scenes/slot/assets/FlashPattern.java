@@ -71,6 +71,48 @@ public class FlashPattern {
         }
     }
 
+    /**
+     * 発光パターンが取りうる発光量の最小値を返す
+     *
+     * @return 発光量の最小値
+     */
+    public double getMinPattern() {
+        switch(waveType) {
+        case 0:
+            return 1.0;
+        case 1:
+            return 0.0;
+        case 2:
+        case 3:
+            return Math.min((shift - 1.0) * amplitude, (shift + 1.0) * amplitude);
+        case 4:
+            return Math.min(0.0, amplitude);
+        default:
+            return 1.0;
+        }
+    }
+
+    /**
+     * 発光パターンが取りうる発光量の最大値を返す
+     *
+     * @return 発光量の最大値
+     */
+    public double getMaxPattern() {
+        switch(waveType) {
+        case 0:
+            return 1.0;
+        case 1:
+            return 0.0;
+        case 2:
+        case 3:
+            return Math.max((shift - 1.0) * amplitude, (shift + 1.0) * amplitude);
+        case 4:
+            return Math.max(0.0, amplitude);
+        default:
+            return 1.0;
+        }
+    }
+
     /**
      * 指定した関数でマップした発光量を返す
      *
@@ -0,0 +1,177 @@
+package classes.scenes.slot.assets;
+
+/**
+ * <pre>
+ * スロットステージ導入部分のフロアをタイルの格子で定義するクラス
+ * 格子の外側はすべて壁として扱う
+ * </pre>
+ *
+ * @author Naoki Yoshikawa
+ */
+public class HallMap {
+
+    // 壁を表すレイアウト文字
+    private static final char WALL = '#';
+
+    // タイル1辺の長さ
+    private double tileSize;
+
+    // タイルの列数、行数
+    private int cols;
+    private int rows;
+
+    // タイルごとの壁の有無(行優先)
+    private boolean[] walls;
+
+    /**
+     * <pre>
+     * レイアウト文字列からタイルの格子を生成する
+     * '#'を壁、それ以外を床とする
+     * </pre>
+     *
+     * @param layout   1行ごとのレイアウト文字列の配列
+     * @param tileSize タイル1辺の長さ
+     */
+    public HallMap(String[] layout, double tileSize) {
+        this.tileSize = tileSize;
+        this.rows = layout.length;
+        int maxCols = 0;
+        for(String row: layout) {
+            maxCols = Math.max(maxCols, row.length());
+        }
+        this.cols = maxCols;
+        this.walls = new boolean[cols * rows];
+        for(int y = 0; y < rows; y++) {
+            for(int x = 0; x < layout[y].length(); x++) {
+                walls[y * cols + x] = layout[y].charAt(x) == WALL;
+            }
+        }
+    }
+
+    /**
+     * タイル1辺の長さを返す
+     *
+     * @return タイル1辺の長さ
+     */
+    public double getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * <pre>
+     * 指定したタイルが壁かどうかを返す
+     * 格子の外側は壁とみなす
+     * </pre>
+     *
+     * @param tx タイルの列
+     * @param ty タイルの行
+     *
+     * @return 壁であれば true
+     */
+    public boolean isWallTile(int tx, int ty) {
+        if(tx < 0 || ty < 0 || tx >= cols || ty >= rows) {
+            return true;
+        }
+        return walls[ty * cols + tx];
+    }
+
+    /**
+     * 指定した座標が壁の中かどうかを返す
+     *
+     * @param x フィールド上のX座標
+     * @param y フィールド上のY座標
+     *
+     * @return 壁の中であれば true
+     */
+    public boolean isWall(double x, double y) {
+        return isWallTile((int) Math.floor(x / tileSize), (int) Math.floor(y / tileSize));
+    }
+
+    /**
+     * <pre>
+     * 光線をDDA(タイル境界ごとの逐次探索)で進め、最初に当たる壁までの距離を返す
+     * 最大距離までに壁が無い場合は負の値を返す
+     * </pre>
+     *
+     * @param px       光線の開始位置のX座標
+     * @param py       光線の開始位置のY座標
+     * @param dx       光線の単位方向ベクトルのX成分
+     * @param dy       光線の単位方向ベクトルのY成分
+     * @param maxDepth 探索する最大距離
+     *
+     * @return 壁までの距離
+     */
+    public double cast(double px, double py, double dx, double dy, double maxDepth) {
+        double posX = px / tileSize;
+        double posY = py / tileSize;
+        int mapX = (int) Math.floor(posX);
+        int mapY = (int) Math.floor(posY);
+
+        // 隣のタイル境界までに光線が進む距離(タイル単位)
+        double deltaX = Math.abs(1.0 / dx);
+        double deltaY = Math.abs(1.0 / dy);
+
+        int stepX;
+        int stepY;
+        double sideX;
+        double sideY;
+        if(dx < 0) {
+            stepX = -1;
+            sideX = (posX - mapX) * deltaX;
+        } else {
+            stepX = 1;
+            sideX = (mapX + 1.0 - posX) * deltaX;
+        }
+        if(dy < 0) {
+            stepY = -1;
+            sideY = (posY - mapY) * deltaY;
+        } else {
+            stepY = 1;
+            sideY = (mapY + 1.0 - posY) * deltaY;
+        }
+
+        double limit = maxDepth / tileSize;
+        while(true) {
+            double t;
+            if(sideX < sideY) {
+                t = sideX;
+                sideX += deltaX;
+                mapX += stepX;
+            } else {
+                t = sideY;
+                sideY += deltaY;
+                mapY += stepY;
+            }
+            if(t > limit) {
+                return -1.0;
+            }
+            if(isWallTile(mapX, mapY)) {
+                return t * tileSize;
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * 既定のフロアを返すファクトリーメソッド
+     * 1辺640の正方形の部屋
+     * </pre>
+     *
+     * @return フロアの格子
+     */
+    public static HallMap getDefault() {
+        String[] layout = new String[] {
+                "..........",
+                "..........",
+                "..........",
+                "..........",
+                "..........",
+                "..........",
+                "..........",
+                "..........",
+                "..........",
+                ".........."
+            };
+        return new HallMap(layout, 64);
+    }
+}
@@ -12,6 +12,9 @@ import classes.utils.GeneralUtil;
  */
 public class Lamp {
 
+    // 事前に生成する明るさの段階数
+    private static final int LEVELS = 32;
+
     // ランプの画像オブジェクト
     private BufferedImage img;
 
@@ -34,6 +37,13 @@ public class Lamp {
     // アニメーション用のタイムパラメータ
     private double time;
 
+    // 明るさの段階ごとの画像オブジェクト
+    private BufferedImage[] levelImg;
+
+    // 最も暗い段階の発光量と、1段階あたりの発光量
+    private double minLevel;
+    private double levelStep;
+
     private Init init;
 
     /**
@@ -60,6 +70,36 @@ public class Lamp {
         this.pattern = fp;
         this.flagType = flagType;
         init = new Init(mode);
+        createLevels();
+    }
+
+    /**
+     * <pre>
+     * 発光パターンが取りうる範囲の明るさの画像をLEVELS段階分生成する
+     * 描画時は最も近い段階の画像を使用する
+     * </pre>
+     */
+    private void createLevels() {
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for(FlashPattern fp: pattern) {
+            min = Math.min(min, fp.getMinPattern());
+            max = Math.max(max, fp.getMaxPattern());
+        }
+
+        int levels = max > min ? LEVELS : 1;
+        minLevel = min;
+        levelStep = levels > 1 ? (max - min) / (levels - 1) : 0.0;
+        levelImg = new BufferedImage[levels];
+
+        for(int i = 0; i < levels; i++) {
+            float[] scales = new float[luminance.length];
+            for(int j = 0; j < scales.length; j++) {
+                scales[j] = luminance[j] * (float) (minLevel + levelStep * i);
+            }
+            RescaleOp op = new RescaleOp(scales, new float[4], null);
+            levelImg[i] = op.filter(img, new BufferedImage(img.getWidth(), img.getHeight(), img.getType()));
+        }
     }
 
     private class Init {
@@ -147,6 +187,21 @@ public class Lamp {
         return new RescaleOp(modified, new float[4], null);
     }
 
+    /**
+     * 現在の発光量に最も近い明るさの画像オブジェクトを返す
+     *
+     * @return 発光時の画像オブジェクト
+     */
+    public BufferedImage getBrightImage() {
+        if(levelImg.length == 1) {
+            return levelImg[0];
+        }
+        double level = this.pattern[this.flashMode].getPattern(this.time);
+        int i = (int) Math.round((level - minLevel) / levelStep);
+        i = Math.max(0, Math.min(levelImg.length - 1, i));
+        return levelImg[i];
+    }
+
     /**
      * アニメーション用のタイムパラメータを返す
      *
@@ -2,6 +2,7 @@ package classes.scenes.slot.assets;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.DoubleSupplier;
 
 import classes.constants.SoundResource;
 
@@ -28,6 +29,9 @@ public class Mode {
     // ボーナス中のBGMのマップ
     private Map<Integer, MusicTable> musics;
 
+    // フラグ配列を変換した抽選器
+    private FlagLottery lottery;
+
     /**
      * フラグ配列、ボーナス中BGMの設定
      *
@@ -37,6 +41,7 @@ public class Mode {
     public Mode(FlagTable[] flagTables, Map<Integer, MusicTable> musics) {
         this.flagTables = flagTables;
         this.musics = musics;
+        this.lottery = new FlagLottery(flagTables);
     }
 
     /**
@@ -57,6 +62,65 @@ public class Mode {
         return this.musics;
     }
 
+    /**
+     * <pre>
+     * 1回転ごとのフラグ抽選を行う
+     * 末尾のフラグは他のフラグに当選しなかった場合の残りとして扱う
+     * </pre>
+     *
+     * @param random [0, 1)の一様乱数の供給元
+     *
+     * @return フラグのID
+     */
+    public int draw(DoubleSupplier random) {
+        return lottery.draw(random);
+    }
+
+    /**
+     * 抽選器を返す
+     *
+     * @return フラグの抽選器
+     */
+    public FlagLottery getLottery() {
+        return this.lottery;
+    }
+
+    /**
+     * <pre>
+     * 子役重複を抽選する
+     * 重複当選していたら true
+     * </pre>
+     *
+     * @param flag   成立フラグのID
+     * @param random [0, 1)の一様乱数の供給元
+     *
+     * @return 重複当選しているかどうか
+     */
+    public boolean subDraw(int flag, DoubleSupplier random) {
+        return flagTables[flag].getSubProbability() > random.getAsDouble();
+    }
+
+    /**
+     * <pre>
+     * スロットに設定するモードの配列を返すファクトリーメソッド
+     * 配列のインデックスが各FlagTableの移行先モードに対応する
+     * </pre>
+     *
+     * @return モードの配列
+     */
+    public static Mode[] getModeTable() {
+        return new Mode[] {
+                getNormal(),
+                getRedBig(),
+                getBlueBig(),
+                getRedReg(),
+                getBlueReg(),
+                getBonus(),
+                getCherryBonus(),
+                getSuikaBonus()
+            };
+    }
+
     /*
      * FlagTable オブジェクト
      * 第一引数から
@@ -26,6 +26,9 @@ public class Player {
     // 左右の視野角ごとの光線数
     private int rayNum;
 
+    // 当該フレームでの移動情報(毎フレーム値を書き換えて再利用する)
+    private Ray moveRay;
+
     private Init init;
 
     /**
@@ -38,6 +41,7 @@ public class Player {
         init = new Init(new Vector2(x, y));
         viewAngle = Math.PI / 5.5;
         rayNum = 640;
+        moveRay = new Ray(new Vector2(0, 0), new Vector2(0, 0));
     }
 
     private class Init {
@@ -83,7 +87,7 @@ public class Player {
      * @param vx　壁との交点のX座標
      */
     public void adjustX(double vx) {
-        this.v = new Vector2(vx, v.getY());
+        this.v.set(vx, v.getY());
     }
 
     /**
@@ -92,7 +96,7 @@ public class Player {
      * @param vy　壁との交点のY座標
      */
     public void adjustY(double vy) {
-        this.v = new Vector2(v.getX(), vy);
+        this.v.set(v.getX(), vy);
     }
 
     /**
@@ -101,7 +105,7 @@ public class Player {
      * @param newDir 壁ずりベクトル
      */
     public void adjustPos(Vector2 newDir) {
-        this.nv = newDir;
+        this.nv.set(newDir);
     }
 
 
@@ -109,7 +113,7 @@ public class Player {
      * 仮計算の移動ベクトルを位置ベクトルに加算する
      */
     public void proceed() {
-        this.v = this.v.add(this.nv);
+        this.v.addLocal(this.nv);
     }
 
     /**
@@ -119,7 +123,7 @@ public class Player {
      */
     public void moveVertical(double s) {
         //v = v.add(new Vector2(Math.cos(direction), Math.sin(direction)).scalar(s));
-        nv = nv.add(new Vector2(Math.cos(direction), Math.sin(direction)).scalar(s));
+        nv.addLocal(Math.cos(direction) * s, Math.sin(direction) * s);
     }
 
     /**
@@ -130,23 +134,26 @@ public class Player {
     public void moveHorizontal(double s) {
         double left = direction + Math.PI / 2;
         //v = v.sub(new Vector2(Math.cos(left), Math.sin(left)).scalar(s));
-        nv = nv.sub(new Vector2(Math.cos(left), Math.sin(left)).scalar(s));
+        nv.addLocal(-Math.cos(left) * s, -Math.sin(left) * s);
     }
 
     /**
      * 移動成分を0にする
      */
     public void stop() {
-        nv = new Vector2(0.0, 0.0);
+        nv.set(0.0, 0.0);
     }
 
     /**
+     * <pre>
      * 当該フレームでの移動情報を位置ベクトルと方向ベクトルの組で返す
+     * 返すオブジェクトは次の呼び出しで値が書き換わる
+     * </pre>
      *
      * @return 移動情報を表すRayオブジェクト
      */
     public Ray getMoveRay() {
-        return new Ray(v, nv);
+        return moveRay.set(v.getX(), v.getY(), nv.getX(), nv.getY());
     }
 
     /**
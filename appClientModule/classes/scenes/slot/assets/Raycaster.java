@@ -0,0 +1,256 @@
+package classes.scenes.slot.assets;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <pre>
+ * フロアの格子に光線を飛ばし、列ごとの壁をフレームバッファに書き込む擬似3Dレンダラ
+ * フレームバッファは1列が1本の光線に対応し、描画時に画面サイズへ拡大して一度だけ転送する
+ * 列ごとの壁までの距離は深度として保持し、スプライトの前後判定に使用する
+ * 並列描画が有効な場合は列を短冊に分割し、ForkJoinPool上で同じフレームバッファに書き込む
+ * </pre>
+ *
+ * @author Naoki Yoshikawa
+ */
+public class Raycaster {
+
+    // 光線の最大距離
+    private static final double MAX_DEPTH = 1000.0;
+
+    // 並列描画時に1タスクが受け持つ短冊の最大列数
+    private static final int STRIP_WIDTH = 64;
+
+    // 天井、床の色
+    private static final int CEILING = 0x1e0000;
+    private static final int FLOOR = 0x500000;
+
+    // 距離に応じた壁の色(暗さの段階をインデックスとする)
+    private static final int[] WALL_SHADES = createWallShades();
+
+    // フロアの格子
+    private HallMap map;
+
+    // 3Dビュー表示上の壁の高さ
+    private double wallHeight;
+
+    // フレームバッファの幅(列数)、高さ
+    private int width;
+    private int height;
+
+    // フレームバッファとそのピクセル配列
+    private BufferedImage image;
+    private int[] pixels;
+
+    // 列ごとの壁までの距離
+    private double[] depth;
+
+    // 並列描画を行うかどうか
+    private boolean parallel;
+
+    // 並列描画に使用するスレッドプール
+    private ForkJoinPool pool;
+
+    /**
+     * フレームバッファを確保する
+     *
+     * @param map        フロアの格子
+     * @param columns    フレームバッファの列数
+     * @param height     フレームバッファの高さ
+     * @param wallHeight 3Dビュー表示上の壁の高さ
+     */
+    public Raycaster(HallMap map, int columns, int height, double wallHeight) {
+        this.map = map;
+        this.width = columns;
+        this.height = height;
+        this.wallHeight = wallHeight;
+        this.image = new BufferedImage(columns, height, BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        this.depth = new double[columns];
+        this.pool = ForkJoinPool.commonPool();
+        this.parallel = pool.getParallelism() > 1;
+    }
+
+    /**
+     * 短冊単位で列を描画するタスク
+     */
+    @SuppressWarnings("serial")
+    private class StripTask extends RecursiveAction {
+
+        // プレイヤーの位置、方向、光線間の角度
+        private double px;
+        private double py;
+        private double direction;
+        private double rayAngle;
+
+        // 受け持つ列の範囲
+        private int from;
+        private int to;
+
+        private StripTask(double px, double py, double direction, double rayAngle, int from, int to) {
+            this.px = px;
+            this.py = py;
+            this.direction = direction;
+            this.rayAngle = rayAngle;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= STRIP_WIDTH) {
+                renderColumns(px, py, direction, rayAngle, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                    new StripTask(px, py, direction, rayAngle, from, mid),
+                    new StripTask(px, py, direction, rayAngle, mid, to)
+                    );
+        }
+    }
+
+    /**
+     * <pre>
+     * 並列描画の有効、無効を切り替える
+     * 無効の場合は呼び出し元のスレッドのみで描画する
+     * </pre>
+     *
+     * @param parallel 並列描画を行う場合は true
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * 並列描画が有効かどうかを返す
+     *
+     * @return 並列描画を行う場合は true
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * <pre>
+     * 全ての列を描画する
+     * 中央の列がプレイヤーの正面の方向に対応する
+     * 並列描画の場合も全ての短冊の完了を待ってから戻るため、
+     * 戻った後のフレームバッファと深度は単一スレッドでの描画結果と一致する
+     * </pre>
+     *
+     * @param px        プレイヤーのX座標
+     * @param py        プレイヤーのY座標
+     * @param direction プレイヤーの正面の方向の角度(rad)
+     * @param rayAngle  光線間の角度(rad)
+     */
+    public void render(double px, double py, double direction, double rayAngle) {
+        if(parallel && width > STRIP_WIDTH) {
+            pool.invoke(new StripTask(px, py, direction, rayAngle, 0, width));
+        } else {
+            renderColumns(px, py, direction, rayAngle, 0, width);
+        }
+    }
+
+    /**
+     * <pre>
+     * 指定範囲の列を描画する
+     * 列ごとに独立しているため、範囲が重ならなければ並列に呼び出してよい
+     * </pre>
+     *
+     * @param px        プレイヤーのX座標
+     * @param py        プレイヤーのY座標
+     * @param direction プレイヤーの正面の方向の角度(rad)
+     * @param rayAngle  光線間の角度(rad)
+     * @param from      描画する最初の列
+     * @param to        描画する最後の列の次の列
+     */
+    public void renderColumns(double px, double py, double direction, double rayAngle, int from, int to) {
+        int center = width / 2;
+        double centerY = height / 2.0;
+
+        for(int col = from; col < to; col++) {
+            double offset = rayAngle * (col - center);
+            double angle = direction + offset;
+            double dist = map.cast(px, py, Math.cos(angle), Math.sin(angle), MAX_DEPTH);
+
+            int top = (int) centerY;
+            int bottom = (int) centerY;
+            int wall = 0;
+            if(dist >= 0) {
+                depth[col] = dist;
+
+                // 視線と正面のずれによる歪みを補正する
+                double drawHeight = wallHeight / (dist * Math.cos(offset));
+                top = (int) Math.max(0, Math.min(height, centerY - drawHeight / 2));
+                bottom = (int) Math.max(0, Math.min(height, centerY + drawHeight / 2));
+
+                // 遠くの壁ほど暗くする
+                double shade = dist / 1200 * Math.sqrt(2);
+                wall = WALL_SHADES[Math.min(WALL_SHADES.length - 1, (int) (150 * shade))];
+            } else {
+                depth[col] = Double.POSITIVE_INFINITY;
+            }
+
+            int y = 0;
+            int p = col;
+            for(; y < top; y++, p += width) {
+                pixels[p] = y < centerY ? CEILING : FLOOR;
+            }
+            for(; y < bottom; y++, p += width) {
+                pixels[p] = wall;
+            }
+            for(; y < height; y++, p += width) {
+                pixels[p] = y < centerY ? CEILING : FLOOR;
+            }
+        }
+    }
+
+    /**
+     * フレームバッファの画像を返す
+     *
+     * @return フレームバッファ
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * フレームバッファの列数を返す
+     *
+     * @return 列数
+     */
+    public int getColumns() {
+        return width;
+    }
+
+    /**
+     * <pre>
+     * 指定列の壁までの距離を返す
+     * 壁が無い場合は正の無限大を返す
+     * </pre>
+     *
+     * @param col 列
+     *
+     * @return 壁までの距離
+     */
+    public double getDepth(int col) {
+        return depth[col];
+    }
+
+    /**
+     * 距離に応じた壁の色を暗さの段階ごとに生成する
+     *
+     * @return 壁の色(RGB)の配列
+     */
+    private static int[] createWallShades() {
+        int[] shades = new int[151];
+        for(int k = 0; k < shades.length; k++) {
+            // (int) (30 * shade) は (int) (150 * shade) / 5 と等しい
+            shades[k] = ((150 - k) << 16) | (30 - k / 5);
+        }
+        return shades;
+    }
+}
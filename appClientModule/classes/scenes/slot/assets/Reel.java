@@ -70,6 +70,22 @@ public class Reel {
         initParam();
     }
 
+    /**
+     * <pre>
+     * 筐体に設定するリール配列を返すファクトリーメソッド
+     * 0:リプレイ, 1:ベル, 2:チェリー, 3:スイカ, 4:Bar, 5:赤, 6:青
+     * </pre>
+     *
+     * @return 左、中、右リールのリール配列
+     */
+    public static int[][] getReelOrders() {
+        return new int[][] {
+                new int[] {0,5,2,5,1,0,4,6,6,1,0,2,3,3,1,0,3,4,3,1},
+                new int[] {1,2,5,2,0,1,3,6,2,0,1,4,3,4,0,1,2,3,2,0},
+                new int[] {0,5,2,5,1,0,4,2,2,1,0,3,4,3,1,0,6,6,4,1}
+            };
+    }
+
     /**
      * <pre>
      * リール配列を示すint型配列を返す
@@ -299,7 +315,7 @@ public class Reel {
             // リールのズレを、差分を足して調整
             if(this.distance < 0) {
                 this.reelPos -= this.distance;
-                new Thread(new SoundController.PlaySE(SoundResource.SE_REEL)).start();
+                SoundController.playSE(SoundResource.SE_REEL);
             }
             spin(dt);
         } else {
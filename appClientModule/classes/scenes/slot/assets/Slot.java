@@ -1,12 +1,13 @@
 package classes.scenes.slot.assets;
 
-import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.function.DoubleSupplier;
 
 import classes.constants.SoundResource;
+import classes.containers.VolatileLayer;
 import classes.controllers.GameController;
 import classes.controllers.SoundController;
 import classes.utils.GeneralUtil;
@@ -25,15 +26,18 @@ public class Slot {
     private final double WAIT_REEL = 0.7;   // リール全停止から次のレバーオンが可能になるまでの間隔
     private final double WAIT_BUTTON = 0.7; // レバーオンから第一停止が可能になるまでの間隔
     private final int MAXBET = 3;           // 1プレイのベット枚数
-    private final int RANGE = 5;            // 有効滑りコマ数
 
     /* スロットのモジュール */
     private Reel[] reels;        // リールオブジェクトの配列
     private Button[] buttons;    // 停止ボタンオブジェクトの配列
     private Lamp[] lamps;        // 照明系オブジェクトの配列
     private Lever lever;         // レバー
-    private BufferedImage frame; // 台枠の画像オブジェクト
+    private VolatileLayer frame; // 台枠の画像オブジェクト
     private Mode[] modeTable;    // フラグの当選確率をもつテーブルの配列
+    private StopTable stopTable; // リールの停止制御を展開したテーブル
+
+    // フラグ抽選、重複抽選で共有する乱数
+    private final DoubleSupplier random = new Random()::nextDouble;
 
     /* 制御フラグ、内部モード */
     private boolean isReady;  // 全リールが停止していているか
@@ -58,9 +62,6 @@ public class Slot {
     // 各リールで目押しが成功しているかを記録する
     private int[][] validStop;
 
-    // 目押しをこぼした時、強制的に書き換えるこぼし目
-    private final int[] FAIL = new int[] {0, 0, 1};
-
     // 初期値を保持するインナークラスインスタンス
     private Init init;
 
@@ -92,8 +93,9 @@ public class Slot {
         this.buttons = buttons;
         this.lamps = lamps;
         this.lever = lever;
-        this.frame = GeneralUtil.readImage(path);
+        this.frame = new VolatileLayer(GeneralUtil.readImage(path));
         this.modeTable = modeTable;
+        this.stopTable = new StopTable(getReelOrders(), modeTable);
         this.bgm = bgm;
         this.init = new Init(mode);
     }
@@ -105,6 +107,19 @@ public class Slot {
         }
     }
 
+    /**
+     * 各リールのリール配列を返す
+     *
+     * @return リール配列の配列
+     */
+    private int[][] getReelOrders() {
+        int[][] reelOrders = new int[reels.length][];
+        for(int i = 0; i < reels.length; i++) {
+            reelOrders[i] = reels[i].getReelOrder();
+        }
+        return reelOrders;
+    }
+
     /**
      * スロットに設定されたリールオブジェクトの配列を返す
      *
@@ -119,7 +134,7 @@ public class Slot {
      *
      * @return 台枠の画像オブジェクト
      */
-    public BufferedImage getSlotFrame() {
+    public VolatileLayer getSlotFrame() {
         return this.frame;
     }
 
@@ -270,12 +285,12 @@ public class Slot {
             }
 
             // これはスロットのパラメータ化する？
-            new Thread(new SoundController.PlaySE(SoundResource.SE_BONUS)).start();
+            SoundController.playSE(SoundResource.SE_BONUS);
         }
 
         // 一旦SEはベタがき　上のボーナスと合わせてパラメータで設定する
         else if(flagType == Mode.CHERRY || flagType == Mode.SUIKA) {
-            new Thread(new SoundController.PlaySE(SoundResource.SE_DORA)).start();
+            SoundController.playSE(SoundResource.SE_DORA);
         }
 
         else if(flagType == Mode.REPLAY) {
@@ -356,42 +371,6 @@ public class Slot {
         return false;
     }
 
-    /**
-     * <pre>
-     * 停止済みのリールを参照して、停止対象のリールが対象図柄を止められる位置を判断する
-     * int[3]がそれぞれ上、中、下段を表し、値が1のときその位置に停止可能であることを示す
-     * [1, 0, 0]なら上段のみに停止可能 [1, 1, 1]なら上中下段すべてに停止可能
-     * </pre>
-     *
-     * @return フラグの対象図柄を停止できる位置の配列
-     */
-    // 現在のフラグに設定されているすべての停止可能位置をバイナリーの配列で取得
-    // i=0,1,2;上中下段で値が1の時停止可能
-    private int[] getCandPos(int reelPos) {
-        int[] posBit = new int[] {0, 0, 0};
-        // 外ループは全ラインのリスト
-        for(int[] line: getFlagInfo().getLine()) {
-
-            // 取り出したラインごとに停止位置をチェックしていく
-            if(posBit[reelPos] == 1) {
-                continue;
-            }
-
-            boolean valid = true;
-            for(int i = 0; i < line.length; i++) {
-                // 停止されているリールが該当有効ライン上には停止していない場合、このラインは否定
-                if(validStop[i].length != 0 && validStop[i][line[i]] != 1) {
-                    valid = false;
-                }
-            }
-
-            if(valid) {
-                posBit[line[reelPos]] = 1;
-            }
-        }
-        return posBit;
-    }
-
     /**
      * 指定したリールを停止する
      *
@@ -404,12 +383,13 @@ public class Slot {
         Reel reel = reels[button];
 
         if(reel.isSpinning()) {
-            // 対応リールの停止位置までの距離を計算する
-            int targetIcon = getFlagInfo().getValidIcon()[button];
-            int[] candidates = getCandPos(button);
+            // 停止テーブルから滑りコマ数と対象図柄の停止位置を引く
+            int entry = stopTable.getEntry(mode, flag, button, reel.getCurrentIndex(0), validStop);
+            validStop[button] = StopTable.toStopInfo(entry);
 
-            // 最寄りの対象図柄までの距離を計算
-            double distance = calcDistance(targetIcon, button, candidates);
+            // これは一コマ内の補正 = コマぴったりに止めるためであって停止位置は影響しない
+            double d = reel.getStopPos(0) % reel.getIconHeight();
+            double distance = d + reel.getIconHeight() * StopTable.getSlip(entry);
 
             // [テスト用]次の1コマで止まる
             //double distance = reel.getStopPos(0) % reel.getIconHeight();
@@ -426,147 +406,6 @@ public class Slot {
         }
     }
 
-    /**
-     * 対象フラグの図柄を停止させるための最短距離を計算する
-     *
-     * @param  targetIcon 対象フラグの図柄
-     * @param  button     停止するリール番号
-     * @param  candidates 停止可能位置(上中下段)
-     *
-     * @return 対象の停止位置までの距離
-     */
-    //
-    private double calcDistance(int targetIcon, int button, int[] candidates) {
-        Reel reel = this.reels[button];
-        // これは一コマ内の補正 = コマぴったりに止めるためであって停止位置は影響しない
-        double d = reel.getStopPos(0) % reel.getIconHeight();
-
-        // 現在位置をリール図柄のインデックスに変換(floor(pos/32px))
-        // リール図柄のインデックス間の距離を求める(現在のインデックスからリール配列リストを遡る)
-        // 図柄間の距離+図柄内での現在位置までの距離=移動距離なのでこれを返す
-        int[] reelOrder = reel.getReelOrder();
-
-        // 該当リール、該当フラグの時の有効ライン上の停止位置をすべて検証する
-        int len = reelOrder.length;
-        // すべり対象範囲外の最小値
-        int outDist = RANGE * reel.getIconHeight();
-        int[] distance = new int[] {outDist, outDist, outDist};
-
-        // 有効停止位置すべてから、最寄りの対象図柄までの距離を調べ、最短のものを採用する
-        for(int i = 0;  i < candidates.length; i++) {
-            // 有効ライン上になければ無視
-            if(candidates[i] == 0) continue;
-
-            int pos = reel.getCurrentIndex(i);
-
-            for(int j = 0; j < RANGE; j++) {
-                if(reelOrder[pos] == targetIcon) {
-                    distance[i] = reel.getIconHeight() * j;
-                    // 見つかった時点で次の停止位置からのチェックへ
-                    break;
-                }
-                pos--;
-                if(pos < 0) {
-                    pos = len - 1;
-                }
-            }
-        }
-
-        int min = minVal(distance, outDist);
-        if(min == outDist) {
-            return calculateFail(button);
-        } else {
-            // 最短距離を持つ停止位置を該当リールの停止位置情報に記録
-            validStop[button] = minValIndex(distance, outDist);
-        }
-
-        return d + min;
-    }
-
-    /**
-     * 目押しを外した場合に、こぼし目に停止するための距離を再計算する
-     *
-     * @param button 停止するリール番号
-     *
-     * @return 対象の停止位置までの距離
-     */
-    // こぼし目の再計算
-    private double calculateFail(int button) {
-
-        Reel reel = this.reels[button];
-        // これは一コマ内の補正 = コマぴったりに止めるためであって停止位置は影響しない
-        double d = reel.getStopPos(0) % reel.getIconHeight();
-        int[] reelOrder = reel.getReelOrder();
-
-        // 該当リール、該当フラグの時の有効ライン上の停止位置をすべて検証する
-        int len = reelOrder.length;
-        // 強制中段
-        int pos = reel.getCurrentIndex(1);
-        int distance = 0;
-
-        for(int j = 0; j < len; j++) {
-            if(reelOrder[pos] == FAIL[button]) {
-                distance = reel.getIconHeight() * j;
-                // 見つかった時点で次の停止位置からのチェックへ
-                break;
-            }
-            pos--;
-            if(pos < 0) {
-                pos = len - 1;
-            }
-        }
-
-        validStop[button] = new int[] {0, 0, 0};
-
-        return d + distance;
-    }
-
-    /**
-     * 配列中の最小値を返す
-     *
-     * @param minArray 検査対象の配列
-     * @param initMin  最小値の退避変数
-     *
-     * @return 配列中の最小値
-     */
-    private int minVal(int[] minArray, int initMin) {
-        for(int i = 0; i < minArray.length; i++) {
-            if(minArray[i] < initMin) {
-                initMin = minArray[i];
-            }
-        }
-        return initMin;
-    }
-
-    /**
-     * <pre>
-     * 配列中の最小値をもつインデックスを返す
-     * 複数該当した場合は全てを配列で返す
-     * </pre>
-     *
-     * @param minArray 検査対象の配列
-     * @param initMin  最小値の退避変数
-     *
-     * @return 配列中の最小値をもつインデックスの配列
-     */
-    // 配列中の最小値を持つインデックスを返す
-    // 複数該当した場合は複数返す
-    private int[] minValIndex(int[] minArray, int initMin) {
-        int[] minIndex = new int[minArray.length];
-        for(int i = 0; i < minArray.length; i++) {
-            if(minArray[i] <= initMin) {
-                if(minArray[i] < initMin) {
-                    initMin = minArray[i];
-                    for(int j = 0; j < minArray.length; j++) {
-                        minIndex[j] = 0;
-                    }
-                }
-                minIndex[i] = 1;
-            }
-        }
-        return minIndex;
-    }
-
     /**
      * リール図柄をスクロールさせて回転を表現する
      *
@@ -660,18 +499,7 @@ public class Slot {
      * @return フラグのID
      */
     private int draw() {
-        Random r = new Random();
-        double complement = 1.0;
-        for(int i = 0; i < modeTable[mode].getFlagTables().length - 1; i++) {
-            double prob = modeTable[mode].getFlagTables()[i].getProbability() / complement;
-            if(prob > r.nextDouble()) {
-                return i;
-            } else {
-                complement = 1.0 - prob;
-            }
-        }
-
-        return modeTable[mode].getFlagTables().length - 1;
+        return modeTable[mode].draw(random);
     }
 
     /**
@@ -683,13 +511,7 @@ public class Slot {
      * @return 重複当選しているかどうか
      */
     private boolean subDraw() {
-        Random r = new Random();
-        double prob = modeTable[mode].getFlagTables()[flag].getSubProbability();
-        if(prob > r.nextDouble()) {
-            return true;
-        } else {
-            return false;
-        }
+        return modeTable[mode].subDraw(flag, random);
     }
 
     /**
@@ -768,7 +590,7 @@ public class Slot {
             // 払い出し枚数を加算
             GameController.addCoin(getFlagInfo().getPayout());
 
-            new Thread(new SoundController.PlaySE(getFlagInfo().getPaySound())).start();
+            SoundController.playSE(getFlagInfo().getPaySound());
             new Thread(new SoundController.LoopBGM(this.bgm)).start();
         }
 
@@ -793,7 +615,7 @@ public class Slot {
             } else {
                 // 払い出し音
                 if(!getFlagInfo().getPaySound().isEmpty()) {
-                    new Thread(new SoundController.PlaySE(getFlagInfo().getPaySound())).start();
+                    SoundController.playSE(getFlagInfo().getPaySound());
                 }
 
                 // 払い出し枚数を加算
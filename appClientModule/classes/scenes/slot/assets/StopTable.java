@@ -0,0 +1,362 @@
+package classes.scenes.slot.assets;
+
+/**
+ * <pre>
+ * リールの停止制御をあらかじめ展開した停止テーブル
+ * (モード, フラグ, リール, 押下時の上段のインデックス, 停止済みリールの停止パターン)ごとに
+ * 滑りコマ数と、対象図柄を停止させた位置(上中下段のビット)を保持する
+ * テーブルはリール配列とモードテーブルのみから構築されるため、画面無しで検証できる
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class StopTable {
+
+    // 有効滑りコマ数
+    private static final int RANGE = 5;
+
+    // 目押しをこぼした時、強制的に書き換えるこぼし目
+    private static final int[] FAIL = new int[] {0, 0, 1};
+
+    // 停止前のリールを表す停止パターン
+    private static final int NOT_STOPPED = 8;
+
+    // 停止パターンの種類数(上中下段のビット + 停止前)
+    private static final int STATES = 9;
+
+    // 停止パターンを格納するビット数
+    private static final int PATTERN_BITS = 3;
+
+    // 各リールのリール配列
+    private int[][] reelOrders;
+
+    // モードテーブル
+    private Mode[] modeTable;
+
+    // [モード][フラグ][リール][他リールの停止パターン * リール長 + 上段のインデックス]
+    private int[][][][] table;
+
+    /**
+     * リール配列とモードテーブルから、全ての停止位置を展開する
+     *
+     * @param reelOrders 各リールのリール配列
+     * @param modeTable  モードテーブル
+     */
+    public StopTable(int[][] reelOrders, Mode[] modeTable) {
+        this.reelOrders = reelOrders;
+        this.modeTable = modeTable;
+        this.table = new int[modeTable.length][][][];
+
+        // 他リールの停止パターンの組み合わせ数
+        int keys = 1;
+        for(int r = 1; r < reelOrders.length; r++) {
+            keys *= STATES;
+        }
+
+        int[] stopped = new int[reelOrders.length];
+        for(int m = 0; m < modeTable.length; m++) {
+            FlagTable[] flags = modeTable[m].getFlagTables();
+            table[m] = new int[flags.length][reelOrders.length][];
+            for(int f = 0; f < flags.length; f++) {
+                for(int r = 0; r < reelOrders.length; r++) {
+                    int len = reelOrders[r].length;
+                    int[] entries = new int[keys * len];
+                    for(int key = 0; key < keys; key++) {
+                        decodeKey(key, r, stopped);
+                        for(int index = 0; index < len; index++) {
+                            entries[key * len + index] = compute(flags[f], r, index, stopped);
+                        }
+                    }
+                    table[m][f][r] = entries;
+                }
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * 停止テーブルを参照する
+     * 戻り値は getSlip()、getPattern() で分解する
+     * </pre>
+     *
+     * @param mode      モード
+     * @param flag      成立フラグのID
+     * @param reel      停止するリール番号
+     * @param index     押下時に上段にある図柄のインデックス
+     * @param validStop 各リールの停止パターン(停止前は長さ0の配列)
+     *
+     * @return 滑りコマ数と停止パターンをまとめた値
+     */
+    public int getEntry(int mode, int flag, int reel, int index, int[][] validStop) {
+        int key = 0;
+        for(int r = 0; r < validStop.length; r++) {
+            if(r == reel) {
+                continue;
+            }
+            key = key * STATES + toState(validStop[r]);
+        }
+        return table[mode][flag][reel][key * reelOrders[reel].length + index];
+    }
+
+    /**
+     * 停止テーブルの値から滑りコマ数を取り出す
+     *
+     * @param entry 停止テーブルの値
+     *
+     * @return 滑りコマ数
+     */
+    public static int getSlip(int entry) {
+        return entry >> PATTERN_BITS;
+    }
+
+    /**
+     * <pre>
+     * 停止テーブルの値から停止パターンを取り出す
+     * ビット0,1,2がそれぞれ上、中、下段を表し、0であれば目押しの失敗を示す
+     * </pre>
+     *
+     * @param entry 停止テーブルの値
+     *
+     * @return 停止パターン
+     */
+    public static int getPattern(int entry) {
+        return entry & ((1 << PATTERN_BITS) - 1);
+    }
+
+    /**
+     * 停止テーブルの値を、上中下段ごとの停止可否の配列に変換する
+     *
+     * @param entry 停止テーブルの値
+     *
+     * @return 上中下段で値が1の時、対象図柄を停止させた位置
+     */
+    public static int[] toStopInfo(int entry) {
+        int pattern = getPattern(entry);
+        return new int[] {pattern & 1, (pattern >> 1) & 1, (pattern >> 2) & 1};
+    }
+
+    /**
+     * <pre>
+     * 左、中、右の順で全ての押下タイミングを試行し、フラグの図柄が入賞する割合を返す
+     * 目押しをせずに押した場合の入賞率に相当する
+     * </pre>
+     *
+     * @param mode モード
+     * @param flag 成立フラグのID
+     *
+     * @return 入賞率
+     */
+    public double getAlignRate(int mode, int flag) {
+        FlagTable ft = modeTable[mode].getFlagTables()[flag];
+        if(ft.getLine() == null || ft.getValidIcon() == null) {
+            return 0.0;
+        }
+
+        int[] top = new int[reelOrders.length];
+        int[][] validStop = new int[reelOrders.length][];
+        long total = 0;
+        long aligned = 0;
+
+        int[] index = new int[reelOrders.length];
+        while(true) {
+            for(int r = 0; r < reelOrders.length; r++) {
+                validStop[r] = new int[] {};
+            }
+            for(int r = 0; r < reelOrders.length; r++) {
+                int entry = getEntry(mode, flag, r, index[r], validStop);
+                int len = reelOrders[r].length;
+                top[r] = (index[r] - getSlip(entry) % len + len) % len;
+                validStop[r] = toStopInfo(entry);
+            }
+
+            total++;
+            if(checkLine(ft, top)) {
+                aligned++;
+            }
+
+            // 押下位置の組み合わせを進める
+            int r = 0;
+            while(r < index.length && ++index[r] == reelOrders[r].length) {
+                index[r] = 0;
+                r++;
+            }
+            if(r == index.length) {
+                break;
+            }
+        }
+        return (double) aligned / total;
+    }
+
+    /**
+     * 停止位置の図柄が有効ライン上に揃っているか判定する
+     *
+     * @param ft  成立フラグ
+     * @param top 各リールの上段の図柄のインデックス
+     *
+     * @return 図柄が有効ライン上に停止しているかどうか
+     */
+    private boolean checkLine(FlagTable ft, int[] top) {
+        for(int[] line: ft.getLine()) {
+            boolean valid = true;
+            for(int i = 0; i < line.length; i++) {
+                int len = reelOrders[i].length;
+                if(reelOrders[i][(top[i] + line[i]) % len] != ft.getValidIcon()[i]) {
+                    valid = false;
+                    break;
+                }
+            }
+            if(valid) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <pre>
+     * 1つの停止位置について滑りコマ数と停止パターンを求める
+     * 有効ライン上の停止可能位置から滑りコマ数の範囲内で最寄りの対象図柄を探し、
+     * 見つからなければ中段にこぼし目を停止させる
+     * </pre>
+     *
+     * @param ft      成立フラグ
+     * @param reel    停止するリール番号
+     * @param index   押下時に上段にある図柄のインデックス
+     * @param stopped 各リールの停止パターン
+     *
+     * @return 滑りコマ数と停止パターンをまとめた値
+     */
+    private int compute(FlagTable ft, int reel, int index, int[] stopped) {
+        int[] reelOrder = reelOrders[reel];
+        int len = reelOrder.length;
+
+        int[] candidates = getCandPos(ft, reel, stopped);
+
+        // 有効停止位置すべてから、最寄りの対象図柄までの距離を調べ、最短のものを採用する
+        int min = RANGE;
+        int[] distance = new int[] {RANGE, RANGE, RANGE};
+        if(ft.getValidIcon() != null) {
+            int targetIcon = ft.getValidIcon()[reel];
+            for(int i = 0; i < candidates.length; i++) {
+                // 有効ライン上になければ無視
+                if(candidates[i] == 0) continue;
+
+                int pos = (index + i) % len;
+                for(int j = 0; j < RANGE; j++) {
+                    if(reelOrder[pos] == targetIcon) {
+                        distance[i] = j;
+                        break;
+                    }
+                    pos--;
+                    if(pos < 0) {
+                        pos = len - 1;
+                    }
+                }
+                min = Math.min(min, distance[i]);
+            }
+        }
+
+        if(min < RANGE) {
+            int pattern = 0;
+            for(int i = 0; i < distance.length; i++) {
+                if(distance[i] == min) {
+                    pattern |= 1 << i;
+                }
+            }
+            return (min << PATTERN_BITS) | pattern;
+        }
+
+        // こぼし目は強制中段
+        int pos = (index + 1) % len;
+        int slip = 0;
+        for(int j = 0; j < len; j++) {
+            if(reelOrder[pos] == FAIL[reel]) {
+                slip = j;
+                break;
+            }
+            pos--;
+            if(pos < 0) {
+                pos = len - 1;
+            }
+        }
+        return slip << PATTERN_BITS;
+    }
+
+    /**
+     * <pre>
+     * 停止済みのリールを参照して、停止対象のリールが対象図柄を止められる位置を判断する
+     * int[3]がそれぞれ上、中、下段を表し、値が1のときその位置に停止可能であることを示す
+     * </pre>
+     *
+     * @param ft      成立フラグ
+     * @param reel    停止するリール番号
+     * @param stopped 各リールの停止パターン
+     *
+     * @return フラグの対象図柄を停止できる位置の配列
+     */
+    private int[] getCandPos(FlagTable ft, int reel, int[] stopped) {
+        int[] posBit = new int[] {0, 0, 0};
+        if(ft.getLine() == null) {
+            return posBit;
+        }
+
+        for(int[] line: ft.getLine()) {
+
+            // 従来の制御に合わせ、リール番号と同じ段が停止可能になった時点で以降のラインは見ない
+            if(posBit[reel] == 1) {
+                continue;
+            }
+
+            boolean valid = true;
+            for(int i = 0; i < line.length; i++) {
+                // 停止されているリールが該当有効ライン上には停止していない場合、このラインは否定
+                if(stopped[i] != NOT_STOPPED && (stopped[i] >> line[i] & 1) != 1) {
+                    valid = false;
+                }
+            }
+
+            if(valid) {
+                posBit[line[reel]] = 1;
+            }
+        }
+        return posBit;
+    }
+
+    /**
+     * テーブルのキーを各リールの停止パターンに展開する
+     *
+     * @param key     他リールの停止パターンを9進数で表したキー
+     * @param reel    停止するリール番号
+     * @param stopped 展開先の停止パターンの配列
+     */
+    private void decodeKey(int key, int reel, int[] stopped) {
+        for(int r = stopped.length - 1; r >= 0; r--) {
+            if(r == reel) {
+                stopped[r] = NOT_STOPPED;
+                continue;
+            }
+            stopped[r] = key % STATES;
+            key /= STATES;
+        }
+    }
+
+    /**
+     * 上中下段ごとの停止可否の配列を停止パターンに変換する
+     *
+     * @param stopInfo 停止可否の配列(停止前は長さ0)
+     *
+     * @return 停止パターン
+     */
+    private static int toState(int[] stopInfo) {
+        if(stopInfo.length == 0) {
+            return NOT_STOPPED;
+        }
+        int state = 0;
+        for(int i = 0; i < stopInfo.length; i++) {
+            if(stopInfo[i] == 1) {
+                state |= 1 << i;
+            }
+        }
+        return state;
+    }
+}
@@ -7,6 +7,7 @@ import java.util.List;
 
 import classes.controllers.GameController;
 import classes.scenes.slot.assets.*;
+import classes.utils.GeneralUtil;
 
 /**
  * グラフィックスオブジェクトに対して描画を行うメソッドを集約したユーティリティクラス
@@ -159,13 +160,12 @@ public class DrawUtil {
     public static void drawSlotFrame(Slot slot,  Graphics g) {
         int drawX = (int) GameController.getWindow().getAbsPosX(-18);
         int drawY = (int) GameController.getWindow().getAbsPosY(-87);
-        g.drawImage(
-                slot.getSlotFrame(),
+        slot.getSlotFrame().draw(
+                g,
                 drawX,
                 drawY,
                 (int) GameController.getWindow().getAbsPosX(slot.getSlotFrame().getWidth()),
-                (int) GameController.getWindow().getAbsPosY(slot.getSlotFrame().getHeight()),
-                null
+                (int) GameController.getWindow().getAbsPosY(slot.getSlotFrame().getHeight())
                 );
     }
 
@@ -178,20 +178,16 @@ public class DrawUtil {
     public static void drawSlotLamp(Slot slot, Graphics g) {
         for (Lamp lamp: slot.getLamps()) {
 
-            // もとは消灯時のイメージを使用する
-            BufferedImage img = lamp.getImage();
-            // ランプオンの時は最大値、または点滅モードの明るさを参照して明るくする
-            BufferedImage tmp = new BufferedImage(img.getWidth(), img.getHeight(), img.getType());
-            tmp = lamp.getLuminance().filter(img, tmp);
-            g.drawImage(
+            // ランプオンの時は最大値、または点滅モードの明るさに最も近い生成済みの画像を使用する
+            BufferedImage tmp = lamp.getBrightImage();
+            GeneralUtil.drawScaled(
                     tmp,
                     (int) GameController.getWindow().getAbsPosX(lamp.getX()),
                     (int) GameController.getWindow().getAbsPosY(lamp.getY()),
                     (int) GameController.getWindow().getAbsPosX(tmp.getWidth()),
                     (int) GameController.getWindow().getAbsPosY(tmp.getHeight()),
-                    null
+                    g
                     );
-            tmp.flush();
 
         }
     }
@@ -206,16 +202,15 @@ public class DrawUtil {
         for (Button button: slot.getButtons()) {
             BufferedImage img = button.getImage();
             if(button.isOn()) {
-                BufferedImage tmp = new BufferedImage(img.getWidth(), img.getHeight(), img.getType());
-                img = button.getLuminance().filter(img, tmp);
+                img = button.getBrightImage();
             }
-            g.drawImage(
+            GeneralUtil.drawScaled(
                     img,
                     (int) GameController.getWindow().getAbsPosX(button.getX()),
                     (int) GameController.getWindow().getAbsPosY(button.getY()),
                     (int) GameController.getWindow().getAbsPosX(img.getWidth()),
                     (int) GameController.getWindow().getAbsPosY(img.getHeight()),
-                    null
+                    g
                     );
         }
     }
@@ -236,13 +231,13 @@ public class DrawUtil {
             img = lever.getImageUp();
         }
 
-        g.drawImage(
+        GeneralUtil.drawScaled(
                 img,
                 (int) GameController.getWindow().getAbsPosX(lever.getX()),
                 (int) GameController.getWindow().getAbsPosY(lever.getY()),
                 (int) GameController.getWindow().getAbsPosX(img.getWidth() * ratio),
                 (int) GameController.getWindow().getAbsPosY(img.getHeight() * ratio),
-                null);
+                g);
     }
 
     /**
@@ -0,0 +1,416 @@
+package classes.scenes.slot.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.DoubleSupplier;
+
+import classes.scenes.slot.assets.FlagTable;
+import classes.scenes.slot.assets.Mode;
+import classes.scenes.slot.assets.Reel;
+import classes.scenes.slot.assets.StopTable;
+
+/**
+ * <pre>
+ * スロットの確率テーブルを画面、サウンド無しで試行するシミュレータ
+ * SlotStageと同じモードテーブルに対して、Slotのレバーオンから払い出しまでの流れを再現する
+ * 試行はスレッドごとに独立したSplittableRandomで並列に行う
+ *
+ * 実行例: java classes.scenes.slot.utils.SlotSimulator [ゲーム数] [スレッド数] [シード] [目押し成功率]
+ * 目押し成功率に負の値を指定すると、停止テーブルから求めた目押し無しの入賞率で試行する
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class SlotSimulator {
+
+    // 1プレイのベット枚数
+    private static final int MAXBET = 3;
+
+    // 滞在ゲーム数ヒストグラムの区間数(2のべき乗区切り)
+    private static final int BUCKETS = 16;
+
+    // 試行に使用するモードテーブル
+    private final Mode[] modeTable;
+
+    // 目押しが必要な役(ボーナス、チェリー、スイカ)を入賞させる確率
+    private final double skill;
+
+    // 目押し無しで押した場合の[モード][フラグ]ごとの入賞率
+    private final double[][] alignRate;
+
+    /**
+     * 試行対象のモードテーブル、打ち手の目押し成功率を設定
+     *
+     * @param modeTable モードテーブル
+     * @param skill     目押しが必要な役を入賞させる確率(1.0で完全攻略)
+     */
+    public SlotSimulator(Mode[] modeTable, double skill) {
+        this.modeTable = modeTable;
+        this.skill = skill;
+        this.alignRate = null;
+    }
+
+    /**
+     * <pre>
+     * 試行対象のモードテーブルを設定し、目押し無しで押す打ち手を想定する
+     * 入賞率は停止テーブルで全ての押下タイミングを試行して求める
+     * </pre>
+     *
+     * @param modeTable モードテーブル
+     * @param stopTable 停止テーブル
+     */
+    public SlotSimulator(Mode[] modeTable, StopTable stopTable) {
+        this.modeTable = modeTable;
+        this.skill = 0.0;
+        this.alignRate = new double[modeTable.length][];
+        for(int m = 0; m < modeTable.length; m++) {
+            alignRate[m] = new double[modeTable[m].getFlagTables().length];
+            for(int f = 0; f < alignRate[m].length; f++) {
+                alignRate[m][f] = stopTable.getAlignRate(m, f);
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * 指定ゲーム数をスレッドに分割して試行し、集計結果を返す
+     * 同じシード、スレッド数であれば結果は再現する
+     * </pre>
+     *
+     * @param games   試行ゲーム数
+     * @param threads スレッド数
+     * @param seed    乱数のシード
+     *
+     * @return 集計結果
+     */
+    public Result run(long games, int threads, long seed) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Result>> futures = new ArrayList<Future<Result>>();
+
+        // スレッドごとの乱数はルートの乱数から分岐させる
+        SplittableRandom root = new SplittableRandom(seed);
+        for(int i = 0; i < threads; i++) {
+            long n = games / threads + (i < games % threads ? 1 : 0);
+            SplittableRandom random = root.split();
+            futures.add(pool.submit(() -> simulate(n, random)));
+        }
+
+        Result total = new Result(modeTable.length);
+        try {
+            for(Future<Result> f: futures) {
+                total.merge(f.get());
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        } finally {
+            pool.shutdown();
+        }
+        return total;
+    }
+
+    /**
+     * <pre>
+     * 1スレッド分の試行を行う
+     * 状態遷移はSlot.leverOn()、Slot.payout()に準ずる
+     * </pre>
+     *
+     * @param games  試行ゲーム数
+     * @param random スレッド専用の乱数
+     *
+     * @return 集計結果
+     */
+    private Result simulate(long games, SplittableRandom random) {
+        Result result = new Result(modeTable.length);
+        DoubleSupplier r = random::nextDouble;
+
+        int mode = 0;
+        int flag = modeTable[mode].getFlagTables().length - 1;
+        int payout = 0;
+        boolean isBonus = false;
+        boolean isReplay = false;
+
+        // 現在のモードに連続して滞在しているゲーム数
+        int stay = 0;
+
+        for(long g = 0; g < games; g++) {
+
+            // 滞在ゲーム数はレバーオン時のモードで数える
+            result.modeGames[mode]++;
+            int leverMode = mode;
+
+            if(!isReplay) {
+                result.coinIn += MAXBET;
+            }
+            isReplay = false;
+
+            flag = modeTable[mode].draw(r);
+            FlagTable ft = modeTable[mode].getFlagTables()[flag];
+            result.flagHits[ft.getType()]++;
+
+            if(ft.getType() == Mode.BONUS && !isBonus) {
+                mode = ft.getDestMode();
+                flag = 0;
+                isBonus = true;
+                result.bonusHits[mode]++;
+            } else if(ft.getType() == Mode.REPLAY) {
+                isReplay = true;
+            }
+
+            ft = modeTable[mode].getFlagTables()[flag];
+            int type = ft.getType();
+
+            if(type == Mode.FREEZE) {
+                result.coinOut += ft.getPayout();
+            }
+
+            else if(isAligned(mode, flag, random)) {
+                if(type == Mode.BONUS) {
+                    isBonus = false;
+                    payout = ft.getPayout();
+                    result.bonusWins++;
+                    mode = ft.getDestMode();
+                } else {
+                    result.coinOut += ft.getPayout();
+                    if(payout > 0) {
+                        payout -= ft.getPayout();
+                        if(payout <= 0) {
+                            payout = 0;
+                            mode = 0;
+                            flag = modeTable[mode].getFlagTables().length - 1;
+                        }
+                    }
+                }
+            }
+
+            // 重複抽選は取りこぼしても行われる
+            if(modeTable[mode].subDraw(flag, r)) {
+                mode = modeTable[mode].getFlagTables()[flag].getDestMode();
+                flag = 0;
+            }
+
+            stay++;
+            if(mode != leverMode) {
+                result.addStay(leverMode, stay);
+                stay = 0;
+            }
+        }
+
+        if(stay > 0) {
+            result.addStay(mode, stay);
+        }
+
+        result.games = games;
+        return result;
+    }
+
+    /**
+     * <pre>
+     * 成立フラグの図柄を有効ライン上に揃えられたかを判定する
+     * ベル、リプレイ、はずれはリール制御で必ず揃うため目押しの成否を問わない
+     * 停止テーブルの入賞率が設定されている場合はそちらを使用する
+     * </pre>
+     *
+     * @param mode   モード
+     * @param flag   成立フラグのID
+     * @param random スレッド専用の乱数
+     *
+     * @return 入賞したかどうか
+     */
+    private boolean isAligned(int mode, int flag, SplittableRandom random) {
+        FlagTable ft = modeTable[mode].getFlagTables()[flag];
+        if(ft.getLine() == null) {
+            return false;
+        }
+        if(alignRate != null) {
+            return random.nextDouble() < alignRate[mode][flag];
+        }
+        switch(ft.getType()) {
+        case Mode.BONUS:
+        case Mode.CHERRY:
+        case Mode.SUIKA:
+            return skill >= 1.0 || random.nextDouble() < skill;
+        default:
+            return true;
+        }
+    }
+
+    /**
+     * シミュレーションの集計結果を保持するインナークラス
+     */
+    public static class Result {
+
+        // 試行ゲーム数
+        private long games;
+
+        // 投入枚数、払い出し枚数
+        private long coinIn;
+        private long coinOut;
+
+        // 役の種類ごとの成立回数
+        private long[] flagHits = new long[Mode.HAZURE + 1];
+
+        // 移行先のボーナス入賞待ちモードごとのボーナス成立回数
+        private long[] bonusHits;
+
+        // ボーナス入賞回数
+        private long bonusWins;
+
+        // モードごとの滞在ゲーム数
+        private long[] modeGames;
+
+        // モードごとの連続滞在ゲーム数のヒストグラム
+        private long[][] stayHistogram;
+
+        /**
+         * モード数に応じて集計領域を確保
+         *
+         * @param modes モード数
+         */
+        private Result(int modes) {
+            bonusHits = new long[modes];
+            modeGames = new long[modes];
+            stayHistogram = new long[modes][BUCKETS];
+        }
+
+        /**
+         * 連続滞在ゲーム数をヒストグラムに加算する
+         *
+         * @param mode モード
+         * @param stay 連続滞在ゲーム数
+         */
+        private void addStay(int mode, int stay) {
+            int bucket = Math.min(BUCKETS - 1, 31 - Integer.numberOfLeadingZeros(stay));
+            stayHistogram[mode][bucket]++;
+        }
+
+        /**
+         * 他のスレッドの集計結果を合算する
+         *
+         * @param other 合算する集計結果
+         */
+        private void merge(Result other) {
+            games += other.games;
+            coinIn += other.coinIn;
+            coinOut += other.coinOut;
+            bonusWins += other.bonusWins;
+            for(int i = 0; i < flagHits.length; i++) {
+                flagHits[i] += other.flagHits[i];
+            }
+            for(int i = 0; i < modeGames.length; i++) {
+                bonusHits[i] += other.bonusHits[i];
+                modeGames[i] += other.modeGames[i];
+                for(int j = 0; j < BUCKETS; j++) {
+                    stayHistogram[i][j] += other.stayHistogram[i][j];
+                }
+            }
+        }
+
+        /**
+         * 試行ゲーム数を返す
+         *
+         * @return 試行ゲーム数
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * 機械割(払い出し枚数 / 投入枚数)を返す
+         *
+         * @return 機械割
+         */
+        public double getPayoutRate() {
+            return coinIn == 0 ? 0.0 : (double) coinOut / coinIn;
+        }
+
+        /**
+         * ボーナス成立1回あたりのゲーム数を返す
+         *
+         * @return ボーナス確率の分母
+         */
+        public double getBonusFrequency() {
+            long hits = 0;
+            for(long h: bonusHits) {
+                hits += h;
+            }
+            return hits == 0 ? 0.0 : (double) games / hits;
+        }
+
+        /**
+         * 集計結果を表形式の文字列で返す
+         *
+         * @return 集計結果の文字列
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("games        : %d%n", games));
+            sb.append(String.format("coin in/out  : %d / %d%n", coinIn, coinOut));
+            sb.append(String.format("payout rate  : %.4f%n", getPayoutRate()));
+            sb.append(String.format("bonus        : 1/%.2f (won %d)%n", getBonusFrequency(), bonusWins));
+            for(int i = 0; i < bonusHits.length; i++) {
+                if(bonusHits[i] > 0) {
+                    sb.append(String.format("  -> mode %d  : 1/%.2f%n", i, (double) games / bonusHits[i]));
+                }
+            }
+
+            String[] names = {"FREEZE", "BONUS", "CHERRY", "SUIKA", "BELL", "REPLAY", "HAZURE"};
+            sb.append(String.format("flags%n"));
+            for(int i = 0; i < flagHits.length; i++) {
+                sb.append(String.format("  %-10s : %.6f%n", names[i], (double) flagHits[i] / games));
+            }
+
+            sb.append(String.format("mode residency%n"));
+            for(int i = 0; i < modeGames.length; i++) {
+                sb.append(String.format("  mode %d     : %.6f%n", i, (double) modeGames[i] / games));
+            }
+
+            sb.append(String.format("stay histogram (games: count)%n"));
+            for(int i = 0; i < stayHistogram.length; i++) {
+                if(modeGames[i] == 0) {
+                    continue;
+                }
+                sb.append(String.format("  mode %d%n", i));
+                for(int j = 0; j < BUCKETS; j++) {
+                    if(stayHistogram[i][j] == 0) {
+                        continue;
+                    }
+                    String range = j == BUCKETS - 1
+                            ? String.format("%d-", 1 << j)
+                            : String.format("%d-%d", 1 << j, (1 << (j + 1)) - 1);
+                    sb.append(String.format("    %-12s: %d%n", range, stayHistogram[i][j]));
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * コマンドラインからシミュレーションを実行する
+     *
+     * @param args ゲーム数、スレッド数、シード、目押し成功率(いずれも省略可)
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 10000000L;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        double skill = args.length > 3 ? Double.parseDouble(args[3]) : 1.0;
+
+        Mode[] modeTable = Mode.getModeTable();
+        SlotSimulator simulator = skill < 0.0
+                ? new SlotSimulator(modeTable, new StopTable(Reel.getReelOrders(), modeTable))
+                : new SlotSimulator(modeTable, skill);
+
+        long start = System.nanoTime();
+        Result result = simulator.run(games, threads, seed);
+        double sec = (System.nanoTime() - start) / 1e9;
+
+        System.out.print(result);
+        System.out.println(String.format("elapsed      : %.2fs (%.0f games/s, %d threads)", sec, games / sec, threads));
+    }
+}
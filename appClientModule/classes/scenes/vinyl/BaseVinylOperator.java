@@ -76,10 +76,8 @@ public class BaseVinylOperator extends JLayeredPane implements KeyListener {
      * @see java.awt.event.KeyListener
      */
     public void keyPressed(KeyEvent e) {
-        int key = e.getKeyCode();
-        if (keyConfig.getKeys().containsKey(key)) {
-            keyConfig.getKeys().get(key).press();
-        }
+        // キーの状態はゲームループのスレッドで更新する
+        keyConfig.offer(e);
     }
 
     /**
@@ -87,10 +85,8 @@ public class BaseVinylOperator extends JLayeredPane implements KeyListener {
      * @see java.awt.event.KeyListener
      */
     public void keyReleased(KeyEvent e) {
-        int key = e.getKeyCode();
-        if (keyConfig.getKeys().containsKey(key)) {
-            keyConfig.getKeys().get(key).release();
-        }
+        // キーの状態はゲームループのスレッドで更新する
+        keyConfig.offer(e);
     }
 
     /**
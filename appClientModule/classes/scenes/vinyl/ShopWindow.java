@@ -7,7 +7,6 @@ import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import javax.swing.JLayeredPane;
 
@@ -28,13 +27,14 @@ import classes.ui.StringSelectOption;
 import classes.utils.GeneralUtil;
 
 import interfaces.GameScene;
+import interfaces.ModalScene;
 
 /**
  * レコード屋の買い物用ウィンドウを定義するクラス
  *
  * @author Naoki Yoshikawa
  */
-public class ShopWindow extends BaseSystemOperator implements GameScene {
+public class ShopWindow extends BaseSystemOperator implements GameScene, ModalScene {
 
     // 商品レコードの配列
     private VinylStock[] vinyls;
@@ -56,9 +56,6 @@ public class ShopWindow extends BaseSystemOperator implements GameScene {
      // 表示するスクリプトを表すインデックス
      private int scriptIndex;
 
-     // コイン数を表示するのに使用する数字のフォント画像のリスト
-     private Map<Character, BufferedImage> numFontMap;
-
      // UIテキスト用のオブジェクト
      private StringSelectOption sold;
      private StringSelectOption coin;
@@ -84,7 +81,6 @@ public class ShopWindow extends BaseSystemOperator implements GameScene {
         keyConfig.getKeys().put(KeyEvent.VK_C, keyConfig.new Key(KeyController.DETECT_INITIAL_PRESS_ONLY));
 
         // 画像の読み込み
-        numFontMap = GeneralUtil.stringToImageMap(FontController.Fonts.NORMAL, "0123456789-");
         owner = GeneralUtil.readImage(ImageResource.VinylIcon.OWNER.getValue());
 
         // 商品レコードの設定
@@ -301,6 +297,30 @@ public class ShopWindow extends BaseSystemOperator implements GameScene {
         }
     }
 
+    /**
+     * 商品レコードごとの在庫数を返す
+     *
+     * @return 在庫数の配列
+     */
+    public int[] getStocks() {
+        int[] stocks = new int[vinyls.length];
+        for(int i = 0; i < vinyls.length; i++) {
+            stocks[i] = vinyls[i].stock;
+        }
+        return stocks;
+    }
+
+    /**
+     * 商品レコードごとの在庫数を設定する
+     *
+     * @param stocks 在庫数の配列
+     */
+    public void setStocks(int[] stocks) {
+        for(int i = 0; i < vinyls.length && i < stocks.length; i++) {
+            vinyls[i].stock = stocks[i];
+        }
+    }
+
     /**
      * フレームごとの再描画を行う
      *
@@ -310,13 +330,13 @@ public class ShopWindow extends BaseSystemOperator implements GameScene {
     public void paintComponent(Graphics g) {
 
         // ウィンドウ背景の描画
-        g.drawImage(
+        GeneralUtil.drawScaled(
                 script.getBackground(),
                 (int) GameController.getWindow().getAbsPosX(WindowController.WIDTH/4),
                 (int) GameController.getWindow().getAbsPosY(30),
                 (int) GameController.getWindow().getAbsPosX(480),
                 (int) GameController.getWindow().getAbsPosY(480),
-                null
+                g
                 );
 
         // インデックスで指定したスクリプトを表示
@@ -330,13 +350,13 @@ public class ShopWindow extends BaseSystemOperator implements GameScene {
 
         // 店員キャラクターの描画
         double wave = GeneralUtil.getSinValue(System.currentTimeMillis() / 1000.0, 1.0, 0, 5);
-        g.drawImage(
+        GeneralUtil.drawScaled(
                 owner,
                 (int) GameController.getWindow().getAbsPosX(250),
                 (int) GameController.getWindow().getAbsPosY(350 + wave),
                 (int) GameController.getWindow().getAbsPosX(128),
                 (int) GameController.getWindow().getAbsPosY(128),
-                null
+                g
                 );
 
         // ジャケットの描画
@@ -346,13 +366,13 @@ public class ShopWindow extends BaseSystemOperator implements GameScene {
             double drawWidth = jacket.getWidth()/4;
             double drawHeight = jacket.getHeight()/4;
             if(cursorVinylIndex != i) {
-                g.drawImage(
+                GeneralUtil.drawScaled(
                         jacket,
                         (int) GameController.getWindow().getAbsPosX(350 + (jacket.getWidth()/6 * i) - drawWidth/2),
                         (int) GameController.getWindow().getAbsPosY(250 - drawHeight/2),
                         (int) GameController.getWindow().getAbsPosX(drawWidth),
                         (int) GameController.getWindow().getAbsPosY(drawHeight),
-                        null
+                        g
                         );
             }
         }
@@ -417,7 +437,7 @@ public class ShopWindow extends BaseSystemOperator implements GameScene {
                 );
         GeneralUtil.drawDynamicString(
                 Integer.toString(GameController.getCoin()),
-                numFontMap,
+                FontController.Fonts.NORMAL,
                 770,
                 400,
                 20,
@@ -454,13 +474,13 @@ public class ShopWindow extends BaseSystemOperator implements GameScene {
             scriptIndex = cursorVinylIndex;
             script.getScriptList().get(scriptIndex).resetIndex();
             count = 0;
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
         } else if (keyConfig.getKeys().get(KeyEvent.VK_RIGHT).isPressed()) {
             next();
             scriptIndex = cursorVinylIndex;
             script.getScriptList().get(scriptIndex).resetIndex();
             count = 0;
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
         }
 
         if(keyConfig.getKeys().get(KeyEvent.VK_ENTER).isPressed()) {
@@ -572,7 +592,7 @@ public class ShopWindow extends BaseSystemOperator implements GameScene {
             GameController.addVinyl(vinyls[cursorVinylIndex].vinyl);
             vinyls[cursorVinylIndex].stock--;
             scriptIndex = vinyls.length + 2;
-            new Thread(new SoundController.PlaySE(SoundResource.SE_CLOCK)).start();
+            SoundController.playSE(SoundResource.SE_CLOCK);
         } else {
             scriptIndex = cursorVinylIndex;
         }
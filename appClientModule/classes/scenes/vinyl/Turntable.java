@@ -188,37 +188,41 @@ public class Turntable extends BaseVinylOperator implements GameScene {
         g.fillRect(0, 0, (int) GameController.getWindow().getWindowWidth(), (int) GameController.getWindow().getWindowHeight());
 
         // ターンテーブル
-        g.drawImage(
+        GeneralUtil.drawScaled(
                 turntable,
                 0,
                 0,
                 (int) w.getWindowWidth(),
                 (int) w.getWindowHeight(),
-                null
+                g
                 );
 
         // レコード
-        if(vinylY + playingVinyl.getHeight() > 0) {
-            g.drawImage(
+        // 中間画像は生成せず、回転と拡大をグラフィックスの変換行列で行う
+        if(vinylY + getRotatedHeight() > 0) {
+            Graphics2D g2 = (Graphics2D) g;
+            AffineTransform saved = g2.getTransform();
+            g2.translate(w.getAbsPosX(WindowController.WIDTH/2), w.getAbsPosY(vinylY));
+            g2.scale(w.getAbsPosX(WIDTH_RATIO), w.getAbsPosY(HEIGHT_RATIO));
+            g2.rotate(vinylDegree);
+            g2.drawImage(
                     playingVinyl,
-                    (int) w.getAbsPosX(WindowController.WIDTH/2 - playingVinyl.getWidth()/2 * WIDTH_RATIO),
-                    (int) w.getAbsPosY(vinylY - playingVinyl.getHeight()/2 * HEIGHT_RATIO),
-                    (int) w.getAbsPosX(playingVinyl.getWidth() * WIDTH_RATIO),
-                    (int) w.getAbsPosY(playingVinyl.getHeight() * HEIGHT_RATIO),
+                    -playingVinyl.getWidth()/2,
+                    -playingVinyl.getHeight()/2,
                     null
                     );
-                playingVinyl.flush();
+            g2.setTransform(saved);
         }
 
         // レコードのジャケット
         double wave = GeneralUtil.getSinValue(System.currentTimeMillis() / 1000.0, 1.0, 0, 6);
-        g.drawImage(
+        GeneralUtil.drawScaled(
                 v.getJacket(),
                 (int) w.getAbsPosX(200),
                 (int) w.getAbsPosY(20 + wave),
                 (int) w.getAbsPosX(v.getJacket().getWidth()/3),
                 (int) w.getAbsPosY(v.getJacket().getHeight()/3),
-                null
+                g
                 );
 
         // レコードのタイトル
@@ -266,47 +270,14 @@ public class Turntable extends BaseVinylOperator implements GameScene {
     }
 
     /**
-     * 画像を回転させて新しい画像を返す
+     * 回転後のレコード画像を囲む矩形の高さを返す
      *
-     * @param img  回転させる元の画像オブジェクト
-     * @param rads 回転させる角度
-     * @return 回転させて描画した画像オブジェクト
+     * @return 回転後の矩形の高さ
      */
-    private BufferedImage rotateImage(BufferedImage img, double rads) {
-
-        // 回転角をマッピング
-        double sin = Math.abs(Math.sin(rads));
-        double cos = Math.abs(Math.cos(rads));
-
-        // 変換前後の矩形サイズを算出
-        int width = img.getWidth();
-        int height = img.getHeight();
-        int newWidth = (int) Math.floor(width * cos + height * sin);
-        int newHeight = (int) Math.floor(height * cos + width * sin);
-
-        // 開店後の矩形オブジェクトを設定
-        BufferedImage rotated = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = rotated.createGraphics();
-
-        // 矩形サイズの変形前後でのサイズ差分を補正
-        AffineTransform at = new AffineTransform();
-        at.translate((newWidth - width) / 2, (newHeight - height) / 2);
-
-        // 回転軸座標の設定
-        int x = width / 2;
-        int y = height / 2;
-
-        // 回転の適用
-        at.rotate(rads, x, y);
-        g2d.setTransform(at);
-        g2d.drawImage(img, 0, 0, this);
-        /*
-        g2d.setColor(Color.RED);
-        g2d.drawRect(0, 0, newWidth - 1, newHeight - 1);
-        */
-        g2d.dispose();
-
-        return rotated;
+    private double getRotatedHeight() {
+        double sin = Math.abs(Math.sin(vinylDegree));
+        double cos = Math.abs(Math.cos(vinylDegree));
+        return Math.floor(playingVinyl.getHeight() * cos + playingVinyl.getWidth() * sin);
     }
 
     /**
@@ -382,11 +353,11 @@ public class Turntable extends BaseVinylOperator implements GameScene {
         // 上下キーはトラックを選択する
         if (keyConfig.getKeys().get(KeyEvent.VK_UP).isPressed()) {
             previousTrack();
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
             degree = 0;
         } else if (keyConfig.getKeys().get(KeyEvent.VK_DOWN).isPressed()) {
             nextTrack();
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
             degree = 0;
         } else if (keyConfig.getKeys().get(KeyEvent.VK_ENTER).isPressed()) {
 
@@ -451,7 +422,7 @@ public class Turntable extends BaseVinylOperator implements GameScene {
 
         /* レコードの入れ替え */
         // レコードが上昇して画面外にでるまで
-        if(vinylY < -playingVinyl.getHeight() * HEIGHT_RATIO) {
+        if(vinylY < -getRotatedHeight() * HEIGHT_RATIO) {
             vinylVY = LIFT_SPEED;
             playingVinylIndex = tmpVinylIndex;
             vinylDegree = 0;
@@ -468,11 +439,11 @@ public class Turntable extends BaseVinylOperator implements GameScene {
         if (keyConfig.getKeys().get(KeyEvent.VK_LEFT).isPressed()) {
             previousVinyl();
             cursorTrackIndex = 0;
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
         } else if (keyConfig.getKeys().get(KeyEvent.VK_RIGHT).isPressed()) {
             nextVinyl();
             cursorTrackIndex = 0;
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
         }
 
         // 操作キー一覧の表示
@@ -495,7 +466,7 @@ public class Turntable extends BaseVinylOperator implements GameScene {
             player.switchLabel(ImageResource.STAND_RIGHT);
         }
 
-        playingVinyl = rotateImage(v.getVinylImg(), vinylDegree);
+        playingVinyl = v.getVinylImg();
     }
 
     /**
@@ -30,6 +30,7 @@ import classes.scenes.slot.SlotHall;
 import classes.utils.GeneralUtil;
 
 import interfaces.GameScene;
+import interfaces.PersistentScene;
 
 /**
  * <pre>
@@ -40,7 +41,7 @@ import interfaces.GameScene;
  * @author Naoki Yoshikawa
  **/
 @SuppressWarnings("serial")
-public class VinylShop extends BaseVinylOperator implements GameScene {
+public class VinylShop extends BaseVinylOperator implements GameScene, PersistentScene {
 
     /* 定数群 */
     private final int TILE_SIZE = 64; // 1タイルあたりの大きさ
@@ -294,17 +295,13 @@ public class VinylShop extends BaseVinylOperator implements GameScene {
         }
 
         double wave = GeneralUtil.getSinValue(System.currentTimeMillis() / 1000.0, 1.0, 0, 12);
-        g.drawImage(
+        GeneralUtil.drawScaled(
                 owner,
                 (int) GameController.getWindow().getAbsPosX(400),
                 (int) GameController.getWindow().getAbsPosY(wave),
-                (int) GameController.getWindow().getAbsPosX(496),
-                (int) GameController.getWindow().getAbsPosY(96 + wave),
-                0,
-                0,
-                owner.getWidth(),
-                owner.getHeight(),
-                null
+                (int) GameController.getWindow().getAbsPosX(96),
+                (int) GameController.getWindow().getAbsPosY(96),
+                g
                 );
 
 
@@ -331,13 +328,13 @@ public class VinylShop extends BaseVinylOperator implements GameScene {
                     case 6: case 7: case 8: case 9: case 10:
                         //BufferedImage box = boxes[objMap[i*TILE_NUM + j] - 1];
                         BufferedImage box = boxes[r.nextInt(10)];
-                        g.drawImage(
+                        GeneralUtil.drawScaled(
                                 box,
                                 (int) GameController.getWindow().getAbsPosX(lifted.getX() - box.getWidth()/2),
                                 (int) GameController.getWindow().getAbsPosY(lifted.getY() - TILE_SIZE/2),
                                 (int) GameController.getWindow().getAbsPosX(box.getWidth()),
                                 (int) GameController.getWindow().getAbsPosY(box.getHeight()),
-                                null
+                                g
                                 );
                         break;
 
@@ -345,41 +342,37 @@ public class VinylShop extends BaseVinylOperator implements GameScene {
                     case 11: case 12: case 13: case 14: case 15:
                     case 16: case 17: case 18: case 19: case 20:
                         box = boxes[r.nextInt(10)];
-                        g.drawImage(
+                        GeneralUtil.drawScaledFlipped(
                                 box,
                                 (int) GameController.getWindow().getAbsPosX(lifted.getX() - box.getWidth()/2),
                                 (int) GameController.getWindow().getAbsPosY(lifted.getY() - TILE_SIZE/2),
-                                (int) GameController.getWindow().getAbsPosX(lifted.getX() - box.getWidth()/2 + box.getWidth()),
-                                (int) GameController.getWindow().getAbsPosY(lifted.getY() - TILE_SIZE/2 + box.getHeight()),
-                                box.getWidth(),
-                                0,
-                                0,
-                                box.getHeight(),
-                                null
+                                (int) GameController.getWindow().getAbsPosX(box.getWidth()),
+                                (int) GameController.getWindow().getAbsPosY(box.getHeight()),
+                                g
                                 );
                         break;
 
                     // ターンテーブル
                     case 21:
-                        g.drawImage(
+                        GeneralUtil.drawScaled(
                                 turntable,
                                 (int) GameController.getWindow().getAbsPosX(lifted.getX() - 110/2 * 3),
                                 (int) GameController.getWindow().getAbsPosY(lifted.getY() - TILE_SIZE/2),
                                 (int) GameController.getWindow().getAbsPosX(turntable.getWidth()),
                                 (int) GameController.getWindow().getAbsPosY(turntable.getHeight()),
-                                null
+                                g
                                 );
                         break;
 
                     // レジカウンター
                     case 22:
-                        g.drawImage(
+                        GeneralUtil.drawScaled(
                                 cashier,
                                 (int) GameController.getWindow().getAbsPosX(lifted.getX() - 110/2 * 3),
                                 (int) GameController.getWindow().getAbsPosY(lifted.getY() - TILE_SIZE/2 * 4),
                                 (int) GameController.getWindow().getAbsPosX(cashier.getWidth()),
                                 (int) GameController.getWindow().getAbsPosY(cashier.getHeight()),
-                                null
+                                g
                                 );
                         break;
                     default:
@@ -610,6 +603,28 @@ public class VinylShop extends BaseVinylOperator implements GameScene {
         sw.restock();
     }
 
+    /**
+     * 引き継ぐ状態としてレコードの在庫数を返す
+     * @see interfaces.PersistentScene
+     *
+     * @return 在庫数の配列
+     */
+    public Object saveState() {
+        ShopWindow sw = (ShopWindow) shopWindow;
+        return sw.getStocks();
+    }
+
+    /**
+     * レコードの在庫数を復元する
+     * @see interfaces.PersistentScene
+     *
+     * @param state 在庫数の配列
+     */
+    public void restoreState(Object state) {
+        ShopWindow sw = (ShopWindow) shopWindow;
+        sw.setStocks((int[]) state);
+    }
+
 
     /**
      * シーンレイヤーのスタックのうち、子シーンからのコールバックを受ける
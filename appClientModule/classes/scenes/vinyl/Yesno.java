@@ -17,13 +17,14 @@ import classes.scenes.BaseSystemOperator;
 import classes.ui.StringSelectOption;
 import classes.utils.GeneralUtil;
 import interfaces.GameScene;
+import interfaces.ModalScene;
 
 /**
  * システムウィンドウ内でのはい/いいえの選択を定義するクラス
  *
  * @author Naoki Yoshikawa
  */
-public class Yesno extends BaseSystemOperator implements GameScene {
+public class Yesno extends BaseSystemOperator implements GameScene, ModalScene {
 
     // スクリプトを管理するオブジェクト
     private ScriptController script;
@@ -156,10 +157,10 @@ public class Yesno extends BaseSystemOperator implements GameScene {
         // 左右キーはページを選択する
         if (keyConfig.getKeys().get(KeyEvent.VK_LEFT).isPressed()) {
             prev();
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
         } else if (keyConfig.getKeys().get(KeyEvent.VK_RIGHT).isPressed()) {
             next();
-            new Thread(new SoundController.PlaySE(SoundResource.SE_SELECT)).start();
+            SoundController.playSE(SoundResource.SE_SELECT);
         }
 
         // 決定
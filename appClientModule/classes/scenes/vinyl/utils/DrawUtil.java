@@ -5,6 +5,7 @@ import java.awt.image.BufferedImage;
 
 import classes.controllers.GameController;
 import classes.math.Vector2;
+import classes.utils.GeneralUtil;
 
 /**
  * グラフィックスオブジェクトに対して描画を行うメソッドを集約したユーティリティクラス
@@ -41,26 +42,22 @@ public class DrawUtil {
         Vector2 pos = origin.add(basisX.add(basisY));
 
         if(sprite.getDirection() < 0) {
-            g.drawImage(
+            GeneralUtil.drawScaledFlipped(
                     image,
                     (int) GameController.getWindow().getAbsPosX(pos.getX() - sprite.getImageWidth()/2),
                     (int) GameController.getWindow().getAbsPosY(pos.getY() - sprite.getImageHeight()/10 * 9),
-                    (int) GameController.getWindow().getAbsPosX(pos.getX() + sprite.getImageWidth()/2),
-                    (int) GameController.getWindow().getAbsPosY(pos.getY() + sprite.getImageHeight()/10),
-                    image.getWidth(),
-                    0,
-                    0,
-                    image.getHeight(),
-                    null
+                    (int) GameController.getWindow().getAbsPosX(sprite.getImageWidth()),
+                    (int) GameController.getWindow().getAbsPosY(sprite.getImageHeight()),
+                    g
                 );
         } else {
-            g.drawImage(
+            GeneralUtil.drawScaled(
                     image,
                     (int) GameController.getWindow().getAbsPosX(pos.getX() - sprite.getImageWidth()/2),
                     (int) GameController.getWindow().getAbsPosY(pos.getY() - sprite.getImageHeight()/10 * 9),
                     (int) GameController.getWindow().getAbsPosX(sprite.getImageWidth()),
                     (int) GameController.getWindow().getAbsPosY(sprite.getImageHeight()),
-                    null
+                    g
                 );
         }
 
@@ -3,20 +3,27 @@ package classes.utils;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Insets;
 import java.awt.Point;
-import java.awt.Rectangle;
+import java.awt.Transparency;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-
-import javax.imageio.ImageIO;
+import java.util.WeakHashMap;
 
 import classes.constants.ImageResource;
 import classes.containers.Background;
+import classes.containers.Contact;
+import classes.containers.GlyphAtlas;
+import classes.containers.ScaledImageCache;
+import classes.controllers.AssetController;
 import classes.controllers.FontController.Fonts;
 import classes.controllers.ScriptController.Script;
 import classes.controllers.GameController;
@@ -39,6 +46,13 @@ public class GeneralUtil {
     public static final int ALIGN_CENTER = 1;
     public static final int ALIGN_RIGHT = 2;
 
+    // 画像ごとの透明ピクセルを除いた実体までの距離のキャッシュ
+    private static final Map<BufferedImage, Insets> alphaBoundsCache =
+            Collections.synchronizedMap(new WeakHashMap<BufferedImage, Insets>());
+
+    // 衝突判定の結果(ゲームループのスレッドからのみ使用する)
+    private static final Contact contact = new Contact();
+
     /**
         * プレイヤーをカメラ中央に固定するためのオフセット値を算出する
         *
@@ -139,12 +153,12 @@ public class GeneralUtil {
         * @param sprite 画像を持つスプライトオブジェクト
         */
     public static void getAlphaPixel(BaseSprite sprite) {
-        BufferedImage image = sprite.getImage();
-        // 上下左右の矩形の辺から、透明でないピクセルまでのピクセル数を算出し設定
-        sprite.setTransparencyTop(getTransparencyTop(image));
-        sprite.setTransparencyBottom(getTransparencyBottom(image));
-        sprite.setTransparencyLeft(getTransparencyLeft(image));
-        sprite.setTransparencyRight(getTransparencyRight(image));
+        Insets bounds = getAlphaBounds(sprite.getImage());
+        // 上下左右の矩形の辺から、透明でないピクセルまでのピクセル数を設定
+        sprite.setTransparencyTop(bounds.top);
+        sprite.setTransparencyBottom(bounds.bottom);
+        sprite.setTransparencyLeft(bounds.left);
+        sprite.setTransparencyRight(bounds.right);
     }
 
     /**
@@ -153,12 +167,36 @@ public class GeneralUtil {
         * @param sprite 画像を持つスプライトオブジェクト
         */
     public static void getAlphaPixel(classes.scenes.action.assets.BaseSprite sprite) {
-        BufferedImage image = sprite.getImage();
-        // 上下左右の矩形の辺から、透明でないピクセルまでのピクセル数を算出し設定
-        sprite.setTransparencyTop(getTransparencyTop(image));
-        sprite.setTransparencyBottom(getTransparencyBottom(image));
-        sprite.setTransparencyLeft(getTransparencyLeft(image));
-        sprite.setTransparencyRight(getTransparencyRight(image));
+        Insets bounds = getAlphaBounds(sprite.getImage());
+        // 上下左右の矩形の辺から、透明でないピクセルまでのピクセル数を設定
+        sprite.setTransparencyTop(bounds.top);
+        sprite.setTransparencyBottom(bounds.bottom);
+        sprite.setTransparencyLeft(bounds.left);
+        sprite.setTransparencyRight(bounds.right);
+    }
+
+    /**
+     * <pre>
+        * 画像矩形の四方の辺から、透明ピクセルを除いた実体までの距離を返す
+        * 一度算出した画像の結果はキャッシュし、以降はピクセルを走査しない
+        * </pre>
+        *
+        * @param image 画像オブジェクト
+        *
+        * @return 上下左右の辺から実体までの距離
+        */
+    public static Insets getAlphaBounds(BufferedImage image) {
+        Insets bounds = alphaBoundsCache.get(image);
+        if(bounds == null) {
+            bounds = new Insets(
+                    getTransparencyTop(image),
+                    getTransparencyLeft(image),
+                    getTransparencyBottom(image),
+                    getTransparencyRight(image)
+                    );
+            alphaBoundsCache.put(image, bounds);
+        }
+        return bounds;
     }
 
     /**
@@ -234,23 +272,175 @@ public class GeneralUtil {
     }
 
     /**
+        * <pre>
         * ファイルパスから画像をオブジェクトに読み出す
-        * @see ImageIO
+        * AssetControllerのキャッシュを参照し、デコード済みの画像を返す
+        * 未デコードの場合は呼び出し元のスレッドでデコードし、デコード中の場合は完了を待つ
+        * 例外は送出せず、読み込みに失敗した場合はnullを返す
+        * </pre>
+        * @see AssetController#getImage(String)
         *
         * @param path 画像のファイルパス
         *
-        * @return 画像オブジェクト
-        *
-        * @exception IllegalArgumentException 引数のパスが不正の時nullとなる
-        * @exception IOException 読み込み時のエラー
+        * @return 画像オブジェクト、読み込みに失敗した場合はnull
         */
     public static BufferedImage readImage(String path) {
-        try {
-            return ImageIO.read(GeneralUtil.class.getResource(path));
-        } catch (Exception e) {
-            e.printStackTrace();
+        return AssetController.getInstance().getImage(path);
+    }
+
+    /**
+        * <pre>
+        * 画像を描画先の画面と互換性のある形式に変換する
+        * 互換形式の画像は描画時の形式変換が不要になり、ハードウェアアクセラレーションの対象となる
+        * 画面の無い環境では、透過の有無に応じてTYPE_INT_ARGBまたはTYPE_INT_RGBに変換する
+        * </pre>
+        *
+        * @param image 変換元の画像オブジェクト
+        *
+        * @return 変換した画像オブジェクト、引数がnullの場合はnull
+        */
+    public static BufferedImage toCompatibleImage(BufferedImage image) {
+        if(image == null) {
             return null;
         }
+
+        int transparency = image.getTransparency();
+        if(GraphicsEnvironment.isHeadless()) {
+            if(image.getType() == getHeadlessType(transparency)) {
+                return image;
+            }
+        } else if(image.getColorModel().equals(getScreenConfiguration().getColorModel(transparency))) {
+            return image;
+        }
+
+        BufferedImage compatible = createCompatibleImage(image.getWidth(), image.getHeight(), transparency);
+        Graphics2D g2 = compatible.createGraphics();
+        g2.drawImage(image, 0, 0, null);
+        g2.dispose();
+        return compatible;
+    }
+
+    /**
+        * <pre>
+        * 描画先の画面と互換性のある形式の空の画像を生成する
+        * 画面の無い環境では、透過の有無に応じてTYPE_INT_ARGBまたはTYPE_INT_RGBで生成する
+        * </pre>
+        *
+        * @param width        画像の幅
+        * @param height       画像の高さ
+        * @param transparency 透過の種類(Transparency.OPAQUE, BITMASK, TRANSLUCENT)
+        *
+        * @return 生成した画像オブジェクト
+        */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if(GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, getHeadlessType(transparency));
+        }
+        return getScreenConfiguration().createCompatibleImage(width, height, transparency);
+    }
+
+    /**
+        * <pre>
+        * 画像を指定サイズで描画する
+        * 現在のウィンドウサイズに合わせた拡大縮小済みの画像があれば等倍で転送し、
+        * 無ければ生成を予約して従来通り描画時に拡大縮小する
+        * </pre>
+        *
+        * @param image  画像オブジェクト
+        * @param x      描画先の左上のX座標
+        * @param y      描画先の左上のY座標
+        * @param width  描画サイズの幅
+        * @param height 描画サイズの高さ
+        * @param g      グラフィックスオブジェクト
+        */
+    public static void drawScaled(BufferedImage image, int x, int y, int width, int height, Graphics g) {
+        if(image == null) {
+            return;
+        }
+        if(image.getWidth() == width && image.getHeight() == height) {
+            g.drawImage(image, x, y, null);
+            return;
+        }
+        BufferedImage scaled = ScaledImageCache.getInstance().get(image, width, height);
+        if(scaled != null) {
+            g.drawImage(scaled, x, y, null);
+        } else {
+            g.drawImage(image, x, y, width, height, null);
+        }
+    }
+
+    /**
+        * <pre>
+        * 画像を左右反転して指定サイズで描画する
+        * 拡大縮小済みの画像はdrawScaledと共有し、等倍のまま反転して転送する
+        * </pre>
+        *
+        * @param image  画像オブジェクト
+        * @param x      描画先の左上のX座標
+        * @param y      描画先の左上のY座標
+        * @param width  描画サイズの幅
+        * @param height 描画サイズの高さ
+        * @param g      グラフィックスオブジェクト
+        */
+    public static void drawScaledFlipped(BufferedImage image, int x, int y, int width, int height, Graphics g) {
+        if(image == null) {
+            return;
+        }
+        BufferedImage scaled = image.getWidth() == width && image.getHeight() == height
+                ? image
+                : ScaledImageCache.getInstance().get(image, width, height);
+        if(scaled != null) {
+            g.drawImage(scaled, x, y, x + width, y + height, width, 0, 0, height, null);
+        } else {
+            g.drawImage(image, x, y, x + width, y + height, image.getWidth(), 0, 0, image.getHeight(), null);
+        }
+    }
+
+    /**
+        * 既定の画面のグラフィックス構成を返す
+        *
+        * @return グラフィックス構成
+        */
+    private static GraphicsConfiguration getScreenConfiguration() {
+        return GraphicsEnvironment
+                .getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice()
+                .getDefaultConfiguration();
+    }
+
+    /**
+        * 画面の無い環境で使用する画像の形式を返す
+        *
+        * @param transparency 透過の種類
+        *
+        * @return BufferedImageの形式
+        */
+    private static int getHeadlessType(int transparency) {
+        return transparency == Transparency.OPAQUE
+                ? BufferedImage.TYPE_INT_RGB
+                : BufferedImage.TYPE_INT_ARGB;
+    }
+
+    /**
+        * <pre>
+        * 画像を複製する
+        * readImage()の画像は共有されるため、ピクセルを書き換える場合に使用する
+        * </pre>
+        *
+        * @param image 複製元の画像オブジェクト
+        *
+        * @return 複製した画像オブジェクト、引数がnullの場合はnull
+        */
+    public static BufferedImage copyImage(BufferedImage image) {
+        if(image == null) {
+            return null;
+        }
+        return new BufferedImage(
+                image.getColorModel(),
+                image.copyData(null),
+                image.isAlphaPremultiplied(),
+                null
+                );
     }
 
     /**
@@ -304,202 +494,341 @@ public class GeneralUtil {
 
     /**
      * <pre>
-        * スプライトとマップオブジェクトの衝突判定を行う
-        * 現在試験開発中
-        * </pre>
-        *
-        * @param object 衝突判定を行うスプライトオブジェクト
-        * @param map    アクションステージの地形オブジェクト
-        */
+     * スプライトとマップオブジェクトの衝突判定を行い、速度分移動させる
+     * 衝突した場合は接触位置で止め、ボールはバウンドさせる
+     * </pre>
+     *
+     * @param object 衝突判定を行うスプライトオブジェクト
+     * @param map    アクションステージの地形オブジェクト
+     */
     public static void getCollision(BaseSprite object, MapController map) {
 
-        Point tile = getCollisionNew(object, map);
+        // ブロックとの衝突判定で移動前の位置から掃引するため保持する
+        object.savePosition();
+        sweepMap(object, map, contact);
 
-        if (tile.x == -9999) {
-            object.setImageLeftX(object.getImageLeftX() + object.getVX());
+        object.setImageLeftX(contact.getX());
+        if (contact.isHitX() && object instanceof Ball) {
+            ((Ball) object).bounceX();
+        }
 
+        object.setImageBaseY(contact.getY());
+        if (contact.isHitY()) {
+            stopVertical(object, contact.getNormalY());
         } else {
-            if(object instanceof Ball) {
-                Ball ball = (Ball) object;
-
-                ball.bounceX();
-
-            }
-            object.setImageLeftX(tile.x);
-        }
-        if (tile.y == -9999) {
-            object.setImageBaseY(object.getImageBaseY() + object.getVY());
             object.setOnGround(false);
-        } else {
-            if (object.getVY() > 0) {
-                object.setImageBaseY(tile.y);
-
-                if(object instanceof Ball) {
-                    Ball ball = (Ball) object;
+        }
+    }
 
-                    ball.bounceY();
+    /**
+     * <pre>
+     * スプライトを速度分移動させた際の、マップの端と通過できないタイルとの衝突を求める
+     * X方向に移動させた後、その位置からY方向に移動させる
+     * 移動量が大きくても途中で通過する全ての列、行のタイルを調べるため、すり抜けは起こらない
+     * マップの上端はスプライトの下端で判定する(上端を超えてジャンプできる)
+     * 判定に使用する矩形はisCollisionと同じく透明部分を除いた実体とする
+     * </pre>
+     *
+     * @param sprite 衝突判定を行うスプライトオブジェクト
+     * @param map    アクションステージの地形オブジェクト
+     * @param result 結果を格納するオブジェクト
+     */
+    public static void sweepMap(BaseSprite sprite, MapController map, Contact result) {
+        double width = sprite.getActualWidth();
+        double height = sprite.getActualHeight();
+        double vx = sprite.getVX();
+        double vy = sprite.getVY();
+        // 画像の左端から実体の左端までの距離
+        double inset = sprite.getEntityLeftX() - sprite.getImageLeftX();
+        double left = sprite.getEntityLeftX();
+        double base = sprite.getImageBaseY();
+
+        result.reset(sprite.getImageLeftX() + vx, base + vy);
+
+        double dx = sweepX(map, left, base - height, width, height, vx);
+        if (dx != vx) {
+            result.hitX(left + dx - inset, vx > 0 ? -1 : 1, dx / vx);
+        }
+        left += dx;
 
-                } else {
-                    // 共通化してstopにする
-                    object.setVY(0);
+        double dy = sweepY(map, left, base - height, width, height, vy);
+        if (dy != vy) {
+            result.hitY(base + dy, vy > 0 ? -1 : 1, dy / vy);
+        }
+    }
 
+    /**
+     * 矩形をX方向に移動させた際に、マップの端と通過できないタイルに衝突せずに移動できる量を返す
+     *
+     * @param map    アクションステージの地形オブジェクト
+     * @param left   矩形の左端のX座標
+     * @param top    矩形の上端のY座標
+     * @param width  矩形の幅
+     * @param height 矩形の高さ
+     * @param d      移動量
+     * @return 移動できる量
+     */
+    private static double sweepX(MapController map, double left, double top, double width, double height, double d) {
+        int firstRow = pixelsToTiles(top);
+        int lastRow = (int) Math.ceil((top + height) / MapController.TILE_SIZE) - 1;
+
+        if (d > 0) {
+            double right = left + width;
+            double allowed = Math.min(d, Math.max(0, map.getWidth() - right));
+            // 右端が新たに入る列を左から順に調べる
+            int last = (int) Math.ceil((right + allowed) / MapController.TILE_SIZE) - 1;
+            for (int x = (int) Math.ceil(right / MapController.TILE_SIZE); x <= last; x++) {
+                if (isSolidArea(map, x, x, firstRow, lastRow)) {
+                    return tilesToPixels(x) - right;
                 }
-                object.land();
-
-            } else if (object.getVY() < 0) {
-                object.setImageBaseY(tile.y);
-                if(object instanceof Ball) {
-                    Ball ball = (Ball) object;
-                    ball.bounceY();
-                } else {
-                    // 共通化してstopにする
-                    object.setVY(0);
+            }
+            return allowed;
+        } else if (d < 0) {
+            double allowed = Math.max(d, Math.min(0, -left));
+            // 左端が新たに入る列を右から順に調べる
+            int last = pixelsToTiles(left + allowed);
+            for (int x = pixelsToTiles(left) - 1; x >= last; x--) {
+                if (isSolidArea(map, x, x, firstRow, lastRow)) {
+                    return tilesToPixels(x + 1) - left;
                 }
             }
+            return allowed;
         }
+        return 0;
     }
 
-    /* 衝突判定系 実装検証中 */
-
     /**
-     * <pre>
-        * スプライトとマップオブジェクトの衝突判定を行う
-        * 現在試験開発中
-        * </pre>
-        *
-        * @param sprite 衝突判定を行うスプライトオブジェクト
-        * @param map    アクションステージの地形オブジェクト
-        *
-        * @return 衝突を初めに検知した位置の座標
-        */
-    public static Point getCollisionNew(BaseSprite sprite, MapController map) {
-        double vx = Math.ceil(sprite.getVX());
-        double vy = Math.ceil(sprite.getVY());
-        double originX = sprite.getImageLeftX();
-        double originY = sprite.getImageBaseY();
-        double ratio = 0;
-        Point point = new Point(-9999, -9999);
-        int newX = (int)originX;
-        int newY = (int)originY;
-
-        while(ratio <= 1) {
-
-            int tempX = (int)(originX + vx * (ratio+0.1));
-            int tempY = (int)(originY + vy * (ratio+0.1));
-
-            if (point.x == -9999 && (tempX < 0 || tempX + sprite.getActualWidth() >= map.getWidth())) {
-                point.x = newX;
+     * 矩形をY方向に移動させた際に、マップの端と通過できないタイルに衝突せずに移動できる量を返す
+     *
+     * @param map    アクションステージの地形オブジェクト
+     * @param left   矩形の左端のX座標
+     * @param top    矩形の上端のY座標
+     * @param width  矩形の幅
+     * @param height 矩形の高さ
+     * @param d      移動量
+     * @return 移動できる量
+     */
+    private static double sweepY(MapController map, double left, double top, double width, double height, double d) {
+        int firstColumn = pixelsToTiles(left);
+        int lastColumn = (int) Math.ceil((left + width) / MapController.TILE_SIZE) - 1;
+        double base = top + height;
+
+        if (d > 0) {
+            double allowed = Math.min(d, Math.max(0, map.getHeight() - base));
+            // 下端が新たに入る行を上から順に調べる
+            int last = (int) Math.ceil((base + allowed) / MapController.TILE_SIZE) - 1;
+            for (int y = (int) Math.ceil(base / MapController.TILE_SIZE); y <= last; y++) {
+                if (isSolidArea(map, firstColumn, lastColumn, y, y)) {
+                    return tilesToPixels(y) - base;
+                }
             }
-
-            if (point.y == -9999 && (tempY < 0 || tempY >= map.getHeight())) {
-                point.y = newY;
+            return allowed;
+        } else if (d < 0) {
+            double allowed = Math.max(d, Math.min(0, -base));
+            // 上端が新たに入る行を下から順に調べる
+            int last = pixelsToTiles(top + allowed);
+            for (int y = pixelsToTiles(top) - 1; y >= last; y--) {
+                if (isSolidArea(map, firstColumn, lastColumn, y, y)) {
+                    return tilesToPixels(y + 1) - top;
+                }
             }
+            return allowed;
+        }
+        return 0;
+    }
 
-            ratio += 0.1;
-            newX = tempX;
-            newY = tempY;
+    /**
+     * 範囲内に通過できないタイルがあるかどうかを返す
+     * マップの範囲外は通過できるものとする
+     *
+     * @param map         アクションステージの地形オブジェクト
+     * @param firstColumn 範囲の左端の列
+     * @param lastColumn  範囲の右端の列
+     * @param firstRow    範囲の上端の行
+     * @param lastRow     範囲の下端の行
+     * @return 通過できないタイルがあるかどうか
+     */
+    private static boolean isSolidArea(MapController map, int firstColumn, int lastColumn, int firstRow, int lastRow) {
+        int fromX = Math.max(0, firstColumn);
+        int toX = Math.min(map.getColumn() - 1, lastColumn);
+        int fromY = Math.max(0, firstRow);
+        int toY = Math.min(map.getRow() - 1, lastRow);
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) {
+                if (map.isSolid(x, y)) {
+                    return true;
+                }
+            }
         }
+        return false;
+    }
 
-        return point;
+    /**
+     * <pre>
+     * 移動中にブロックオブジェクトと接触したスプライトを、ブロックの表面まで戻す
+     * 移動はgetCollisionで済んでいるものとし、getCollisionが保持した移動前の位置から掃引して最初に接触した面で止める
+     * 移動後に重なっていなくても、1フレームでブロックを通り抜けた場合は接触として扱う
+     * </pre>
+     *
+     * @param subject ブロックとの衝突判定を行うスプライトオブジェクト
+     * @param object  ブロックオブジェクト
+     * @return ブロックと接触したかどうか
+     */
+    public static boolean getBlock(BaseSprite subject, BaseSprite object) {
+
+        sweepBlock(subject, object, contact);
+
+        if (contact.isHitX()) {
+            subject.setImageLeftX(contact.getX());
+            if (subject instanceof Ball) {
+                ((Ball) subject).bounceX();
+            }
+        }
+        if (contact.isHitY()) {
+            subject.setImageBaseY(contact.getY());
+            stopVertical(subject, contact.getNormalY());
+        }
+        return contact.isHitX() || contact.isHitY();
     }
 
     /**
      * <pre>
-        * スプライトとブロックオブジェクトとの衝突判定を行う
-        * 現在試験開発中
-        * </pre>
-        *
-        * @param subject ブロックとの衝突判定を行うスプライトオブジェクト
-        * @param object  ブロックオブジェクト
-        */
-    public static void getBlock(BaseSprite subject, BaseSprite object) {
+     * 直前のフレームの移動で、スプライトがブロックオブジェクトに最初に接触した位置を求める
+     * getCollisionが保持した移動前の位置から現在の位置までを掃引し、接触した時刻と面を求める
+     * 地形との衝突で止まった、速度を0にしたなどの後でも、実際に移動した量で判定する
+     * 接触した方向の位置のみ接触位置に戻し、もう一方の方向は現在の位置のままとする(面に沿って滑る)
+     * 移動前から重なっていた場合は、重なりの最も浅い方向へ押し出す
+     * </pre>
+     *
+     * @param subject ブロックとの衝突判定を行うスプライトオブジェクト
+     * @param object  ブロックオブジェクト
+     * @param result  結果を格納するオブジェクト
+     */
+    public static void sweepBlock(BaseSprite subject, BaseSprite object, Contact result) {
+        double width = subject.getActualWidth();
+        double height = subject.getActualHeight();
+        double inset = subject.getEntityLeftX() - subject.getImageLeftX();
+        double left = subject.getEntityLeftX();
+        double top = subject.getEntityTopY();
+
+        // 移動前の位置と、実際に移動した量
+        double startLeft = subject.getPreviousImageLeftX() + inset;
+        double startTop = subject.getPreviousImageBaseY() - height;
+        double vx = left - startLeft;
+        double vy = top - startTop;
+
+        double objectLeft = object.getEntityLeftX();
+        double objectTop = object.getEntityTopY();
+        double objectRight = objectLeft + object.getActualWidth();
+        double objectBase = objectTop + object.getActualHeight();
+
+        result.reset(subject.getImageLeftX(), subject.getImageBaseY());
+
+        // 各方向で重なり始める時刻と重なり終わる時刻
+        double entryX;
+        double exitX;
+        if (vx > 0) {
+            entryX = (objectLeft - (startLeft + width)) / vx;
+            exitX = (objectRight - startLeft) / vx;
+        } else if (vx < 0) {
+            entryX = (objectRight - startLeft) / vx;
+            exitX = (objectLeft - (startLeft + width)) / vx;
+        } else if (startLeft < objectRight && startLeft + width > objectLeft) {
+            entryX = Double.NEGATIVE_INFINITY;
+            exitX = Double.POSITIVE_INFINITY;
+        } else {
+            return;
+        }
 
-        Point tile = getCollisionBlock(subject, object);
+        double entryY;
+        double exitY;
+        if (vy > 0) {
+            entryY = (objectTop - (startTop + height)) / vy;
+            exitY = (objectBase - startTop) / vy;
+        } else if (vy < 0) {
+            entryY = (objectBase - startTop) / vy;
+            exitY = (objectTop - (startTop + height)) / vy;
+        } else if (startTop < objectBase && startTop + height > objectTop) {
+            entryY = Double.NEGATIVE_INFINITY;
+            exitY = Double.POSITIVE_INFINITY;
+        } else {
+            return;
+        }
 
-        if (tile.x == -9999) {
-            subject.setImageLeftX(subject.getImageLeftX() + subject.getVX());
+        double entry = Math.max(entryX, entryY);
+        double exit = Math.min(exitX, exitY);
+        // 移動中に重ならない、または接しただけの場合
+        if (entry >= exit || entry > 1 || exit <= 0) {
+            return;
+        }
 
+        if (entry < 0) {
+            pushOut(left, top, width, height, inset, objectLeft, objectTop, objectRight, objectBase, result);
+        } else if (entryX > entryY) {
+            result.hitX(startLeft + vx * entry - inset, vx > 0 ? -1 : 1, entry);
         } else {
-            if(subject instanceof Ball) {
-                Ball ball = (Ball) subject;
+            result.hitY(startTop + vy * entry + height, vy > 0 ? -1 : 1, entry);
+        }
+    }
 
-                ball.bounceX();
+    /**
+     * 重なっている矩形を、重なりの最も浅い方向へ押し出す位置を求める
+     *
+     * @param left        矩形の左端のX座標
+     * @param top         矩形の上端のY座標
+     * @param width       矩形の幅
+     * @param height      矩形の高さ
+     * @param inset       画像の左端から矩形の左端までの距離
+     * @param objectLeft  ブロックの左端のX座標
+     * @param objectTop   ブロックの上端のY座標
+     * @param objectRight ブロックの右端のX座標
+     * @param objectBase  ブロックの下端のY座標
+     * @param result      結果を格納するオブジェクト
+     */
+    private static void pushOut(double left, double top, double width, double height, double inset,
+            double objectLeft, double objectTop, double objectRight, double objectBase, Contact result) {
+        double toLeft = left + width - objectLeft;
+        double toRight = objectRight - left;
+        double toUp = top + height - objectTop;
+        double toDown = objectBase - top;
+        if (toLeft <= 0 || toRight <= 0 || toUp <= 0 || toDown <= 0) {
+            return;
+        }
 
+        if (Math.min(toLeft, toRight) < Math.min(toUp, toDown)) {
+            if (toLeft <= toRight) {
+                result.hitX(left - toLeft - inset, -1, 0);
+            } else {
+                result.hitX(left + toRight - inset, 1, 0);
             }
-            subject.setImageLeftX(tile.x);
-        }
-        if (tile.y == -9999) {
-            subject.setImageBaseY(subject.getImageBaseY() + subject.getVY());
-            subject.setOnGround(false);
         } else {
-            if (subject.getVY() > 0) {
-                subject.setImageBaseY(tile.y);
-
-                if(subject instanceof Ball) {
-                    Ball ball = (Ball) subject;
-
-                    ball.bounceY();
-
-                } else {
-                    // 共通化してstopにする
-                    subject.setVY(0);
-
-                }
-                subject.land();
-
-            } else if (subject.getVY() < 0) {
-                subject.setImageBaseY(tile.y);
-                if(subject instanceof Ball) {
-                    Ball ball = (Ball) subject;
-                    ball.bounceY();
-                } else {
-                    // 共通化してstopにする
-                    subject.setVY(0);
-                }
+            if (toUp <= toDown) {
+                result.hitY(top - toUp + height, -1, 0);
+            } else {
+                result.hitY(top + toDown + height, 1, 0);
             }
         }
     }
 
     /**
      * <pre>
-        * スプライトとブロックオブジェクトとの衝突判定を行う
-        * 現在試験開発中
-        * </pre>
-        *
-        * @param subject ブロックとの衝突判定を行うスプライトオブジェクト
-        * @param object  ブロックオブジェクト
-        *
-        * @return 衝突を初めに検知した位置の座標
-        */
-    public static Point getCollisionBlock(BaseSprite subject, BaseSprite object) {
-        double vx = Math.ceil(subject.getVX());
-        double vy = Math.ceil(subject.getVY());
-        double originX = subject.getImageLeftX();
-        double originY = subject.getImageBaseY();
-        double ratio = 0;
-        Point point = new Point(-9999, -9999);
-        int newX = (int)originX;
-        int newY = (int)originY;
-
-        while(ratio <= 1) {
-
-            int tempX = (int)(originX + vx * (ratio+0.1));
-            int tempY = (int)(originY + vy * (ratio+0.1));
-
-            if (point.x == -9999 && subject.isCollision(object)) {
-                point.x = newX;
-            }
-
-            if (point.y == -9999 && subject.isCollision(object)) {
-                point.y = newY;
-            }
-
-            ratio += 0.1;
-            newX = tempX;
-            newY = tempY;
+     * Y方向で衝突したスプライトの速度を止める
+     * ボールはバウンドさせ、上向きの面(地面)に衝突した場合は着地させる
+     * </pre>
+     *
+     * @param object 衝突したスプライトオブジェクト
+     * @param normal 衝突した面の法線 [-1: 上] [1: 下]
+     */
+    private static void stopVertical(BaseSprite object, int normal) {
+        if (object instanceof Ball) {
+            ((Ball) object).bounceY();
+        } else {
+            // 共通化してstopにする
+            object.setVY(0);
+        }
+        if (normal < 0) {
+            object.land();
         }
-
-        return point;
     }
 
     /**
@@ -510,21 +839,8 @@ public class GeneralUtil {
         */
     public static void rewritePoint(Player player, BaseSprite sprite) {
 
-        Rectangle subject = new Rectangle(
-                (int)sprite.getEntityLeftX(),
-                (int)sprite.getEntityTopY(),
-                sprite.getActualWidth(),
-                sprite.getActualHeight()
-            );
-        Rectangle object = new Rectangle(
-                (int)player.getEntityLeftX(),
-                (int)player.getEntityTopY(),
-                player.getActualWidth(),
-                player.getActualHeight()
-            );
-
         // 自分の矩形と相手の矩形が重なっているか調べる
-        if (subject.intersects(object)) {
+        if (sprite.isCollision(player)) {
             // 下降中
             if(player.getVY() > 0) {
                 player.setImageBaseY(sprite.getEntityTopY());
@@ -735,7 +1051,12 @@ public class GeneralUtil {
         for(ImageResource.FrameBundle[] bundle: frameBundles) {
             imageList = new ArrayList<BufferedImage>();
             for(int i = 1; i < bundle.length; i++) {
-                imageList.add(GeneralUtil.readImage(bundle[i].getValue()));
+                BufferedImage frame = GeneralUtil.readImage(bundle[i].getValue());
+                // 読み込み時に実体の範囲を算出しておく
+                if(frame != null) {
+                    getAlphaBounds(frame);
+                }
+                imageList.add(frame);
             }
             frameHolder.put(bundle[0].getValue(), imageList);
         }
@@ -801,7 +1122,7 @@ public class GeneralUtil {
             if(letter == ' ') {
                 letterImageList.add(null);
             } else {
-                letterImageList.add(readImage(fonts.getValue(letter)));
+                letterImageList.add(fonts.getAtlas().getGlyph(letter));
             }
         }
 
@@ -824,7 +1145,7 @@ public class GeneralUtil {
                 if(c ==  ' ') {
                     charImageMap.put(c, null);
                 } else {
-                    charImageMap.put(c, readImage(fonts.getValue(c)));
+                    charImageMap.put(c, fonts.getAtlas().getGlyph(c));
                 }
             }
         }
@@ -886,13 +1207,13 @@ public class GeneralUtil {
                           drawX = x - fontSize*(i - fontSize);
                           break;
                   }
-                  g.drawImage(
+                  drawScaled(
                           font,
                           (int) GameController.getWindow().getAbsPosX(drawX),
                           (int) GameController.getWindow().getAbsPosY(y),
                           (int) GameController.getWindow().getAbsPosX(fontSize),
                           (int) GameController.getWindow().getAbsPosY(fontSize),
-                          null
+                          g
                       );
 
               }
@@ -1000,13 +1321,10 @@ public class GeneralUtil {
     }
 
     /**
-     * <pre>
-        * 動的に変化する文字列に対応するフォント画像を描画する
-        * あらかじめ使用するフォント画像のリストを読み込んでから渡す
-        * </pre>
+        * 動的に変化する文字列を、フォントのグリフアトラスから切り出して描画する
         *
         * @param s        表示する文字列
-        * @param fontMap  フォント画像のマップ
+        * @param fonts    フォントオブジェクト
         * @param posX     描画位置の左端のX座標
         * @param posY     描画位置の上端のY座標
         * @param size     フォントサイズ
@@ -1014,21 +1332,22 @@ public class GeneralUtil {
         */
     public static void drawDynamicString(
             String s,
-            Map<Character, BufferedImage> fontMap,
+            Fonts fonts,
             int posX,
             int posY,
             int size,
             Graphics g
             ) {
+        GlyphAtlas atlas = fonts.getAtlas();
         for(int i = 0; i < s.length(); i++) {
-            g.drawImage(
-                      fontMap.get(s.charAt(i)),
-                      (int) GameController.getWindow().getAbsPosX(posX + size * i),
-                      (int) GameController.getWindow().getAbsPosY(posY),
-                      (int) GameController.getWindow().getAbsPosX(size),
-                      (int) GameController.getWindow().getAbsPosY(size),
-                      null
-                );
+            atlas.drawGlyph(
+                    s.charAt(i),
+                    (int) GameController.getWindow().getAbsPosX(posX + size * i),
+                    (int) GameController.getWindow().getAbsPosY(posY),
+                    (int) GameController.getWindow().getAbsPosX(size),
+                    (int) GameController.getWindow().getAbsPosY(size),
+                    g
+                    );
         }
     }
 
@@ -1042,20 +1361,19 @@ public class GeneralUtil {
         */
     public static void drawScript(Script s, int x, int y,  Graphics g) {
 
+        GlyphAtlas atlas = s.getFont().getAtlas();
         for(int i = 0; i < s.getRenderIndex(); i++) {
             int drawX = x + s.getSize()* (i % s.getCharPerRow());
               int drawY = y + s.getSize()*(int) (i / s.getCharPerRow());
 
-              if(s.getFonts().get(i) != null) {
-                  g.drawImage(
-                          s.getFonts().get(i),
-                          (int) GameController.getWindow().getAbsPosX(drawX),
-                          (int) GameController.getWindow().getAbsPosY(drawY),
-                          (int) GameController.getWindow().getAbsPosX(s.getSize()),
-                          (int) GameController.getWindow().getAbsPosY(s.getSize()),
-                          null
-                    );
-            }
+              atlas.drawGlyph(
+                      s.getText().charAt(i),
+                      (int) GameController.getWindow().getAbsPosX(drawX),
+                      (int) GameController.getWindow().getAbsPosY(drawY),
+                      (int) GameController.getWindow().getAbsPosX(s.getSize()),
+                      (int) GameController.getWindow().getAbsPosY(s.getSize()),
+                      g
+                      );
           }
     }
 
@@ -0,0 +1,84 @@
+package classes.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import classes.controllers.MapController;
+
+/**
+ * <pre>
+ * テキスト形式(.dat)のマップデータをバイナリ形式(.map)に変換するツール
+ * 形式はMapControllerに記載の通り
+ * 使用例: java classes.utils.MapConverter classes/controllers/maps/map02.dat
+ * 出力先は拡張子を.mapに置き換えたパスとする
+ * </pre>
+ *
+ * @author  Naoki Yoshikawa
+ */
+public class MapConverter {
+
+    /**
+     * 引数で指定された全てのdatファイルを変換する
+     *
+     * @param args 変換するdatファイルのパス
+     */
+    public static void main(String[] args) {
+        for(String path: args) {
+            String output = path.replaceAll("\\.dat$", "") + ".map";
+            try {
+                convert(path, output);
+                System.out.println(path + " -> " + output);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * datファイルをmapファイルに変換する
+     * 属性テーブルにはマップ中に現れる空白以外のタイルのみ出力する
+     * </pre>
+     *
+     * @param input  変換元のdatファイルのパス
+     * @param output 出力先のmapファイルのパス
+     * @throws IOException 読み込み、書き込みに失敗した場合
+     */
+    public static void convert(String input, String output) throws IOException {
+        ByteBuffer grid = ByteBuffer.wrap(MapController.parseText(new FileInputStream(input)));
+        int row = grid.getInt();
+        int col = grid.getInt();
+
+        // マップ中に現れるタイルを調べる
+        boolean[] used = new boolean[256];
+        for(int i = grid.position(); i < grid.limit(); i++) {
+            used[grid.get(i) & 0xff] = true;
+        }
+        used[' '] = false;
+
+        int count = 0;
+        for(boolean u: used) {
+            count += u ? 1 : 0;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output)))) {
+            out.writeInt(MapController.MAGIC);
+            out.writeShort(MapController.VERSION);
+            out.writeShort(count);
+            out.writeInt(row);
+            out.writeInt(col);
+            for(int id = 0; id < used.length; id++) {
+                if(used[id]) {
+                    out.writeByte(id);
+                    out.writeByte(MapController.getDefaultAttribute((char) id));
+                    out.writeByte(MapController.getDefaultNote((char) id));
+                }
+            }
+            out.write(grid.array(), grid.position(), row * col);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package interfaces;
 
 import java.util.LinkedList;
 
+import classes.containers.SpatialHash;
 import classes.controllers.KeyController;
 import classes.controllers.MapController;
 import classes.scenes.old.assets.BaseSprite;
@@ -24,6 +25,13 @@ public interface Calculation {
      */
     LinkedList<BaseSprite> getSpriteList();
 
+    /**
+     * スプライトの衝突判定の候補を絞り込む空間ハッシュを返す
+     *
+     * @return 空間ハッシュ
+     */
+    SpatialHash getSpriteGrid();
+
     /**
      * Zインデックスの最前面に表示するステージオブジェクトのリストを返す
      *
@@ -0,0 +1,20 @@
+package interfaces;
+
+/**
+ * <pre>
+ * 破棄時に解放が必要な資源(マップファイル、ビデオメモリ上の画像など)を持つゲームシーンを規定するインターフェース
+ * WindowControllerはメインのシーンを差し替えた際に、SceneControllerはシーンを破棄する際にdispose()を呼び出す
+ * SceneControllerが保持し続けるシーンは再び表示されることがあるため、
+ * 解放した資源は次の描画時に作り直せるものに限る
+ * </pre>
+ *
+ * @author Naoki Yoshikawa
+ *
+ */
+public interface DisposableScene {
+
+    /**
+     * シーンが保持する資源を解放する
+     */
+    void dispose();
+}
@@ -0,0 +1,14 @@
+package interfaces;
+
+/**
+ * <pre>
+ * 表示中は下に重なったシーンを停止させるオーバーレイシーンを規定するマーカーインターフェース
+ * ポーズ画面などが該当し、下のシーンの状態も描画内容も変化しないことを表す
+ * エフェクトのように下のシーンを操作しながら重なるシーンには実装しない
+ * </pre>
+ *
+ * @author Naoki Yoshikawa
+ *
+ */
+public interface ModalScene {
+}
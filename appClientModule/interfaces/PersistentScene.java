@@ -0,0 +1,27 @@
+package interfaces;
+
+/**
+ * <pre>
+ * シーンインスタンスを破棄しても引き継ぐ状態を持つゲームシーンを規定するインターフェース
+ * SceneControllerはシーンを破棄する前に状態を退避し、再生成時に復元する
+ * </pre>
+ *
+ * @author Naoki Yoshikawa
+ *
+ */
+public interface PersistentScene {
+
+    /**
+     * 引き継ぐ状態を返す
+     *
+     * @return 状態を表すオブジェクト
+     */
+    Object saveState();
+
+    /**
+     * 退避した状態を復元する
+     *
+     * @param state saveState()で返した状態を表すオブジェクト
+     */
+    void restoreState(Object state);
+}